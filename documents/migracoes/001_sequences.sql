@@ -0,0 +1,20 @@
+-- Troca as colunas IDENTITY por sequences, o que permite ao Hibernate agrupar os INSERTs em lote.
+-- O INCREMENT BY precisa ser igual ao allocationSize das entidades (50): com o otimizador pooled
+-- cada NEXTVAL devolve o limite superior de um bloco de 50 ids, por isso a sequence começa em MAX(id) + 50.
+DECLARE
+    PROCEDURE criar_sequence(p_sequence VARCHAR2, p_tabela VARCHAR2, p_coluna VARCHAR2) IS
+        v_inicio NUMBER;
+    BEGIN
+        EXECUTE IMMEDIATE 'SELECT NVL(MAX(' || p_coluna || '), 0) + 50 FROM ' || p_tabela INTO v_inicio;
+        EXECUTE IMMEDIATE 'CREATE SEQUENCE ' || p_sequence || ' START WITH ' || v_inicio || ' INCREMENT BY 50';
+        EXECUTE IMMEDIATE 'ALTER TABLE ' || p_tabela || ' MODIFY ' || p_coluna || ' DROP IDENTITY';
+    END;
+BEGIN
+    criar_sequence('app_seq', 'app', 'id_app');
+    criar_sequence('cliente_seq', 'cliente', 'cl_id');
+    criar_sequence('cadastro_seq', 'cadastro', 'id_cd');
+    criar_sequence('login_seq', 'login', 'id_lg');
+    criar_sequence('curiosidades_seq', 'curiosidades', 'id_cs');
+    criar_sequence('videos_seq', 'videos', 'id_vd');
+END;
+/
@@ -0,0 +1,7 @@
+-- Coluna de revisão usada pelo @Version (ETag / If-Match)
+ALTER TABLE app ADD revisao_app NUMBER(19) DEFAULT 0 NOT NULL;
+ALTER TABLE cadastro ADD revisao_cd NUMBER(19) DEFAULT 0 NOT NULL;
+ALTER TABLE cliente ADD revisao_cl NUMBER(19) DEFAULT 0 NOT NULL;
+ALTER TABLE curiosidades ADD revisao_cs NUMBER(19) DEFAULT 0 NOT NULL;
+ALTER TABLE login ADD revisao_lg NUMBER(19) DEFAULT 0 NOT NULL;
+ALTER TABLE videos ADD revisao_vd NUMBER(19) DEFAULT 0 NOT NULL;
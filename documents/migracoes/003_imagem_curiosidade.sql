@@ -0,0 +1,55 @@
+-- Move a imagem das curiosidades (base64 em CLOB) para um BLOB em tabela própria,
+-- servido por GET /curiosidades/{id}/imagem. As listagens deixam de ler o conteúdo.
+CREATE TABLE curiosidades_imagem (
+    id_cs       NUMBER(19) PRIMARY KEY REFERENCES curiosidades (id_cs) ON DELETE CASCADE,
+    tipo_ci     VARCHAR2(100) NOT NULL,
+    tamanho_ci  NUMBER(19) NOT NULL,
+    conteudo_ci BLOB
+) LOB (conteudo_ci) STORE AS SECUREFILE;
+
+-- Decodifica o base64 em pedaços múltiplos de 4 caracteres (UTL_ENCODE trabalha com RAW de até 32 KB).
+-- Quebras de linha no base64 deslocariam os pedaços, por isso são removidas antes.
+DECLARE
+    c_pedaco CONSTANT PLS_INTEGER := 24000;
+    v_base64 CLOB;
+    v_blob   BLOB;
+    v_tipo   VARCHAR2(100);
+    v_inicio PLS_INTEGER;
+    v_pos    PLS_INTEGER;
+    v_raw    RAW(32767);
+BEGIN
+    FOR c IN (SELECT id_cs, imagem_cs FROM curiosidades WHERE DBMS_LOB.GETLENGTH(imagem_cs) > 0) LOOP
+        v_base64 := REPLACE(REPLACE(c.imagem_cs, CHR(13)), CHR(10));
+        v_tipo := NULL;
+        v_inicio := 1;
+        IF DBMS_LOB.SUBSTR(v_base64, 5, 1) = 'data:' THEN
+            v_inicio := DBMS_LOB.INSTR(v_base64, ',') + 1;
+            v_tipo := REGEXP_SUBSTR(DBMS_LOB.SUBSTR(v_base64, v_inicio - 1, 1), '^data:([^;,]+)', 1, 1, NULL, 1);
+        END IF;
+
+        DBMS_LOB.CREATETEMPORARY(v_blob, TRUE);
+        v_pos := v_inicio;
+        WHILE v_pos <= DBMS_LOB.GETLENGTH(v_base64) LOOP
+            v_raw := UTL_ENCODE.BASE64_DECODE(UTL_RAW.CAST_TO_RAW(DBMS_LOB.SUBSTR(v_base64, c_pedaco, v_pos)));
+            DBMS_LOB.WRITEAPPEND(v_blob, UTL_RAW.LENGTH(v_raw), v_raw);
+            v_pos := v_pos + c_pedaco;
+        END LOOP;
+
+        IF v_tipo IS NULL THEN
+            v_tipo := CASE
+                WHEN RAWTOHEX(DBMS_LOB.SUBSTR(v_blob, 4, 1)) = '89504E47' THEN 'image/png'
+                WHEN RAWTOHEX(DBMS_LOB.SUBSTR(v_blob, 2, 1)) = 'FFD8' THEN 'image/jpeg'
+                WHEN RAWTOHEX(DBMS_LOB.SUBSTR(v_blob, 4, 1)) = '47494638' THEN 'image/gif'
+                ELSE 'application/octet-stream'
+            END;
+        END IF;
+
+        INSERT INTO curiosidades_imagem (id_cs, tipo_ci, tamanho_ci, conteudo_ci)
+        VALUES (c.id_cs, v_tipo, DBMS_LOB.GETLENGTH(v_blob), v_blob);
+        DBMS_LOB.FREETEMPORARY(v_blob);
+    END LOOP;
+    COMMIT;
+END;
+/
+
+ALTER TABLE curiosidades DROP COLUMN imagem_cs;
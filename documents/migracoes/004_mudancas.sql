@@ -0,0 +1,14 @@
+-- Log de mudanças de apps, vídeos e curiosidades lido pelo GET /changes, gravado na transação de cada escrita.
+-- O id é o cursor: a sequence entrega um número por vez (allocationSize = 1 na entidade) e o feed lê por faixa de id.
+CREATE SEQUENCE mudancas_seq START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE mudancas (
+    id_mud         NUMBER(19) NOT NULL,
+    tipo_mud       VARCHAR2(20) NOT NULL,
+    entidade_mud   NUMBER(19) NOT NULL,
+    excluida_mud   NUMBER(1) NOT NULL,
+    gravada_em_mud TIMESTAMP NOT NULL,
+    CONSTRAINT pk_mudancas PRIMARY KEY (id_mud)
+        USING INDEX (CREATE UNIQUE INDEX ix_mudancas_id ON mudancas (id_mud)),
+    CONSTRAINT ck_mudancas_tipo CHECK (tipo_mud IN ('APP', 'VIDEO', 'CURIOSIDADE'))
+);
@@ -0,0 +1,3 @@
+-- Índice da busca de login por email (POST /logins/authenticate e checagem de email duplicado).
+-- Declarado também no @Table de Login, mas lá só vale quando o Hibernate gera o schema.
+CREATE INDEX ix_login_email ON login (email_lg);
@@ -0,0 +1,4 @@
+-- Exclusão lógica de apps: preenchida no DELETE /apps/{id}; o expurgo em segundo plano remove as linhas depois.
+-- As consultas de AppRepo filtram por ela, e o expurgo retomado na subida lê os apps marcados em ordem de exclusão.
+ALTER TABLE app ADD excluido_em_app TIMESTAMP;
+CREATE INDEX ix_app_excluido_em ON app (excluido_em_app);
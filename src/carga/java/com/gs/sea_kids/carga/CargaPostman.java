@@ -0,0 +1,194 @@
+package com.gs.sea_kids.carga;
+
+import com.gs.sea_kids.SeaKidsApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reproduz a coleção Postman contra a aplicação com uma taxa de chegada fixa
+ * (modelo aberto: a próxima requisição sai no horário, responda a anterior ou
+ * não). Sem {@code --url}, sobe a aplicação com H2 e a {@link MassaDeDados}.
+ * <p>
+ * {@code mvn -Pcarga verify -DskipTests -Dcarga.args="--taxa=200 --duracao=60s"}
+ * <ul>
+ *     <li>{@code --colecao}: coleção Postman (padrão: a de {@code documents/})</li>
+ *     <li>{@code --taxa}: requisições por segundo (100)</li>
+ *     <li>{@code --duracao} e {@code --aquecimento}: tempo medido (60s) e descartado antes (10s)</li>
+ *     <li>{@code --metodos}: métodos da coleção reproduzidos (GET); escritas alteram a massa</li>
+ *     <li>{@code --ids-aleatorios}: troca o id fixo do caminho por um id sorteado da massa (true)</li>
+ *     <li>{@code --clientes}, {@code --logins}, {@code --videos}, {@code --curiosidades}: volumes da massa</li>
+ *     <li>{@code --url}: aplicação já em execução, em vez da embutida</li>
+ * </ul>
+ */
+public final class CargaPostman {
+
+    private static final Pattern ID_NO_FIM = Pattern.compile("/(\\d+)(?=$|\\?)");
+    private static final Pattern EMAIL = Pattern.compile("([\\w.]+)@example\\.com");
+    private static final int MAXIMO_EM_VOO = 20_000;
+
+    private CargaPostman() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opcoes = opcoes(args);
+        Path colecao = Path.of(opcoes.getOrDefault("colecao", "documents/SeaKids_API.postman_collection.json"));
+        double taxa = Double.parseDouble(opcoes.getOrDefault("taxa", "100"));
+        Duration duracao = DurationStyle.detectAndParse(opcoes.getOrDefault("duracao", "60s"));
+        Duration aquecimento = DurationStyle.detectAndParse(opcoes.getOrDefault("aquecimento", "10s"));
+        Set<String> metodos = Set.of(opcoes.getOrDefault("metodos", "GET").toUpperCase().split(","));
+        boolean idsAleatorios = Boolean.parseBoolean(opcoes.getOrDefault("ids-aleatorios", "true"));
+        int clientes = Integer.parseInt(opcoes.getOrDefault("clientes", "10000"));
+        int logins = Integer.parseInt(opcoes.getOrDefault("logins", "1000000"));
+        int videos = Integer.parseInt(opcoes.getOrDefault("videos", "2000"));
+        int curiosidades = Integer.parseInt(opcoes.getOrDefault("curiosidades", "5000"));
+
+        List<ColecaoPostman.Requisicao> requisicoes = ColecaoPostman.ler(colecao, metodos);
+        System.out.printf("%d requisições %s de %s%n", requisicoes.size(), metodos, colecao);
+
+        ConfigurableApplicationContext context = null;
+        String url = opcoes.get("url");
+        Map<String, Integer> volumes = Map.of("apps", 1, "clientes", clientes, "cadastros", clientes, "logins", logins,
+                "videos", videos, "curiosidades", curiosidades);
+        if (url == null) {
+            long inicio = System.nanoTime();
+            context = new SpringApplicationBuilder(SeaKidsApplication.class)
+                    // depois do schema criado e antes das cargas em memória (filtros de email, índice de busca)
+                    .listeners(evento -> {
+                        if (evento instanceof ApplicationStartedEvent iniciado) {
+                            new MassaDeDados(iniciado.getApplicationContext().getBean(DataSource.class))
+                                    .popular(clientes, logins, videos, curiosidades);
+                        }
+                    })
+                    .run(
+                            "--server.port=0",
+                            "--spring.main.banner-mode=off",
+                            "--logging.level.root=WARN",
+                            "--spring.datasource.url=jdbc:h2:mem:carga;MODE=Oracle;DB_CLOSE_DELAY=-1",
+                            "--spring.datasource.username=sa",
+                            "--spring.datasource.password=",
+                            "--spring.datasource.driver-class-name=org.h2.Driver",
+                            "--spring.jpa.hibernate.ddl-auto=create-drop");
+            url = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            System.out.printf("aplicação com H2 e massa %s pronta em %d s%n", volumes, Duration.ofNanos(System.nanoTime() - inicio).toSeconds());
+        }
+
+        Relatorio relatorio = disparar(URI.create(url), requisicoes, volumes, idsAleatorios, taxa, aquecimento, duracao);
+        relatorio.imprimir(System.out, duracao.toMillis() / 1_000.0);
+
+        if (context != null) {
+            context.close();
+        }
+        System.exit(0);
+    }
+
+    private static Relatorio disparar(URI base, List<ColecaoPostman.Requisicao> requisicoes, Map<String, Integer> volumes,
+                                      boolean idsAleatorios, double taxa, Duration aquecimento, Duration duracao)
+            throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        Relatorio relatorio = new Relatorio((int) Math.max(1, duracao.toSeconds()));
+        AtomicInteger emVoo = new AtomicInteger();
+        AtomicLong descartadas = new AtomicLong();
+
+        long intervalo = (long) (1_000_000_000L / taxa);
+        long aquecimentoNanos = aquecimento.toNanos();
+        long totalNanos = aquecimentoNanos + duracao.toNanos();
+        long inicio = System.nanoTime();
+        long inicioMedicao = inicio + aquecimentoNanos;
+        System.out.printf("%.0f req/s por %s (+%s de aquecimento) contra %s%n", taxa, duracao, aquecimento, base);
+
+        for (long i = 0; ; i++) {
+            long previsto = inicio + i * intervalo;
+            if (previsto - inicio >= totalNanos) {
+                break;
+            }
+            long espera = previsto - System.nanoTime();
+            if (espera > 0) {
+                LockSupport.parkNanos(espera);
+            }
+            ColecaoPostman.Requisicao requisicao = requisicoes.get((int) (i % requisicoes.size()));
+            boolean medir = previsto >= inicioMedicao;
+            if (emVoo.get() >= MAXIMO_EM_VOO) {
+                // a aplicação parou de responder: conta como erro em vez de acumular memória no gerador
+                descartadas.incrementAndGet();
+                if (medir) {
+                    relatorio.registrar(requisicao.nome(), (int) ((System.nanoTime() - inicioMedicao) / 1_000_000_000L), 0, true);
+                }
+                continue;
+            }
+            emVoo.incrementAndGet();
+            client.sendAsync(montar(base, requisicao, volumes, idsAleatorios, i), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((resposta, erro) -> {
+                        long agora = System.nanoTime();
+                        if (medir) {
+                            boolean falhou = erro != null || resposta.statusCode() >= 400;
+                            relatorio.registrar(requisicao.nome(), (int) ((agora - inicioMedicao) / 1_000_000_000L), agora - previsto, falhou);
+                        }
+                        emVoo.decrementAndGet();
+                    });
+        }
+
+        long limite = System.nanoTime() + Duration.ofSeconds(60).toNanos();
+        while (emVoo.get() > 0 && System.nanoTime() < limite) {
+            Thread.sleep(50);
+        }
+        if (descartadas.get() > 0 || emVoo.get() > 0) {
+            System.out.printf("descartadas pelo gerador: %d, sem resposta ao final: %d%n", descartadas.get(), emVoo.get());
+        }
+        return relatorio;
+    }
+
+    private static HttpRequest montar(URI base, ColecaoPostman.Requisicao requisicao, Map<String, Integer> volumes,
+                                      boolean idsAleatorios, long sequencia) {
+        String caminho = requisicao.caminho();
+        Integer volume = volumes.get(requisicao.recurso());
+        if (idsAleatorios && volume != null) {
+            Matcher id = ID_NO_FIM.matcher(caminho);
+            if (id.find()) {
+                caminho = id.replaceFirst("/" + ThreadLocalRandom.current().nextInt(1, volume + 1));
+            }
+        }
+        HttpRequest.Builder builder = HttpRequest.newBuilder(base.resolve(caminho)).timeout(Duration.ofSeconds(30));
+        if (requisicao.corpo() == null) {
+            return builder.method(requisicao.metodo(), HttpRequest.BodyPublishers.noBody()).build();
+        }
+        // emails únicos por requisição, para que os cadastros não esbarrem no 409 de email duplicado
+        String corpo = EMAIL.matcher(requisicao.corpo()).replaceAll("$1+" + sequencia + "@example.com");
+        return builder.header("Content-Type", "application/json")
+                .method(requisicao.metodo(), HttpRequest.BodyPublishers.ofString(corpo))
+                .build();
+    }
+
+    private static Map<String, String> opcoes(String[] args) {
+        Map<String, String> opcoes = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Argumento inválido (use --chave=valor): " + arg);
+            }
+            opcoes.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        return opcoes;
+    }
+}
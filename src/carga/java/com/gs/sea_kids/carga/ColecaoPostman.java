@@ -0,0 +1,62 @@
+package com.gs.sea_kids.carga;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Lê as requisições de uma coleção Postman v2.1 (pastas aninhadas), guardando
+ * só método, caminho relativo e corpo: o host da coleção é trocado pelo da
+ * aplicação sob carga.
+ */
+final class ColecaoPostman {
+
+    record Requisicao(String nome, String metodo, String caminho, String corpo) {
+
+        /** O recurso é o primeiro segmento do caminho ({@code /logins/1} → {@code logins}). */
+        String recurso() {
+            int fim = caminho.indexOf('/', 1);
+            return caminho.substring(1, fim < 0 ? caminho.length() : fim);
+        }
+    }
+
+    private ColecaoPostman() {
+    }
+
+    static List<Requisicao> ler(Path arquivo, Set<String> metodos) throws IOException {
+        JsonNode raiz = new ObjectMapper().readTree(arquivo.toFile());
+        List<Requisicao> requisicoes = new ArrayList<>();
+        adicionar(raiz.path("item"), "", metodos, requisicoes);
+        if (requisicoes.isEmpty()) {
+            throw new IllegalArgumentException("Nenhuma requisição " + metodos + " em " + arquivo);
+        }
+        return requisicoes;
+    }
+
+    private static void adicionar(JsonNode itens, String pasta, Set<String> metodos, List<Requisicao> requisicoes) {
+        for (JsonNode item : itens) {
+            String nome = pasta + item.path("name").asText();
+            if (item.has("item")) {
+                adicionar(item.path("item"), nome + "/", metodos, requisicoes);
+                continue;
+            }
+            JsonNode request = item.path("request");
+            String metodo = request.path("method").asText("GET").toUpperCase();
+            if (!metodos.contains(metodo)) {
+                continue;
+            }
+            JsonNode url = request.path("url");
+            URI uri = URI.create(url.isTextual() ? url.asText() : url.path("raw").asText());
+            String caminho = uri.getRawPath() + (uri.getRawQuery() == null ? "" : "?" + uri.getRawQuery());
+            JsonNode corpo = request.path("body").path("raw");
+            boolean temCorpo = !corpo.isMissingNode() && !corpo.asText().isBlank() && !metodo.equals("GET") && !metodo.equals("DELETE");
+            requisicoes.add(new Requisicao(metodo + " " + nome, metodo, caminho, temCorpo ? corpo.asText() : null));
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.gs.sea_kids.carga;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.IntFunction;
+
+/**
+ * Popula o banco embutido direto por JDBC em lotes, com volumes próximos aos
+ * de produção: milhões de logins e milhares de curiosidades com textos
+ * longos. Os ids são 1..N e as sequences são reposicionadas depois, para que
+ * os inserts da própria API continuem funcionando.
+ */
+final class MassaDeDados {
+
+    private static final int LOTE = 5_000;
+    private static final int ALOCACAO = 50;
+
+    private static final String[] PALAVRAS = {
+            "oceano", "baleia", "coral", "recife", "tubarão", "golfinho", "polvo", "maré", "plâncton", "água",
+            "profundidade", "espécie", "peixe", "tartaruga", "alga", "mangue", "costa", "areia", "onda", "salinidade",
+            "migração", "cardume", "predador", "fotossíntese", "temperatura", "correnteza", "ecossistema", "lixo",
+            "plástico", "preservação", "mergulho", "abissal", "luz", "estrela-do-mar", "água-viva", "camarão"
+    };
+
+    private final JdbcTemplate jdbc;
+    private final Random random = new Random(42);
+
+    MassaDeDados(DataSource dataSource) {
+        this.jdbc = new JdbcTemplate(dataSource);
+    }
+
+    /** Quantidade de linhas por recurso da API ({@code apps}, {@code logins}...). */
+    Map<String, Integer> popular(int clientes, int logins, int videos, int curiosidades) {
+        jdbc.update("insert into app (id_app, nm_app, versao_app, revisao_app) values (1, 'SeaKids', '1.0.0', 0)");
+        inserir("cliente (cl_id, nm_cl, email_cl, revisao_cl, app_id_app) values (?, ?, ?, 0, 1)", clientes,
+                i -> new Object[]{i, "Cliente " + i, "cliente" + i + "@seakids.com"});
+        inserir("cadastro (id_cd, nome_cd, email_cd, senha_cd, revisao_cd, app_id_app, cliente_cl_id) values (?, ?, ?, ?, 0, 1, ?)", clientes,
+                i -> new Object[]{i, "Cadastro " + i, "cadastro" + i + "@seakids.com", "segredo" + i, i});
+        // um único hash bcrypt para todos: calcular milhões levaria horas
+        String senha = new BCryptPasswordEncoder(10).encode("segredo");
+        inserir("login (id_lg, email_lg, senha_lg, revisao_lg, cadastro_id_cd, cliente_cl_id) values (?, ?, ?, 0, ?, ?)", logins,
+                i -> new Object[]{i, "login" + i + "@seakids.com", senha, 1 + i % clientes, 1 + i % clientes});
+        inserir("videos (id_vd, titulo_vd, link_vd, revisao_vd, app_id_app) values (?, ?, ?, 0, 1)", videos,
+                i -> new Object[]{i, titulo(), "https://videos.seakids.com/" + i});
+        inserir("curiosidades (id_cs, titulo_cs, texto_cs, revisao_cs, app_id_app) values (?, ?, ?, 0, 1)", curiosidades,
+                i -> new Object[]{i, titulo(), texto(2_000 + random.nextInt(18_000))});
+
+        reposicionar("app_seq", 1);
+        reposicionar("cliente_seq", clientes);
+        reposicionar("cadastro_seq", clientes);
+        reposicionar("login_seq", logins);
+        reposicionar("videos_seq", videos);
+        reposicionar("curiosidades_seq", curiosidades);
+        return Map.of("apps", 1, "clientes", clientes, "cadastros", clientes, "logins", logins,
+                "videos", videos, "curiosidades", curiosidades);
+    }
+
+    private void inserir(String tabelaEColunas, int quantidade, IntFunction<Object[]> linha) {
+        String sql = "insert into " + tabelaEColunas;
+        List<Object[]> lote = new ArrayList<>(LOTE);
+        for (int i = 1; i <= quantidade; i++) {
+            lote.add(linha.apply(i));
+            if (lote.size() == LOTE) {
+                jdbc.batchUpdate(sql, lote);
+                lote.clear();
+            }
+        }
+        if (!lote.isEmpty()) {
+            jdbc.batchUpdate(sql, lote);
+        }
+    }
+
+    // otimizador pooled: o valor da sequence é o teto do próximo bloco de ids
+    private void reposicionar(String sequence, int ultimoId) {
+        jdbc.execute("alter sequence " + sequence + " restart with " + ((ultimoId / ALOCACAO + 2) * ALOCACAO));
+    }
+
+    private String titulo() {
+        String titulo = capitalizar(frase(3 + random.nextInt(5)));
+        return titulo.length() > 100 ? titulo.substring(0, 100) : titulo;
+    }
+
+    private String texto(int caracteres) {
+        StringBuilder texto = new StringBuilder(caracteres + 100);
+        while (texto.length() < caracteres) {
+            texto.append(capitalizar(frase(8 + random.nextInt(12)))).append(". ");
+        }
+        return texto.toString();
+    }
+
+    private String frase(int palavras) {
+        StringBuilder frase = new StringBuilder();
+        for (int i = 0; i < palavras; i++) {
+            if (i > 0) {
+                frase.append(' ');
+            }
+            frase.append(PALAVRAS[random.nextInt(PALAVRAS.length)]);
+        }
+        return frase.toString();
+    }
+
+    private static String capitalizar(String texto) {
+        return Character.toUpperCase(texto.charAt(0)) + texto.substring(1);
+    }
+}
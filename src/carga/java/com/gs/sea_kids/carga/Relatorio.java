@@ -0,0 +1,82 @@
+package com.gs.sea_kids.carga;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latências por requisição da coleção e a curva de vazão segundo a segundo.
+ * A latência conta a partir do instante em que a requisição deveria ter saído
+ * (modelo aberto), então o atraso do próprio gerador também aparece.
+ */
+final class Relatorio {
+
+    private static final long MAXIMO_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private record Serie(ConcurrentHistogram latencias, LongAdder erros) {
+    }
+
+    private final Map<String, Serie> series = new ConcurrentHashMap<>();
+    private final ConcurrentHistogram total = new ConcurrentHistogram(MAXIMO_MICROS, 3);
+    private final AtomicLongArray concluidasPorSegundo;
+    private final AtomicLongArray errosPorSegundo;
+    private final ConcurrentHistogram[] latenciasPorSegundo;
+
+    Relatorio(int segundos) {
+        this.concluidasPorSegundo = new AtomicLongArray(segundos);
+        this.errosPorSegundo = new AtomicLongArray(segundos);
+        this.latenciasPorSegundo = new ConcurrentHistogram[segundos];
+        for (int i = 0; i < segundos; i++) {
+            latenciasPorSegundo[i] = new ConcurrentHistogram(MAXIMO_MICROS, 2);
+        }
+    }
+
+    void registrar(String nome, int segundo, long latenciaNanos, boolean erro) {
+        long micros = Math.min(MAXIMO_MICROS, Math.max(1, latenciaNanos / 1_000));
+        Serie serie = series.computeIfAbsent(nome, n -> new Serie(new ConcurrentHistogram(MAXIMO_MICROS, 3), new LongAdder()));
+        serie.latencias().recordValue(micros);
+        total.recordValue(micros);
+        if (erro) {
+            serie.erros().increment();
+        }
+        if (segundo >= 0 && segundo < concluidasPorSegundo.length()) {
+            concluidasPorSegundo.incrementAndGet(segundo);
+            latenciasPorSegundo[segundo].recordValue(micros);
+            if (erro) {
+                errosPorSegundo.incrementAndGet(segundo);
+            }
+        }
+    }
+
+    void imprimir(PrintStream saida, double duracaoSegundos) {
+        saida.printf("%n%-40s %9s %7s %10s %10s %10s %10s%n", "requisição", "total", "erros", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        series.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(e -> linha(saida, e.getKey(), e.getValue().latencias(), e.getValue().erros().sum()));
+        linha(saida, "TOTAL", total, series.values().stream().mapToLong(s -> s.erros().sum()).sum());
+        saida.printf("vazão média: %.1f req/s%n", total.getTotalCount() / duracaoSegundos);
+
+        saida.printf("%n%8s %10s %7s %10s %10s%n", "segundo", "req/s", "erros", "p50 ms", "p99 ms");
+        for (int i = 0; i < concluidasPorSegundo.length(); i++) {
+            Histogram latencias = latenciasPorSegundo[i];
+            saida.printf("%8d %10d %7d %10.1f %10.1f%n", i + 1, concluidasPorSegundo.get(i), errosPorSegundo.get(i),
+                    ms(latencias.getValueAtPercentile(50)), ms(latencias.getValueAtPercentile(99)));
+        }
+    }
+
+    private static void linha(PrintStream saida, String nome, Histogram latencias, long erros) {
+        saida.printf("%-40s %9d %7d %10.1f %10.1f %10.1f %10.1f%n", nome, latencias.getTotalCount(), erros,
+                ms(latencias.getValueAtPercentile(50)), ms(latencias.getValueAtPercentile(95)),
+                ms(latencias.getValueAtPercentile(99)), ms(latencias.getMaxValue()));
+    }
+
+    private static double ms(long micros) {
+        return micros / 1_000.0;
+    }
+}
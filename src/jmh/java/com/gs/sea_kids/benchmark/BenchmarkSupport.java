@@ -0,0 +1,91 @@
+package com.gs.sea_kids.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gs.sea_kids.dto.DtoMapperImpl;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.hateoas.config.EnableHypermediaSupport;
+import org.springframework.hateoas.config.HypermediaMappingInformation;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+
+/**
+ * Infraestrutura comum dos benchmarks: o {@link ObjectMapper} HAL montado como
+ * na aplicação, repositórios falsos que devolvem páginas prontas e o request
+ * usado na resolução da URI base.
+ */
+final class BenchmarkSupport {
+
+    private BenchmarkSupport() {
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ImportAutoConfiguration(JacksonAutoConfiguration.class)
+    @EnableHypermediaSupport(type = EnableHypermediaSupport.HypermediaType.HAL)
+    static class JsonConfiguration {
+    }
+
+    /**
+     * O contexto fica aberto de propósito: os serializadores HAL são
+     * instanciados pelo bean factory durante a escrita.
+     */
+    static ObjectMapper halObjectMapper() {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(JsonConfiguration.class);
+        ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+        return context.getBeansOfType(HypermediaMappingInformation.class).values().stream()
+                .filter(info -> info.getMediaTypes().contains(MediaTypes.HAL_JSON))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Configuração HAL não encontrada"))
+                .configureObjectMapper(objectMapper.copy());
+    }
+
+    /**
+     * Cria um repositório que responde qualquer consulta de listagem com o
+     * conteúdo informado, sem JPA nem banco.
+     */
+    @SuppressWarnings("unchecked")
+    static <R> R stubRepo(Class<R> repoType, List<?> content) {
+        Page<?> page = new PageImpl<>(content, PageRequest.of(0, Math.max(content.size(), 1)), content.size());
+        return (R) Proxy.newProxyInstance(repoType.getClassLoader(), new Class<?>[]{repoType}, (proxy, method, args) -> {
+            if (method.getReturnType().isAssignableFrom(Page.class)) {
+                return page;
+            }
+            if (method.getReturnType().isAssignableFrom(List.class)) {
+                return content;
+            }
+            if (method.getDeclaringClass() == Object.class) {
+                return method.invoke(content, args);
+            }
+            throw new UnsupportedOperationException(method.toString());
+        });
+    }
+
+    static <T> T controller(T controller, String repoField, Object repo, Object linkFactory) {
+        ReflectionTestUtils.setField(controller, repoField, repo);
+        ReflectionTestUtils.setField(controller, "linkFactory", linkFactory);
+        ReflectionTestUtils.setField(controller, "dtoMapper", new DtoMapperImpl());
+        return controller;
+    }
+
+    static void bindRequest(String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setServerName("localhost");
+        request.setServerPort(8080);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    static void unbindRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+}
@@ -0,0 +1,65 @@
+package com.gs.sea_kids.benchmark;
+
+import com.gs.sea_kids.dto.ResultadoBusca;
+import com.gs.sea_kids.search.IndiceBusca;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latência de uma busca ranqueada no índice em memória, com um corpus
+ * sintético de curiosidades (título + texto) e vídeos (título): um em cada
+ * dez termos vem do vocabulário marinho, o resto de 5000 palavras genéricas.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BuscaBenchmark {
+
+    private static final String[] PALAVRAS = {
+            "tubarão", "baleia", "golfinho", "polvo", "tartaruga", "coral", "oceano", "mar", "peixe", "água",
+            "azul", "gigante", "pequeno", "nada", "come", "vive", "profundo", "recife", "onda", "praia",
+            "lula", "estrela", "cavalo-marinho", "alga", "plâncton", "foca", "pinguim", "caranguejo", "concha", "areia"};
+
+    @Param({"1000", "10000"})
+    private int documentos;
+
+    @Param({"tubaroes", "baleia azul gigante"})
+    private String consulta;
+
+    private final IndiceBusca indice = new IndiceBusca();
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        for (long id = 1; id <= documentos; id++) {
+            if (id % 3 == 0) {
+                indice.indexar(IndiceBusca.VIDEO, id, frase(random, 4), null);
+            } else {
+                indice.indexar(IndiceBusca.CURIOSIDADE, id, frase(random, 5), frase(random, 60));
+            }
+        }
+    }
+
+    @Benchmark
+    public List<ResultadoBusca> buscar() {
+        return indice.buscar(consulta, 20);
+    }
+
+    private static String frase(Random random, int palavras) {
+        StringBuilder frase = new StringBuilder();
+        for (int i = 0; i < palavras; i++) {
+            if (random.nextInt(10) == 0) {
+                frase.append(PALAVRAS[random.nextInt(PALAVRAS.length)]).append(' ');
+            } else {
+                frase.append("palavra").append(random.nextInt(5000)).append(' ');
+            }
+        }
+        return frase.toString();
+    }
+}
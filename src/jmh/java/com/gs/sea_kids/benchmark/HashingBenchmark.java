@@ -0,0 +1,41 @@
+package com.gs.sea_kids.benchmark;
+
+import com.gs.sea_kids.security.SenhaHasher;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Autenticações por segundo (por thread) para cada custo do bcrypt; serve para
+ * dimensionar {@code seakids.hashing.threads} e {@code seakids.hashing.custo}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HashingBenchmark {
+
+    @Param({"8", "10", "12"})
+    private int custo;
+
+    private SenhaHasher senhaHasher;
+    private String hash;
+
+    @Setup
+    public void setup() {
+        senhaHasher = new SenhaHasher(custo);
+        hash = senhaHasher.hash("segredo-do-mar");
+    }
+
+    @Benchmark
+    public boolean verificar() {
+        return senhaHasher.confere("segredo-do-mar", hash);
+    }
+
+    @Benchmark
+    public String gerarHash() {
+        return senhaHasher.hash("segredo-do-mar");
+    }
+}
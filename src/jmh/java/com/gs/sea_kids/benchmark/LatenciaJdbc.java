@@ -0,0 +1,56 @@
+package com.gs.sea_kids.benchmark;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * Embrulha o {@link DataSource} da aplicação para que toda execução de
+ * comando espere uma latência fixa, simulando o round trip até um Oracle
+ * remoto com um H2 em memória. A espera acontece com a conexão em uso, como
+ * numa consulta real.
+ */
+final class LatenciaJdbc implements BeanPostProcessor {
+
+    private final long latenciaMillis;
+
+    LatenciaJdbc(Duration latencia) {
+        this.latenciaMillis = latencia.toMillis();
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        return bean instanceof DataSource dataSource ? proxy(DataSource.class, dataSource) : bean;
+    }
+
+    private <T> T proxy(Class<T> tipo, T alvo) {
+        return tipo.cast(Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[]{tipo}, (proxy, method, args) -> {
+            if (alvo instanceof Statement && method.getName().startsWith("execute")) {
+                Thread.sleep(latenciaMillis);
+            }
+            Object resultado;
+            try {
+                resultado = method.invoke(alvo, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (resultado instanceof Connection connection && method.getReturnType() == Connection.class) {
+                return proxy(Connection.class, connection);
+            }
+            if (resultado instanceof Statement statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+                return proxy(statementType(method.getReturnType()), statement);
+            }
+            return resultado;
+        }));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <S extends Statement> Class<S> statementType(Class<?> tipo) {
+        return (Class<S>) tipo;
+    }
+}
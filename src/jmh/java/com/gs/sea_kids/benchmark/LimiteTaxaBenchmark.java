@@ -0,0 +1,124 @@
+package com.gs.sea_kids.benchmark;
+
+import com.gs.sea_kids.config.LimiteTaxaProperties;
+import com.gs.sea_kids.security.SessaoTokens;
+import com.gs.sea_kids.web.LimiteTaxa;
+import com.gs.sea_kids.web.LimiteTaxaFilter;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo do limite de taxa por requisição. {@code tentar*} mede o
+ * {@link LimiteTaxa} isolado com 4 threads disputando a mesma tabela: um
+ * único cliente (todos os CAS no mesmo balde), 10 mil clientes e 200 mil
+ * clientes numa tabela de 64 mil vagas (sondagem esgotada, baldes
+ * compartilhados). {@code filtro} e {@code semFiltro} medem a requisição
+ * inteira pelo {@link LimiteTaxaFilter}, com o casamento de rotas, contra a
+ * mesma cadeia sem ele. A 50 mil req/s o orçamento é de 20 µs por requisição.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LimiteTaxaBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Tabela {
+
+        String[] clientes10mil;
+        String[] clientes200mil;
+        LimiteTaxa limite;
+        LimiteTaxa limiteRecusando;
+
+        @Setup
+        public void setup() {
+            clientes10mil = ips(10_000);
+            clientes200mil = ips(200_000);
+            // taxa alta o bastante para medir o caminho de aceite, que é o que faz CAS
+            limite = new LimiteTaxa(1e9, 1_000_000, 65_536);
+            limiteRecusando = new LimiteTaxa(1, 1, 65_536);
+        }
+
+        private static String[] ips(int quantidade) {
+            String[] ips = new String[quantidade];
+            for (int i = 0; i < quantidade; i++) {
+                ips[i] = "10." + (i >>> 16 & 0xff) + "." + (i >>> 8 & 0xff) + "." + (i & 0xff);
+            }
+            return ips;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Requisicao {
+
+        LimiteTaxaFilter filtro;
+        MockHttpServletRequest request;
+        MockHttpServletResponse response;
+        final FilterChain cadeia = (req, res) -> {
+        };
+
+        @Setup
+        public void setup() {
+            LimiteTaxaProperties.Grupo grupo = new LimiteTaxaProperties.Grupo();
+            grupo.setRotas(List.of("/logins", "/cadastros", "/clientes", "/clientes/batch"));
+            grupo.setMetodos(List.of("POST"));
+            grupo.setTaxa(1e9);
+            grupo.setRajada(1_000_000);
+            LimiteTaxaProperties properties = new LimiteTaxaProperties();
+            properties.getGrupos().put("cadastros", grupo);
+            filtro = new LimiteTaxaFilter(properties, new SessaoTokens(new byte[32], Duration.ofHours(1), Clock.systemUTC()));
+
+            request = new MockHttpServletRequest("POST", "/clientes");
+            request.setRemoteAddr("10.0.0.1");
+            response = new MockHttpServletResponse();
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long tentarMesmoCliente(Tabela tabela) {
+        return tabela.limite.tentar("10.0.0.1");
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long tentar10milClientes(Tabela tabela) {
+        return tabela.limite.tentar(tabela.clientes10mil[ThreadLocalRandom.current().nextInt(tabela.clientes10mil.length)]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long tentar200milClientes(Tabela tabela) {
+        return tabela.limite.tentar(tabela.clientes200mil[ThreadLocalRandom.current().nextInt(tabela.clientes200mil.length)]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long tentarRecusando(Tabela tabela) {
+        return tabela.limiteRecusando.tentar(tabela.clientes10mil[ThreadLocalRandom.current().nextInt(tabela.clientes10mil.length)]);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse filtro(Requisicao requisicao) throws Exception {
+        requisicao.filtro.doFilter(requisicao.request, requisicao.response, requisicao.cadeia);
+        // o OncePerRequestFilter marca o request; sem limpar, as próximas chamadas pulariam o filtro
+        requisicao.request.clearAttributes();
+        return requisicao.response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse semFiltro(Requisicao requisicao) throws Exception {
+        requisicao.cadeia.doFilter(requisicao.request, requisicao.response);
+        requisicao.request.clearAttributes();
+        return requisicao.response;
+    }
+}
@@ -0,0 +1,93 @@
+package com.gs.sea_kids.benchmark;
+
+import com.gs.sea_kids.controller.VideoController;
+import com.gs.sea_kids.hateoas.LinkFactory;
+import com.gs.sea_kids.hateoas.ResourceLinks;
+import com.gs.sea_kids.model.Video;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+/**
+ * Custo por página da montagem de links: {@code linkTo(methodOn(...))} por item
+ * contra os templates do {@link LinkFactory}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class LinkBuildingBenchmark {
+
+    @Param({"10", "100"})
+    private int size;
+
+    private final LinkFactory linkFactory = new LinkFactory();
+    private List<Video> videos;
+
+    @Setup
+    public void setup() {
+        videos = new ArrayList<>(size);
+        for (long i = 1; i <= size; i++) {
+            Video video = new Video();
+            video.setId(i);
+            video.setTitulo("Vídeo " + i);
+            videos.add(video);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void bindRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/videos");
+        request.setServerName("localhost");
+        request.setServerPort(8080);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @TearDown(Level.Trial)
+    public void unbindRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public CollectionModel<EntityModel<Video>> methodOnProxies() {
+        int page = 0;
+        List<EntityModel<Video>> models = videos.stream()
+                .map(video -> EntityModel.of(video,
+                        linkTo(methodOn(VideoController.class).getVideo(video.getId(), null, null)).withSelfRel(),
+                        linkTo(methodOn(VideoController.class).getVideos(page, size, null, null, null, null, null)).withRel("videos")))
+                .collect(Collectors.toList());
+
+        CollectionModel<EntityModel<Video>> collectionModel = CollectionModel.of(models);
+        collectionModel.add(linkTo(methodOn(VideoController.class).getVideos(page, size, null, null, null, null, null)).withSelfRel());
+        return collectionModel;
+    }
+
+    @Benchmark
+    public CollectionModel<EntityModel<Video>> linkTemplates() {
+        ResourceLinks links = linkFactory.linksFor(VideoController.class);
+        String baseUri = linkFactory.baseUri();
+        Link collectionLink = links.collection(baseUri, 0, size);
+
+        List<EntityModel<Video>> models = videos.stream()
+                .map(video -> EntityModel.of(video, links.self(baseUri, video.getId()), collectionLink))
+                .collect(Collectors.toList());
+
+        CollectionModel<EntityModel<Video>> collectionModel = CollectionModel.of(models);
+        collectionModel.add(collectionLink.withSelfRel());
+        return collectionModel;
+    }
+}
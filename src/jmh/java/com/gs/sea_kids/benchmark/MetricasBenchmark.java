@@ -0,0 +1,153 @@
+package com.gs.sea_kids.benchmark;
+
+import com.gs.sea_kids.SeaKidsApplication;
+import com.gs.sea_kids.config.MetricasConfig;
+import com.gs.sea_kids.controller.AppController;
+import com.gs.sea_kids.model.App;
+import com.gs.sea_kids.repo.AppRepo;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.filter.ServerHttpObservationFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo da instrumentação do Actuator no caminho de uma requisição:
+ * {@code GET /apps/{id}} com e sem o registro de métricas (observação HTTP com
+ * histograma, métricas do HikariCP e do Hibernate). Sem métricas, as
+ * autoconfigurações de métricas e observação são excluídas, como se o
+ * Actuator não estivesse no classpath. Rodar com {@code -prof gc} para ver
+ * também a diferença de alocação por requisição.
+ * <p>
+ * Como a diferença é pequena perto do ruído de uma requisição HTTP,
+ * {@code observarRequisicao} isola o que a instrumentação acrescenta em cada
+ * requisição: o {@link ServerHttpObservationFilter} com a convenção de
+ * {@link MetricasConfig} e um timer com histograma no registro Prometheus,
+ * contra o mesmo filtro com o registro NOOP.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(2)
+public class MetricasBenchmark {
+
+    private static final String SEM_METRICAS = String.join(",",
+            "org.springframework.boot.actuate.autoconfigure.metrics.MetricsAutoConfiguration",
+            "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration",
+            "org.springframework.boot.actuate.autoconfigure.metrics.export.prometheus.PrometheusMetricsExportAutoConfiguration",
+            "org.springframework.boot.actuate.autoconfigure.metrics.export.simple.SimpleMetricsExportAutoConfiguration",
+            "org.springframework.boot.actuate.autoconfigure.observation.ObservationAutoConfiguration");
+
+    @State(Scope.Benchmark)
+    public static class Aplicacao {
+
+        @Param({"false", "true"})
+        private boolean metricas;
+
+        private ConfigurableApplicationContext context;
+        private HttpClient client;
+        private HttpRequest request;
+
+        @Setup(Level.Trial)
+        public void iniciar() {
+            context = new SpringApplicationBuilder(SeaKidsApplication.class)
+                    .run(
+                            "--server.port=0",
+                            "--spring.main.banner-mode=off",
+                            "--logging.level.root=WARN",
+                            "--spring.datasource.url=jdbc:h2:mem:metricas;MODE=Oracle;DB_CLOSE_DELAY=-1",
+                            "--spring.datasource.username=sa",
+                            "--spring.datasource.password=",
+                            "--spring.datasource.driver-class-name=org.h2.Driver",
+                            "--spring.jpa.hibernate.ddl-auto=create-drop",
+                            "--spring.autoconfigure.exclude=" + (metricas ? "" : SEM_METRICAS));
+            if (metricas == (context.getBeanProvider(MeterRegistry.class).getIfAvailable() == null)) {
+                throw new IllegalStateException("Registro de métricas não corresponde ao parâmetro metricas=" + metricas);
+            }
+
+            App app = new App();
+            app.setNome("SeaKids");
+            app = context.getBean(AppRepo.class).save(app);
+
+            String porta = context.getEnvironment().getProperty("local.server.port");
+            client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            request = HttpRequest.newBuilder(URI.create("http://localhost:" + porta + "/apps/" + app.getId())).build();
+        }
+
+        @TearDown(Level.Trial)
+        public void encerrar() {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public int buscarApp(Aplicacao aplicacao) throws Exception {
+        return aplicacao.client.send(aplicacao.request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    @State(Scope.Thread)
+    public static class Observacao {
+
+        @Param({"false", "true"})
+        private boolean instrumentada;
+
+        private ServerHttpObservationFilter filtro;
+        private HandlerMethod handler;
+        private FilterChain chain;
+
+        @Setup(Level.Trial)
+        public void iniciar() throws Exception {
+            ObservationRegistry registry = ObservationRegistry.NOOP;
+            if (instrumentada) {
+                PrometheusMeterRegistry meterRegistry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+                meterRegistry.config().meterFilter(new MeterFilter() {
+                    @Override
+                    public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                        return DistributionStatisticConfig.builder()
+                                .percentilesHistogram(true)
+                                .minimumExpectedValue((double) Duration.ofMillis(1).toNanos())
+                                .maximumExpectedValue((double) Duration.ofSeconds(10).toNanos())
+                                .build()
+                                .merge(config);
+                    }
+                });
+                registry = ObservationRegistry.create();
+                registry.observationConfig().observationHandler(new DefaultMeterObservationHandler(meterRegistry));
+            }
+            filtro = new ServerHttpObservationFilter(registry, new MetricasConfig().serverRequestObservationConvention());
+            handler = new HandlerMethod(new AppController(), AppController.class.getMethod("getApp", Long.class, String.class));
+            chain = (request, response) -> ServerHttpObservationFilter.findObservationContext((HttpServletRequest) request)
+                    .ifPresent(context -> context.setPathPattern("/apps/{id}"));
+        }
+    }
+
+    @Benchmark
+    public int observarRequisicao(Observacao observacao) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/apps/1");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE, observacao.handler);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        observacao.filtro.doFilter(request, response, observacao.chain);
+        return response.getStatus();
+    }
+}
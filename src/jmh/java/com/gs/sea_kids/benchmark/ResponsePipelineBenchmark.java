@@ -0,0 +1,161 @@
+package com.gs.sea_kids.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gs.sea_kids.controller.*;
+import com.gs.sea_kids.dto.Expand;
+import com.gs.sea_kids.hateoas.LinkFactory;
+import com.gs.sea_kids.model.*;
+import com.gs.sea_kids.repo.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
+
+/**
+ * Caminho de leitura completo em processo: controller, montagem do
+ * {@code CollectionModel}/{@code EntityModel} e serialização HAL com o
+ * {@link ObjectMapper} configurado como na aplicação. Rode com {@code -prof gc}
+ * (padrão do profile) para acompanhar a alocação por operação.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ResponsePipelineBenchmark {
+
+    @Param({"video", "curiosidade", "cliente", "cadastro", "login", "app"})
+    private String entity;
+
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private Supplier<Object> listPage;
+
+    @Setup
+    public void setup() {
+        objectMapper = BenchmarkSupport.halObjectMapper();
+        LinkFactory linkFactory = new LinkFactory();
+        String path = "/" + entity + "s";
+
+        App app = new App();
+        app.setId(1L);
+        app.setNome("SeaKids");
+
+        switch (entity) {
+            case "video" -> {
+                VideoController controller = BenchmarkSupport.controller(new VideoController(), "videoRepo",
+                        BenchmarkSupport.stubRepo(VideoRepo.class, fixtures(id -> video(id, app))), linkFactory);
+                listPage = () -> controller.getVideos(0, size, null, null, "full", Expand.NENHUMA, null).getBody();
+            }
+            case "curiosidade" -> {
+                path = "/curiosidades";
+                CuriosidadeController controller = BenchmarkSupport.controller(new CuriosidadeController(), "curiosidadeRepo",
+                        BenchmarkSupport.stubRepo(CuriosidadeRepo.class, fixtures(id -> curiosidade(id, app))), linkFactory);
+                listPage = () -> controller.getCuriosidades(0, size, null, null, "full", Expand.NENHUMA, null).getBody();
+            }
+            case "cliente" -> {
+                ClienteController controller = BenchmarkSupport.controller(new ClienteController(), "clienteRepo",
+                        BenchmarkSupport.stubRepo(ClienteRepo.class, fixtures(id -> cliente(id, app))), linkFactory);
+                listPage = () -> controller.getClientes(0, size, null, null, Expand.NENHUMA, null).getBody();
+            }
+            case "cadastro" -> {
+                CadastroController controller = BenchmarkSupport.controller(new CadastroController(), "cadastroRepo",
+                        BenchmarkSupport.stubRepo(CadastroRepo.class, fixtures(id -> cadastro(id, app, cliente(id, app)))), linkFactory);
+                listPage = () -> controller.getCadastros(0, size, null, null, Expand.NENHUMA, null).getBody();
+            }
+            case "login" -> {
+                LoginController controller = BenchmarkSupport.controller(new LoginController(), "loginRepo",
+                        BenchmarkSupport.stubRepo(LoginRepo.class, fixtures(id -> {
+                            Cliente cliente = cliente(id, app);
+                            return login(id, cadastro(id, app, cliente), cliente);
+                        })), linkFactory);
+                listPage = () -> controller.getLogins(0, size, null, null, Expand.NENHUMA, null).getBody();
+            }
+            case "app" -> {
+                AppController controller = BenchmarkSupport.controller(new AppController(), "appRepo",
+                        BenchmarkSupport.stubRepo(AppRepo.class, fixtures(id -> {
+                            App item = new App();
+                            item.setId(id);
+                            item.setNome("App " + id);
+                            return item;
+                        })), linkFactory);
+                listPage = () -> controller.getApps(0, size, null, null, null).getBody();
+            }
+            default -> throw new IllegalArgumentException(entity);
+        }
+
+        BenchmarkSupport.bindRequest(path);
+    }
+
+    @TearDown
+    public void unbindRequest() {
+        BenchmarkSupport.unbindRequest();
+    }
+
+    @Benchmark
+    public byte[] listPage() throws Exception {
+        return objectMapper.writeValueAsBytes(listPage.get());
+    }
+
+    private <T> List<T> fixtures(LongFunction<T> factory) {
+        List<T> items = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            items.add(factory.apply(id));
+        }
+        return items;
+    }
+
+    private static Video video(long id, App app) {
+        Video video = new Video();
+        video.setId(id);
+        video.setTitulo("Baleias jubarte cantando no oceano " + id);
+        video.setLink("https://www.youtube.com/watch?v=seakids" + id);
+        video.setApp(app);
+        return video;
+    }
+
+    private static Curiosidade curiosidade(long id, App app) {
+        Curiosidade curiosidade = new Curiosidade();
+        curiosidade.setId(id);
+        curiosidade.setTitulo("Curiosidade sobre tubarões " + id);
+        curiosidade.setTexto("Os tubarões existem há mais de 400 milhões de anos e vivem em todos os oceanos. ".repeat(8));
+        curiosidade.setApp(app);
+        return curiosidade;
+    }
+
+    private static Cliente cliente(long id, App app) {
+        Cliente cliente = new Cliente();
+        cliente.setId(id);
+        cliente.setNome("Cliente " + id);
+        cliente.setEmail("cliente" + id + "@seakids.com");
+        cliente.setApp(app);
+        return cliente;
+    }
+
+    private static Cadastro cadastro(long id, App app, Cliente cliente) {
+        Cadastro cadastro = new Cadastro();
+        cadastro.setId(id);
+        cadastro.setNome("Cadastro " + id);
+        cadastro.setEmail("cadastro" + id + "@seakids.com");
+        cadastro.setSenha("senha" + id);
+        cadastro.setApp(app);
+        cadastro.setCliente(cliente);
+        return cadastro;
+    }
+
+    private static Login login(long id, Cadastro cadastro, Cliente cliente) {
+        Login login = new Login();
+        login.setId(id);
+        login.setEmail("login" + id + "@seakids.com");
+        login.setSenha("senha" + id);
+        login.setCadastro(cadastro);
+        login.setCliente(cliente);
+        return login;
+    }
+}
@@ -0,0 +1,48 @@
+package com.gs.sea_kids.benchmark;
+
+import com.gs.sea_kids.security.Sessao;
+import com.gs.sea_kids.security.SessaoTokens;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo da autorização por requisição: verificação HMAC de um token de sessão
+ * (com {@code -prof gc} para acompanhar a alocação por chamada).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class TokenBenchmark {
+
+    private SessaoTokens sessaoTokens;
+    private String token;
+    private String adulterado;
+
+    @Setup
+    public void setup() {
+        sessaoTokens = new SessaoTokens(new byte[32], Duration.ofHours(1), Clock.systemUTC());
+        token = sessaoTokens.emitir(sessaoTokens.novaSessao(42L, 7L));
+        adulterado = token.substring(0, token.length() - 1) + (token.endsWith("A") ? "B" : "A");
+    }
+
+    @Benchmark
+    public Sessao verificar() {
+        return sessaoTokens.verificar(token);
+    }
+
+    @Benchmark
+    public Sessao verificarAdulterado() {
+        return sessaoTokens.verificar(adulterado);
+    }
+
+    @Benchmark
+    public String emitir() {
+        return sessaoTokens.emitir(sessaoTokens.novaSessao(42L, 7L));
+    }
+}
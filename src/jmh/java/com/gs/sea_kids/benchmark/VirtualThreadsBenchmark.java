@@ -0,0 +1,103 @@
+package com.gs.sea_kids.benchmark;
+
+import com.gs.sea_kids.SeaKidsApplication;
+import com.gs.sea_kids.model.App;
+import com.gs.sea_kids.model.Cliente;
+import com.gs.sea_kids.repo.AppRepo;
+import com.gs.sea_kids.repo.ClienteRepo;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vazão e p99 de {@code GET /clientes} com threads de plataforma e com threads
+ * virtuais, sob alta concorrência e com cada comando SQL levando
+ * {@code latenciaMs} (ver {@link LatenciaJdbc}). O Tomcat fica com menos
+ * threads do que o pool tem conexões, como em produção: no modo plataforma o
+ * gargalo são as threads; no virtual, as conexões.
+ * <p>
+ * {@code -Djdk.tracePinnedThreads=short} denuncia no log qualquer pinning.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(256)
+@Fork(value = 1, jvmArgsAppend = "-Djdk.tracePinnedThreads=short")
+@State(Scope.Benchmark)
+public class VirtualThreadsBenchmark {
+
+    @Param({"false", "true"})
+    private boolean virtual;
+
+    @Param({"50"})
+    private int latenciaMs;
+
+    @Param({"32"})
+    private int threadsTomcat;
+
+    @Param({"96"})
+    private int conexoes;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest request;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        context = new SpringApplicationBuilder(SeaKidsApplication.class)
+                .initializers(ctx -> ctx.getBeanFactory().addBeanPostProcessor(new LatenciaJdbc(Duration.ofMillis(latenciaMs))))
+                // argumentos de linha de comando: .properties() seria sobrescrito pelo application.properties
+                .run(
+                        "--server.port=0",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--spring.datasource.url=jdbc:h2:mem:virtual;MODE=Oracle;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.threads.virtual.enabled=" + virtual,
+                        "--server.tomcat.threads.max=" + threadsTomcat,
+                        "--server.tomcat.accept-count=1000",
+                        "--server.tomcat.max-connections=2000",
+                        "--spring.datasource.hikari.maximum-pool-size=" + conexoes,
+                        "--spring.datasource.hikari.minimum-idle=" + conexoes);
+
+        App app = new App();
+        app.setNome("SeaKids");
+        app = context.getBean(AppRepo.class).save(app);
+        List<Cliente> clientes = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Cliente cliente = new Cliente();
+            cliente.setNome("Cliente " + i);
+            cliente.setEmail("cliente" + i + "@seakids.com");
+            cliente.setApp(app);
+            clientes.add(cliente);
+        }
+        context.getBean(ClienteRepo.class).saveAll(clientes);
+
+        String porta = context.getEnvironment().getProperty("local.server.port");
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + porta + "/clientes?after=0&size=20")).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        context.close();
+    }
+
+    @Benchmark
+    public int listarClientes() throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,32 @@
+package com.gs.sea_kids.config;
+
+import com.gs.sea_kids.repo.CadastroRepo;
+import com.gs.sea_kids.repo.ClienteRepo;
+import com.gs.sea_kids.validation.FiltroEmails;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Um {@link FiltroEmails} para clientes e outro para cadastros; a carga
+ * inicial fica com o {@link com.gs.sea_kids.validation.CargaFiltroEmails}.
+ */
+@Configuration(proxyBeanMethods = false)
+public class FiltroEmailsConfig {
+
+    @Value("${seakids.emails.capacidade:100000}")
+    private long capacidade;
+
+    @Value("${seakids.emails.fpp:0.01}")
+    private double fpp;
+
+    @Bean
+    public FiltroEmails filtroEmailsCliente(ClienteRepo clienteRepo) {
+        return new FiltroEmails(capacidade, fpp, clienteRepo::existsByEmailIgnoreCase);
+    }
+
+    @Bean
+    public FiltroEmails filtroEmailsCadastro(CadastroRepo cadastroRepo) {
+        return new FiltroEmails(capacidade, fpp, cadastroRepo::existsByEmailIgnoreCase);
+    }
+}
@@ -0,0 +1,22 @@
+package com.gs.sea_kids.config;
+
+import com.fasterxml.jackson.datatype.hibernate6.Hibernate6Module;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * Associações LAZY fora do fetch plan do endpoint saem só com o id, sem
+     * disparar SELECT durante a serialização. {@code @Transient} continua
+     * valendo só para o JPA (ex.: {@code Curiosidade.imagem} na escrita).
+     */
+    @Bean
+    public Hibernate6Module hibernate6Module() {
+        Hibernate6Module module = new Hibernate6Module();
+        module.enable(Hibernate6Module.Feature.SERIALIZE_IDENTIFIER_FOR_LAZY_NOT_LOADED_OBJECTS);
+        module.disable(Hibernate6Module.Feature.USE_TRANSIENT_ANNOTATION);
+        return module;
+    }
+}
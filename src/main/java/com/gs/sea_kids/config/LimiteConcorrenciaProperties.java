@@ -0,0 +1,96 @@
+package com.gs.sea_kids.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "seakids.limite")
+public class LimiteConcorrenciaProperties {
+
+    private Map<String, Grupo> grupos = new LinkedHashMap<>();
+
+    public Map<String, Grupo> getGrupos() {
+        return grupos;
+    }
+
+    public void setGrupos(Map<String, Grupo> grupos) {
+        this.grupos = grupos;
+    }
+
+    public static class Grupo {
+
+        private List<String> rotas = new ArrayList<>();
+
+        private List<String> metodos = new ArrayList<>();
+
+        private int limiteInicial = 20;
+
+        private int limiteMinimo = 2;
+
+        private int limiteMaximo = 200;
+
+        private double tolerancia = 1.5;
+
+        private Duration retryAfter = Duration.ofSeconds(1);
+
+        public List<String> getRotas() {
+            return rotas;
+        }
+
+        public void setRotas(List<String> rotas) {
+            this.rotas = rotas;
+        }
+
+        public List<String> getMetodos() {
+            return metodos;
+        }
+
+        public void setMetodos(List<String> metodos) {
+            this.metodos = metodos;
+        }
+
+        public int getLimiteInicial() {
+            return limiteInicial;
+        }
+
+        public void setLimiteInicial(int limiteInicial) {
+            this.limiteInicial = limiteInicial;
+        }
+
+        public int getLimiteMinimo() {
+            return limiteMinimo;
+        }
+
+        public void setLimiteMinimo(int limiteMinimo) {
+            this.limiteMinimo = limiteMinimo;
+        }
+
+        public int getLimiteMaximo() {
+            return limiteMaximo;
+        }
+
+        public void setLimiteMaximo(int limiteMaximo) {
+            this.limiteMaximo = limiteMaximo;
+        }
+
+        public double getTolerancia() {
+            return tolerancia;
+        }
+
+        public void setTolerancia(double tolerancia) {
+            this.tolerancia = tolerancia;
+        }
+
+        public Duration getRetryAfter() {
+            return retryAfter;
+        }
+
+        public void setRetryAfter(Duration retryAfter) {
+            this.retryAfter = retryAfter;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.gs.sea_kids.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "seakids.taxa")
+public class LimiteTaxaProperties {
+
+    private Map<String, Grupo> grupos = new LinkedHashMap<>();
+
+    public Map<String, Grupo> getGrupos() {
+        return grupos;
+    }
+
+    public void setGrupos(Map<String, Grupo> grupos) {
+        this.grupos = grupos;
+    }
+
+    public enum Chave {
+        IP, TOKEN
+    }
+
+    public static class Grupo {
+
+        private List<String> rotas = new ArrayList<>();
+
+        private List<String> metodos = new ArrayList<>();
+
+        private double taxa = 5;
+
+        private int rajada = 20;
+
+        private Chave chave = Chave.IP;
+
+        private int capacidade = 65536;
+
+        public List<String> getRotas() {
+            return rotas;
+        }
+
+        public void setRotas(List<String> rotas) {
+            this.rotas = rotas;
+        }
+
+        public List<String> getMetodos() {
+            return metodos;
+        }
+
+        public void setMetodos(List<String> metodos) {
+            this.metodos = metodos;
+        }
+
+        public double getTaxa() {
+            return taxa;
+        }
+
+        public void setTaxa(double taxa) {
+            this.taxa = taxa;
+        }
+
+        public int getRajada() {
+            return rajada;
+        }
+
+        public void setRajada(int rajada) {
+            this.rajada = rajada;
+        }
+
+        public Chave getChave() {
+            return chave;
+        }
+
+        public void setChave(Chave chave) {
+            this.chave = chave;
+        }
+
+        public int getCapacidade() {
+            return capacidade;
+        }
+
+        public void setCapacidade(int capacidade) {
+            this.capacidade = capacidade;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.gs.sea_kids.config;
+
+import com.gs.sea_kids.eventos.CanalEventos;
+import com.gs.sea_kids.mudancas.FeedMudancas;
+import com.gs.sea_kids.security.HashingExecutor;
+import com.gs.sea_kids.validation.FiltroEmails;
+import com.gs.sea_kids.web.LimiteAdaptativo;
+import com.gs.sea_kids.web.LimiteConcorrenciaFilter;
+import com.gs.sea_kids.web.LimiteTaxa;
+import com.gs.sea_kids.web.LimiteTaxaFilter;
+import com.gs.sea_kids.web.RespostaCache;
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.http.server.observation.ServerRequestObservationConvention;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Métricas próprias sobre o que o Actuator já instrumenta (requisições,
+ * Hibernate, HikariCP e JVM): o método do controller como tag de
+ * {@code http.server.requests}, os limites de concorrência por grupo, o cache
+ * de respostas, os filtros de emails e o pool de hashing.
+ */
+@Configuration(proxyBeanMethods = false)
+public class MetricasConfig {
+
+    private static final KeyValue HANDLER_NENHUM = KeyValue.of("handler", "none");
+
+    // um KeyValue por método de controller, montado uma vez só
+    private static final Map<Method, KeyValue> HANDLERS = new ConcurrentHashMap<>();
+
+    @Bean
+    public ServerRequestObservationConvention serverRequestObservationConvention() {
+        return new DefaultServerRequestObservationConvention() {
+            @Override
+            public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+                return super.getLowCardinalityKeyValues(context).and(handler(context));
+            }
+        };
+    }
+
+    private static KeyValue handler(ServerRequestObservationContext context) {
+        if (context.getCarrier().getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod metodo) {
+            return HANDLERS.computeIfAbsent(metodo.getMethod(),
+                    m -> KeyValue.of("handler", metodo.getBeanType().getSimpleName() + "." + m.getName()));
+        }
+        return HANDLER_NENHUM;
+    }
+
+    @Bean
+    public MeterBinder limiteConcorrenciaMetrics(LimiteConcorrenciaFilter limiteConcorrenciaFilter) {
+        return registry -> limiteConcorrenciaFilter.limites().forEach((grupo, limite) -> {
+            Gauge.builder("seakids.concorrencia.limite", limite, LimiteAdaptativo::limite)
+                    .tag("grupo", grupo)
+                    .description("Limite adaptativo de requisições simultâneas")
+                    .register(registry);
+            Gauge.builder("seakids.concorrencia.em.andamento", limite, LimiteAdaptativo::emAndamento)
+                    .tag("grupo", grupo)
+                    .register(registry);
+            FunctionCounter.builder("seakids.concorrencia.aceitas", limite, LimiteAdaptativo::aceitas)
+                    .tag("grupo", grupo)
+                    .register(registry);
+            FunctionCounter.builder("seakids.concorrencia.rejeitadas", limite, LimiteAdaptativo::rejeitadas)
+                    .tag("grupo", grupo)
+                    .description("Requisições recusadas com 503 por excesso de concorrência")
+                    .register(registry);
+        });
+    }
+
+    @Bean
+    public MeterBinder limiteTaxaMetrics(LimiteTaxaFilter limiteTaxaFilter) {
+        return registry -> limiteTaxaFilter.limites().forEach((grupo, limite) -> {
+            FunctionCounter.builder("seakids.taxa.aceitas", limite, LimiteTaxa::aceitas)
+                    .tag("grupo", grupo)
+                    .register(registry);
+            FunctionCounter.builder("seakids.taxa.recusadas", limite, LimiteTaxa::recusadas)
+                    .tag("grupo", grupo)
+                    .description("Requisições recusadas com 429 pelo limite de taxa por cliente")
+                    .register(registry);
+        });
+    }
+
+    @Bean
+    public MeterBinder respostaCacheMetrics(RespostaCache respostaCache) {
+        return registry -> CaffeineCacheMetrics.monitor(registry, respostaCache.cache(), "respostas");
+    }
+
+    @Bean
+    public MeterBinder feedMudancasMetrics(FeedMudancas feedMudancas) {
+        return registry -> Gauge.builder("seakids.mudancas.esperas", feedMudancas, FeedMudancas::esperando)
+                .description("Requisições de GET /changes aguardando o próximo commit")
+                .register(registry);
+    }
+
+    @Bean
+    public MeterBinder canalEventosMetrics(CanalEventos canalEventos) {
+        return registry -> {
+            Gauge.builder("seakids.eventos.conectados", canalEventos, CanalEventos::conectados)
+                    .description("Streams SSE abertos")
+                    .register(registry);
+            FunctionCounter.builder("seakids.eventos.publicados", canalEventos, CanalEventos::publicados)
+                    .register(registry);
+            FunctionCounter.builder("seakids.eventos.desconectados.lentos", canalEventos, CanalEventos::desconectadosPorLentidao)
+                    .description("Assinantes encerrados com a fila cheia")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder filtroEmailsMetrics(@Qualifier("filtroEmailsCliente") FiltroEmails filtroEmailsCliente,
+                                           @Qualifier("filtroEmailsCadastro") FiltroEmails filtroEmailsCadastro) {
+        return registry -> {
+            registrarFiltro(registry, "clientes", filtroEmailsCliente);
+            registrarFiltro(registry, "cadastros", filtroEmailsCadastro);
+        };
+    }
+
+    private static void registrarFiltro(MeterRegistry registry, String entidade, FiltroEmails filtro) {
+        Gauge.builder("seakids.emails.elementos", filtro, FiltroEmails::elementos)
+                .tag("entidade", entidade)
+                .description("Emails no filtro de Bloom")
+                .register(registry);
+        Gauge.builder("seakids.emails.fpp.estimada", filtro, FiltroEmails::fppEstimada)
+                .tag("entidade", entidade)
+                .description("Taxa de falsos positivos esperada com o preenchimento atual")
+                .register(registry);
+        Gauge.builder("seakids.emails.fpp.observada", filtro, FiltroEmails::fppObservada)
+                .tag("entidade", entidade)
+                .register(registry);
+        FunctionCounter.builder("seakids.emails.consultas", filtro, FiltroEmails::consultas)
+                .tag("entidade", entidade)
+                .register(registry);
+        FunctionCounter.builder("seakids.emails.respondidas.filtro", filtro, FiltroEmails::respondidasPeloFiltro)
+                .tag("entidade", entidade)
+                .description("Consultas respondidas sem ir ao banco")
+                .register(registry);
+        FunctionCounter.builder("seakids.emails.consultas.banco", filtro, FiltroEmails::consultasAoBanco)
+                .tag("entidade", entidade)
+                .register(registry);
+        FunctionCounter.builder("seakids.emails.falsos.positivos", filtro, FiltroEmails::falsosPositivos)
+                .tag("entidade", entidade)
+                .register(registry);
+    }
+
+    @Bean
+    public MeterBinder hashingMetrics(HashingExecutor hashingExecutor) {
+        return registry -> {
+            Gauge.builder("seakids.hashing.ativas", hashingExecutor, HashingExecutor::ativas)
+                    .description("Threads do pool de bcrypt calculando um hash")
+                    .register(registry);
+            Gauge.builder("seakids.hashing.fila", hashingExecutor, HashingExecutor::fila)
+                    .register(registry);
+            FunctionCounter.builder("seakids.hashing.rejeitadas", hashingExecutor, HashingExecutor::rejeitadas)
+                    .description("Hashes recusados com 503 pela fila cheia")
+                    .register(registry);
+            FunctionTimer.builder("seakids.hashing.espera", hashingExecutor, HashingExecutor::concluidas,
+                            HashingExecutor::esperaNanos, TimeUnit.NANOSECONDS)
+                    .description("Tempo na fila antes do hash")
+                    .register(registry);
+            FunctionTimer.builder("seakids.hashing.execucao", hashingExecutor, HashingExecutor::concluidas,
+                            HashingExecutor::execucaoNanos, TimeUnit.NANOSECONDS)
+                    .register(registry);
+        };
+    }
+}
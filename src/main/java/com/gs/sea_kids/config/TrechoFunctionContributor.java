@@ -0,0 +1,23 @@
+package com.gs.sea_kids.config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.dialect.OracleDialect;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registra a função HQL {@code trecho(texto, n)}: os primeiros n caracteres de
+ * um CLOB como VARCHAR. O {@code substring} do Hibernate 6 não aceita colunas
+ * {@code @Lob}, e no Oracle o DBMS_LOB.SUBSTR evita devolver outro CLOB.
+ */
+public class TrechoFunctionContributor implements FunctionContributor {
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        String pattern = functionContributions.getDialect() instanceof OracleDialect
+                ? "dbms_lob.substr(?1, ?2, 1)"
+                : "substring(?1, 1, ?2)";
+        functionContributions.getFunctionRegistry().registerPattern("trecho", pattern,
+                functionContributions.getTypeConfiguration().getBasicTypeRegistry().resolve(StandardBasicTypes.STRING));
+    }
+}
@@ -1,110 +1,291 @@
 package com.gs.sea_kids.controller;
 
+import com.gs.sea_kids.dto.AppDto;
+import com.gs.sea_kids.dto.DtoMapper;
+import com.gs.sea_kids.eventos.CanalEventos;
 import com.gs.sea_kids.exception.ResourceNotFoundException;
+import com.gs.sea_kids.expurgo.ExpurgoApps;
+import com.gs.sea_kids.export.NdjsonExporter;
+import com.gs.sea_kids.hateoas.LinkFactory;
+import com.gs.sea_kids.hateoas.Paginas;
+import com.gs.sea_kids.hateoas.ResourceLinks;
 import com.gs.sea_kids.model.App;
+import com.gs.sea_kids.model.Mudanca;
+import com.gs.sea_kids.mudancas.RegistroMudancas;
 import com.gs.sea_kids.repo.AppRepo;
+import com.gs.sea_kids.repo.AtualizacaoParcial;
+import com.gs.sea_kids.web.ETags;
+import com.gs.sea_kids.web.TotaisAproximados;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
-import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.net.URI;
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
-
 @RestController
 @RequestMapping("/apps")
 @Validated
 @Tag(name = "App", description = "Operações relacionadas ao recurso App")
 public class AppController {
 
+    private static final Set<String> CAMPOS_PATCH = Set.of("nome", "versao");
+    private static final String EXCLUIDO_EM = "excluidoEm";
+
     @Autowired
     private AppRepo appRepo;
 
+    @Autowired
+    private LinkFactory linkFactory;
+
+    @Autowired
+    private TotaisAproximados totaisAproximados;
+
+    @Autowired
+    private DtoMapper dtoMapper;
+
+    @Autowired
+    private NdjsonExporter ndjsonExporter;
+
+    @Autowired
+    private ExpurgoApps expurgoApps;
+
+    @Autowired
+    private AtualizacaoParcial atualizacaoParcial;
+
+    @Autowired
+    private RegistroMudancas registroMudancas;
+
+    @Autowired
+    private CanalEventos canalEventos;
+
     @Operation(summary = "Lista todos os apps")
     @GetMapping
-    public ResponseEntity<CollectionModel<EntityModel<App>>> getApps(@RequestParam(defaultValue = "0") int page,
-                                                                     @RequestParam(defaultValue = "10") int size) {
-        Pageable pageable = PageRequest.of(page, size);
-        Page<App> appsPage = appRepo.findAll(pageable);
-
-        List<EntityModel<App>> apps = appsPage.stream()
-                .map(app -> EntityModel.of(app,
-                        linkTo(methodOn(AppController.class).getApp(app.getId())).withSelfRel(),
-                        linkTo(methodOn(AppController.class).getApps(page, size)).withRel("apps")))
+    public ResponseEntity<CollectionModel<EntityModel<AppDto>>> getApps(@RequestParam(defaultValue = "0") int page,
+                                                                        @RequestParam(defaultValue = "10") int size,
+                                                                        @RequestParam(required = false) Boolean withTotal,
+                                                                        @RequestParam(required = false) Long after,
+                                                                        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (after != null) {
+            return getAppsAfter(after, size, ifNoneMatch);
+        }
+
+        Slice<App> appsPage = appRepo.findAllByExcluidoEmIsNull(PageRequest.of(page, size));
+        Long total = Boolean.TRUE.equals(withTotal) ? totaisAproximados.total(appRepo, appRepo::countByExcluidoEmIsNull) : null;
+        String etag = ETags.ofPage("page=" + page + "&size=" + size + "&next=" + appsPage.hasNext() + "&total=" + total, appsPage.getContent(), App::getId, App::getRevisao);
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ETags.notModified(etag);
+        }
+
+        ResourceLinks links = linkFactory.linksFor(AppController.class);
+        String baseUri = linkFactory.baseUri();
+        Link collectionLink = links.collection(baseUri, page, size);
+
+        List<EntityModel<AppDto>> apps = appsPage.stream()
+                .map(app -> EntityModel.of(dtoMapper.toDto(app), links.self(baseUri, app.getId()), collectionLink))
+                .collect(Collectors.toList());
+
+        CollectionModel<EntityModel<AppDto>> collectionModel = Paginas.of(apps, appsPage, total);
+        collectionModel.add(collectionLink.withSelfRel());
+        if (appsPage.hasNext()) {
+            collectionModel.add(links.collection(baseUri, page + 1, size).withRel(IanaLinkRelations.NEXT));
+        }
+
+        return ResponseEntity.ok().eTag(etag).body(collectionModel);
+    }
+
+    private ResponseEntity<CollectionModel<EntityModel<AppDto>>> getAppsAfter(long after, int size, String ifNoneMatch) {
+        List<App> apps = appRepo.findByIdGreaterThanAndExcluidoEmIsNullOrderByIdAsc(after, Limit.of(size + 1));
+        boolean hasNext = apps.size() > size;
+        if (hasNext) {
+            apps = apps.subList(0, size);
+        }
+
+        String etag = ETags.ofPage("after=" + after + "&size=" + size + "&next=" + hasNext, apps, App::getId, App::getRevisao);
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ETags.notModified(etag);
+        }
+
+        ResourceLinks links = linkFactory.linksFor(AppController.class);
+        String baseUri = linkFactory.baseUri();
+        Link cursorLink = links.cursor(baseUri, after, size);
+
+        List<EntityModel<AppDto>> models = apps.stream()
+                .map(app -> EntityModel.of(dtoMapper.toDto(app), links.self(baseUri, app.getId()), cursorLink))
                 .collect(Collectors.toList());
 
-        CollectionModel<EntityModel<App>> collectionModel = CollectionModel.of(apps);
-        collectionModel.add(linkTo(methodOn(AppController.class).getApps(page, size)).withSelfRel());
+        CollectionModel<EntityModel<AppDto>> collectionModel = CollectionModel.of(models);
+        collectionModel.add(cursorLink.withSelfRel());
+        if (hasNext) {
+            collectionModel.add(links.cursor(baseUri, apps.get(size - 1).getId(), size).withRel(IanaLinkRelations.NEXT));
+        }
+
+        return ResponseEntity.ok().eTag(etag).body(collectionModel);
+    }
 
-        return ResponseEntity.ok(collectionModel);
+    @Operation(summary = "Exporta todos os apps em NDJSON")
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Transactional(readOnly = true)
+    public void exportApps(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        ndjsonExporter.export(appRepo.streamAllByExcluidoEmIsNullOrderByIdAsc(), dtoMapper::toDto, response.getOutputStream());
     }
 
     @Operation(summary = "Obtém detalhes de um app específico")
     @GetMapping("/{id}")
-    public ResponseEntity<EntityModel<App>> getApp(@PathVariable Long id) {
+    public ResponseEntity<EntityModel<AppDto>> getApp(@PathVariable Long id,
+                                                      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            String etag = appRepo.findRevisaoById(id).map(revisao -> ETags.of(id, revisao)).orElse(null);
+            if (etag != null && ETags.matches(ifNoneMatch, etag)) {
+                return ETags.notModified(etag);
+            }
+        }
+
         App app = appRepo.findById(id)
+                .filter(existente -> existente.getExcluidoEm() == null)
                 .orElseThrow(() -> new ResourceNotFoundException("App não encontrado pelo id :: " + id));
 
-        EntityModel<App> appModel = EntityModel.of(app,
-                linkTo(methodOn(AppController.class).getApp(id)).withSelfRel(),
-                linkTo(methodOn(AppController.class).getApps(0, 10)).withRel("apps"));
+        EntityModel<AppDto> appModel = toModel(app);
 
-        return ResponseEntity.ok(appModel);
+        return ResponseEntity.ok().eTag(ETags.of(app.getId(), app.getRevisao())).body(appModel);
     }
 
     @Operation(summary = "Cria um novo app")
     @PostMapping
-    public ResponseEntity<EntityModel<App>> saveApp(@Valid @RequestBody App app) {
+    @Transactional
+    public ResponseEntity<EntityModel<AppDto>> saveApp(@Valid @RequestBody App app) {
         App savedApp = appRepo.save(app);
+        registroMudancas.upsert(Mudanca.Tipo.APP, savedApp.getId());
 
-        EntityModel<App> appModel = EntityModel.of(savedApp,
-                linkTo(methodOn(AppController.class).getApp(savedApp.getId())).withSelfRel(),
-                linkTo(methodOn(AppController.class).getApps(0, 10)).withRel("apps"));
+        EntityModel<AppDto> appModel = toModel(savedApp);
 
-        return ResponseEntity.status(HttpStatus.CREATED).body(appModel);
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(ETags.of(savedApp.getId(), savedApp.getRevisao())).body(appModel);
     }
 
     @Operation(summary = "Atualiza um app existente")
     @PutMapping("/{id}")
-    public ResponseEntity<EntityModel<App>> updateApp(@PathVariable Long id, @Valid @RequestBody App app) {
+    @Transactional
+    public ResponseEntity<EntityModel<AppDto>> updateApp(@PathVariable Long id, @Valid @RequestBody App app,
+                                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         App existingApp = appRepo.findById(id)
+                .filter(existente -> existente.getExcluidoEm() == null)
                 .orElseThrow(() -> new ResourceNotFoundException("App não encontrado pelo id :: " + id));
+        ETags.checkIfMatch(ifMatch, ETags.of(existingApp.getId(), existingApp.getRevisao()));
 
         existingApp.setNome(app.getNome());
         existingApp.setVersao(app.getVersao());
-        App updatedApp = appRepo.save(existingApp);
+        // flush para a revisão nova já estar na entidade ao montar o ETag
+        App updatedApp = appRepo.saveAndFlush(existingApp);
+        registroMudancas.upsert(Mudanca.Tipo.APP, id);
+
+        EntityModel<AppDto> appModel = toModel(updatedApp);
 
-        EntityModel<App> appModel = EntityModel.of(updatedApp,
-                linkTo(methodOn(AppController.class).getApp(updatedApp.getId())).withSelfRel(),
-                linkTo(methodOn(AppController.class).getApps(0, 10)).withRel("apps"));
+        return ResponseEntity.ok().eTag(ETags.of(updatedApp.getId(), updatedApp.getRevisao())).body(appModel);
+    }
+
+    @Operation(summary = "Altera só os campos enviados de um app, num único UPDATE")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "App alterado; com If-Match, o ETag da nova revisão vem na resposta"),
+            @ApiResponse(responseCode = "400", description = "Campo desconhecido ou inválido"),
+            @ApiResponse(responseCode = "404", description = "App não encontrado"),
+            @ApiResponse(responseCode = "412", description = "O app foi alterado depois da revisão do If-Match")
+    })
+    @PatchMapping("/{id}")
+    @Transactional
+    public ResponseEntity<Void> patchApp(@PathVariable Long id, @RequestBody Map<String, Object> campos,
+                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Map<String, Object> alteracoes = atualizacaoParcial.validar(App.class, campos, CAMPOS_PATCH);
+        Long revisao = ETags.revisaoEsperada(ifMatch, id);
+
+        int linhas = atualizacaoParcial.atualizar(App.class, id, revisao, alteracoes, EXCLUIDO_EM);
+        AtualizacaoParcial.exigirLinha(linhas, id, () -> appRepo.findRevisaoById(id), "App não encontrado pelo id :: ");
+        registroMudancas.upsert(Mudanca.Tipo.APP, id);
 
-        return ResponseEntity.ok(appModel);
+        return ETags.noContent(id, revisao);
     }
 
     @Operation(summary = "Deleta um app existente")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "App marcado como excluído; clientes, cadastros, logins, vídeos e curiosidades são removidos em segundo plano. Repetido, reinicia um expurgo que falhou"),
+            @ApiResponse(responseCode = "404", description = "App não encontrado")
+    })
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteApp(@PathVariable Long id) {
-        App existingApp = appRepo.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("App não encontrado pelo id :: " + id));
+    @Transactional
+    public ResponseEntity<Map<String, Object>> deleteApp(@PathVariable Long id) {
+        // só marca: remover o grafo inteiro numa transação travaria o banco e a heap para apps grandes
+        int linhas = atualizacaoParcial.atualizar(App.class, id, null, Map.of(EXCLUIDO_EM, Instant.now()), EXCLUIDO_EM);
+        if (linhas == 0) {
+            // repetir o DELETE de um app já marcado reagenda um expurgo que falhou ou foi interrompido
+            if (!appRepo.existsByIdAndExcluidoEmIsNotNull(id)) {
+                throw new ResourceNotFoundException("App não encontrado pelo id :: " + id);
+            }
+        } else {
+            // a lápide do app vale para os vídeos e curiosidades dele, que o expurgo remove sem registrar uma a uma
+            registroMudancas.exclusao(Mudanca.Tipo.APP, id);
+        }
+        expurgoApps.agendar(id);
+
+        URI progresso = URI.create(linkFactory.linksFor(AppController.class).self(linkFactory.baseUri(), id).getHref() + "/exclusao");
+        return ResponseEntity.accepted().location(progresso).body(expurgoApps.progresso(id));
+    }
+
+    @Operation(summary = "Acompanha a remoção em segundo plano de um app excluído")
+    @GetMapping("/{id}/exclusao")
+    public ResponseEntity<Map<String, Object>> getExclusao(@PathVariable Long id) {
+        Map<String, Object> progresso = expurgoApps.progresso(id);
+        if (progresso == null) {
+            throw new ResourceNotFoundException("Nenhuma exclusão em andamento para o app :: " + id);
+        }
+        return ResponseEntity.ok(progresso);
+    }
+
+    @Operation(summary = "Stream (Server-Sent Events) dos vídeos e curiosidades publicados no app",
+            description = "Eventos \"video\" e \"curiosidade\" com o item criado; comentários de heartbeat a cada poucos segundos. "
+                    + "Um cliente que não acompanha os eventos é desconectado e deve se atualizar por GET /changes ao reconectar.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stream aberto (text/event-stream)"),
+            @ApiResponse(responseCode = "404", description = "App não encontrado"),
+            @ApiResponse(responseCode = "503", description = "Limite de conexões de eventos atingido")
+    })
+    @GetMapping(value = "/{id}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public void streamApp(@PathVariable Long id, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (appRepo.findRevisaoById(id).isEmpty()) {
+            throw new ResourceNotFoundException("App não encontrado pelo id :: " + id);
+        }
+        canalEventos.assinar(id, request, response);
+    }
 
-        appRepo.delete(existingApp);
-        return ResponseEntity.noContent().build();
+    private EntityModel<AppDto> toModel(App app) {
+        ResourceLinks links = linkFactory.linksFor(AppController.class);
+        String baseUri = linkFactory.baseUri();
+        return EntityModel.of(dtoMapper.toDto(app), links.self(baseUri, app.getId()), links.collection(baseUri, 0, 10));
     }
 }
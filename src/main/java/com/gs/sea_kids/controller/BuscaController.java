@@ -0,0 +1,61 @@
+package com.gs.sea_kids.controller;
+
+import com.gs.sea_kids.dto.ResultadoBusca;
+import com.gs.sea_kids.hateoas.LinkFactory;
+import com.gs.sea_kids.hateoas.ResourceLinks;
+import com.gs.sea_kids.search.IndiceBusca;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/search")
+public class BuscaController {
+
+    private static final int MAX_LIMIT = 100;
+
+    @Autowired
+    private IndiceBusca indiceBusca;
+
+    @Autowired
+    private LinkFactory linkFactory;
+
+    @GetMapping
+    @Operation(summary = "Busca vídeos e curiosidades por palavras do título e do texto")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Resultados em ordem de relevância")
+    })
+    public ResponseEntity<CollectionModel<EntityModel<ResultadoBusca>>> search(@RequestParam(defaultValue = "") String q,
+                                                                               @RequestParam(defaultValue = "20") int limit) {
+        int limite = Math.max(1, Math.min(limit, MAX_LIMIT));
+        ResourceLinks videos = linkFactory.linksFor(VideoController.class);
+        ResourceLinks curiosidades = linkFactory.linksFor(CuriosidadeController.class);
+        String baseUri = linkFactory.baseUri();
+
+        List<EntityModel<ResultadoBusca>> resultados = indiceBusca.buscar(q, limite).stream()
+                .map(resultado -> {
+                    ResourceLinks links = IndiceBusca.VIDEO.equals(resultado.tipo()) ? videos : curiosidades;
+                    return EntityModel.of(resultado, links.self(baseUri, resultado.id()));
+                })
+                .collect(Collectors.toList());
+
+        CollectionModel<EntityModel<ResultadoBusca>> collectionModel = CollectionModel.of(resultados);
+        collectionModel.add(Link.of(UriComponentsBuilder.fromUriString(baseUri).path("/search")
+                .queryParam("q", q).queryParam("limit", limite).encode().toUriString()).withSelfRel());
+
+        return ResponseEntity.ok(collectionModel);
+    }
+}
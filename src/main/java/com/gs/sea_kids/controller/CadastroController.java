@@ -1,58 +1,176 @@
 package com.gs.sea_kids.controller;
 
+import com.gs.sea_kids.dto.CadastroDto;
+import com.gs.sea_kids.dto.DtoMapper;
+import com.gs.sea_kids.dto.Expand;
+import com.gs.sea_kids.exception.AcessoNegadoException;
 import com.gs.sea_kids.exception.ResourceNotFoundException;
+import com.gs.sea_kids.export.NdjsonExporter;
+import com.gs.sea_kids.hateoas.LinkFactory;
+import com.gs.sea_kids.hateoas.Paginas;
+import com.gs.sea_kids.hateoas.ResourceLinks;
 import com.gs.sea_kids.model.Cadastro;
+import com.gs.sea_kids.repo.AtualizacaoParcial;
 import com.gs.sea_kids.repo.CadastroRepo;
+import com.gs.sea_kids.repo.LoginRepo;
+import com.gs.sea_kids.security.Autenticador;
+import com.gs.sea_kids.security.Sessao;
+import com.gs.sea_kids.validation.FiltroEmails;
+import com.gs.sea_kids.web.ETags;
+import com.gs.sea_kids.web.TotaisAproximados;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
-
 @RestController
 @RequestMapping("/cadastros")
 @Validated
 public class CadastroController {
 
+    private static final Set<String> CAMPOS_PATCH = Set.of("nome", "email", "senha");
+
     @Autowired
     private CadastroRepo cadastroRepo;
 
+    @Autowired
+    private LoginRepo loginRepo;
+
+    @Autowired
+    private LinkFactory linkFactory;
+
+    @Autowired
+    private AtualizacaoParcial atualizacaoParcial;
+
+    @Autowired
+    private TotaisAproximados totaisAproximados;
+
+    @Autowired
+    private DtoMapper dtoMapper;
+
+    @Autowired
+    private NdjsonExporter ndjsonExporter;
+
+    @Autowired
+    private FiltroEmails filtroEmailsCadastro;
+
+    @Autowired
+    private Autenticador autenticador;
+
     @GetMapping
     @Operation(summary = "Lista todos os cadastros")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Sucesso ao listar os cadastros"),
             @ApiResponse(responseCode = "404", description = "Nenhum cadastro encontrado")
     })
-    public ResponseEntity<CollectionModel<EntityModel<Cadastro>>> getCadastros(@RequestParam(defaultValue = "0") int page,
-                                                                               @RequestParam(defaultValue = "10") int size) {
-        Pageable pageable = PageRequest.of(page, size);
-        Page<Cadastro> cadastrosPage = cadastroRepo.findAll(pageable);
-
-        List<EntityModel<Cadastro>> cadastros = cadastrosPage.stream()
-                .map(cadastro -> EntityModel.of(cadastro,
-                        linkTo(methodOn(CadastroController.class).getCadastro(cadastro.getId())).withSelfRel(),
-                        linkTo(methodOn(CadastroController.class).getCadastros(page, size)).withRel("cadastros")))
+    public ResponseEntity<CollectionModel<EntityModel<CadastroDto>>> getCadastros(@RequestParam(defaultValue = "0") int page,
+                                                                                  @RequestParam(defaultValue = "10") int size,
+                                                                                  @RequestParam(required = false) Boolean withTotal,
+                                                                                  @RequestParam(required = false) Long after,
+                                                                                  @RequestParam(defaultValue = "") Expand expand,
+                                                                                  @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (after != null) {
+            return getCadastrosAfter(after, size, expand, ifNoneMatch);
+        }
+
+        Slice<Cadastro> cadastrosPage = cadastroRepo.findAllBy(PageRequest.of(page, size));
+        Long total = Boolean.TRUE.equals(withTotal) ? totaisAproximados.total(cadastroRepo) : null;
+        String etag = ETags.ofPage("page=" + page + "&size=" + size + "&next=" + cadastrosPage.hasNext() + "&total=" + total + "&expand=" + expand.chave(), cadastrosPage.getContent(), Cadastro::getId, Cadastro::getRevisao);
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ETags.notModified(etag);
+        }
+
+        ResourceLinks links = linkFactory.linksFor(CadastroController.class);
+        String baseUri = linkFactory.baseUri();
+        Link collectionLink = links.collection(baseUri, page, size);
+
+        List<EntityModel<CadastroDto>> cadastros = cadastrosPage.stream()
+                .map(cadastro -> EntityModel.of(dtoMapper.toDto(cadastro, expand), links.self(baseUri, cadastro.getId()), collectionLink))
                 .collect(Collectors.toList());
 
-        CollectionModel<EntityModel<Cadastro>> collectionModel = CollectionModel.of(cadastros);
-        collectionModel.add(linkTo(methodOn(CadastroController.class).getCadastros(page, size)).withSelfRel());
+        CollectionModel<EntityModel<CadastroDto>> collectionModel = Paginas.of(cadastros, cadastrosPage, total);
+        collectionModel.add(collectionLink.withSelfRel());
+        if (cadastrosPage.hasNext()) {
+            collectionModel.add(links.collection(baseUri, page + 1, size).withRel(IanaLinkRelations.NEXT));
+        }
 
-        return ResponseEntity.ok(collectionModel);
+        return ResponseEntity.ok().eTag(etag).body(collectionModel);
+    }
+
+    private ResponseEntity<CollectionModel<EntityModel<CadastroDto>>> getCadastrosAfter(long after, int size, Expand expand, String ifNoneMatch) {
+        List<Cadastro> cadastros = cadastroRepo.findByIdGreaterThanOrderByIdAsc(after, Limit.of(size + 1));
+        boolean hasNext = cadastros.size() > size;
+        if (hasNext) {
+            cadastros = cadastros.subList(0, size);
+        }
+
+        String etag = ETags.ofPage("after=" + after + "&size=" + size + "&next=" + hasNext + "&expand=" + expand.chave(), cadastros, Cadastro::getId, Cadastro::getRevisao);
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ETags.notModified(etag);
+        }
+
+        ResourceLinks links = linkFactory.linksFor(CadastroController.class);
+        String baseUri = linkFactory.baseUri();
+        Link cursorLink = links.cursor(baseUri, after, size);
+
+        List<EntityModel<CadastroDto>> models = cadastros.stream()
+                .map(cadastro -> EntityModel.of(dtoMapper.toDto(cadastro, expand), links.self(baseUri, cadastro.getId()), cursorLink))
+                .collect(Collectors.toList());
+
+        CollectionModel<EntityModel<CadastroDto>> collectionModel = CollectionModel.of(models);
+        collectionModel.add(cursorLink.withSelfRel());
+        if (hasNext) {
+            collectionModel.add(links.cursor(baseUri, cadastros.get(size - 1).getId(), size).withRel(IanaLinkRelations.NEXT));
+        }
+
+        return ResponseEntity.ok().eTag(etag).body(collectionModel);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Transactional(readOnly = true)
+    @Operation(summary = "Exporta todos os cadastros em NDJSON")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Sucesso ao exportar os cadastros")
+    })
+    public void exportCadastros(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        ndjsonExporter.export(cadastroRepo.streamAllByOrderByIdAsc(), cadastro -> dtoMapper.toDto(cadastro, Expand.NENHUMA), response.getOutputStream());
+    }
+
+    @GetMapping("/email-available")
+    @Operation(summary = "Informa se um email ainda pode ser usado em um novo cadastro")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Disponibilidade do email")
+    })
+    public ResponseEntity<Map<String, Object>> getEmailAvailable(@RequestParam String email) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("email", email);
+        body.put("disponivel", !filtroEmailsCadastro.emUso(email));
+        return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(body);
     }
 
     @GetMapping("/{id}")
@@ -61,15 +179,22 @@ public class CadastroController {
             @ApiResponse(responseCode = "200", description = "Sucesso ao obter detalhes do cadastro"),
             @ApiResponse(responseCode = "404", description = "Cadastro não encontrado")
     })
-    public ResponseEntity<EntityModel<Cadastro>> getCadastro(@PathVariable Long id) {
+    public ResponseEntity<EntityModel<CadastroDto>> getCadastro(@PathVariable Long id,
+                                                                @RequestParam(defaultValue = "") Expand expand,
+                                                                @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            String etag = cadastroRepo.findRevisaoById(id).map(revisao -> ETags.of(id, revisao, expand.chave())).orElse(null);
+            if (etag != null && ETags.matches(ifNoneMatch, etag)) {
+                return ETags.notModified(etag);
+            }
+        }
+
         Cadastro cadastro = cadastroRepo.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Cadastro não encontrado pelo id :: " + id));
 
-        EntityModel<Cadastro> cadastroModel = EntityModel.of(cadastro,
-                linkTo(methodOn(CadastroController.class).getCadastro(id)).withSelfRel(),
-                linkTo(methodOn(CadastroController.class).getCadastros(0, 10)).withRel("cadastros"));
+        EntityModel<CadastroDto> cadastroModel = toModel(cadastro, expand);
 
-        return ResponseEntity.ok(cadastroModel);
+        return ResponseEntity.ok().eTag(ETags.of(cadastro.getId(), cadastro.getRevisao(), expand.chave())).body(cadastroModel);
     }
 
     @PostMapping
@@ -79,14 +204,15 @@ public class CadastroController {
             @ApiResponse(responseCode = "201", description = "Sucesso ao criar um novo cadastro"),
             @ApiResponse(responseCode = "400", description = "Requisição inválida")
     })
-    public ResponseEntity<EntityModel<Cadastro>> saveCadastro(@Valid @RequestBody Cadastro cadastro) {
+    public ResponseEntity<EntityModel<CadastroDto>> saveCadastro(@Valid @RequestBody Cadastro cadastro) {
+        filtroEmailsCadastro.exigirDisponivel(cadastro.getEmail());
+        cadastro.setSenha(autenticador.hash(cadastro.getSenha()));
         Cadastro savedCadastro = cadastroRepo.save(cadastro);
+        filtroEmailsCadastro.registrar(savedCadastro.getEmail());
 
-        EntityModel<Cadastro> cadastroModel = EntityModel.of(savedCadastro,
-                linkTo(methodOn(CadastroController.class).getCadastro(savedCadastro.getId())).withSelfRel(),
-                linkTo(methodOn(CadastroController.class).getCadastros(0, 10)).withRel("cadastros"));
+        EntityModel<CadastroDto> cadastroModel = toModel(savedCadastro, Expand.NENHUMA);
 
-        return ResponseEntity.status(HttpStatus.CREATED).body(cadastroModel);
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(ETags.of(savedCadastro.getId(), savedCadastro.getRevisao())).body(cadastroModel);
     }
 
     @PutMapping("/{id}")
@@ -94,35 +220,108 @@ public class CadastroController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Sucesso ao atualizar o cadastro"),
             @ApiResponse(responseCode = "400", description = "Requisição inválida"),
+            @ApiResponse(responseCode = "403", description = "O token é de um login de outro cadastro"),
             @ApiResponse(responseCode = "404", description = "Cadastro não encontrado")
     })
-    public ResponseEntity<EntityModel<Cadastro>> updateCadastro(@PathVariable Long id, @Valid @RequestBody Cadastro cadastro) {
+    public ResponseEntity<EntityModel<CadastroDto>> updateCadastro(@PathVariable Long id, @Valid @RequestBody Cadastro cadastro,
+                                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                                   @RequestAttribute(name = Sessao.ATRIBUTO, required = false) Sessao sessao) {
+        exigirDono(sessao, id);
         Cadastro existingCadastro = cadastroRepo.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Cadastro não encontrado pelo id :: " + id));
+        ETags.checkIfMatch(ifMatch, ETags.of(existingCadastro.getId(), existingCadastro.getRevisao()));
+
+        String emailAnterior = existingCadastro.getEmail();
+        boolean emailAlterado = !FiltroEmails.mesmoEmail(emailAnterior, cadastro.getEmail());
+        if (emailAlterado) {
+            filtroEmailsCadastro.exigirDisponivel(cadastro.getEmail());
+        }
 
         existingCadastro.setNome(cadastro.getNome());
         existingCadastro.setEmail(cadastro.getEmail());
-        existingCadastro.setSenha(cadastro.getSenha());
+        existingCadastro.setSenha(autenticador.hash(cadastro.getSenha()));
         Cadastro updatedCadastro = cadastroRepo.save(existingCadastro);
+        if (emailAlterado) {
+            filtroEmailsCadastro.remover(emailAnterior);
+            filtroEmailsCadastro.registrar(updatedCadastro.getEmail());
+        }
 
-        EntityModel<Cadastro> cadastroModel = EntityModel.of(updatedCadastro,
-                linkTo(methodOn(CadastroController.class).getCadastro(updatedCadastro.getId())).withSelfRel(),
-                linkTo(methodOn(CadastroController.class).getCadastros(0, 10)).withRel("cadastros"));
+        EntityModel<CadastroDto> cadastroModel = toModel(updatedCadastro, Expand.NENHUMA);
 
-        return ResponseEntity.ok(cadastroModel);
+        return ResponseEntity.ok().eTag(ETags.of(updatedCadastro.getId(), updatedCadastro.getRevisao())).body(cadastroModel);
+    }
+
+    @PatchMapping("/{id}")
+    @Operation(summary = "Altera só os campos enviados de um cadastro, num único UPDATE")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Cadastro alterado; com If-Match, o ETag da nova revisão vem na resposta"),
+            @ApiResponse(responseCode = "400", description = "Campo desconhecido ou inválido"),
+            @ApiResponse(responseCode = "403", description = "O token é de um login de outro cadastro"),
+            @ApiResponse(responseCode = "404", description = "Cadastro não encontrado"),
+            @ApiResponse(responseCode = "412", description = "O cadastro foi alterado depois da revisão do If-Match")
+    })
+    public ResponseEntity<Void> patchCadastro(@PathVariable Long id, @RequestBody Map<String, Object> campos,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                              @RequestAttribute(name = Sessao.ATRIBUTO, required = false) Sessao sessao) {
+        exigirDono(sessao, id);
+        Map<String, Object> alteracoes = atualizacaoParcial.validar(Cadastro.class, campos, CAMPOS_PATCH);
+        Long revisao = ETags.revisaoEsperada(ifMatch, id);
+        if (alteracoes.containsKey("senha")) {
+            alteracoes.put("senha", autenticador.hash((String) alteracoes.get("senha")));
+        }
+
+        // o email anterior só é lido quando o PATCH troca o email: o filtro precisa dele para a remoção
+        String emailAnterior = null;
+        String novoEmail = (String) alteracoes.get("email");
+        boolean emailAlterado = false;
+        if (alteracoes.containsKey("email")) {
+            emailAnterior = cadastroRepo.findEmailById(id).orElse(null);
+            emailAlterado = !FiltroEmails.mesmoEmail(emailAnterior, novoEmail);
+            if (emailAlterado) {
+                filtroEmailsCadastro.exigirDisponivel(novoEmail);
+            }
+        }
+
+        int linhas = atualizacaoParcial.atualizar(Cadastro.class, id, revisao, alteracoes);
+        AtualizacaoParcial.exigirLinha(linhas, id, () -> cadastroRepo.findRevisaoById(id), "Cadastro não encontrado pelo id :: ");
+        if (emailAlterado) {
+            filtroEmailsCadastro.remover(emailAnterior);
+            filtroEmailsCadastro.registrar(novoEmail);
+        }
+
+        return ETags.noContent(id, revisao);
     }
 
     @DeleteMapping("/{id}")
     @Operation(summary = "Deleta um cadastro existente")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "204", description = "Sucesso ao deletar o cadastro"),
+            @ApiResponse(responseCode = "403", description = "O token é de um login de outro cadastro"),
             @ApiResponse(responseCode = "404", description = "Cadastro não encontrado")
     })
-    public ResponseEntity<Void> deleteCadastro(@PathVariable Long id) {
-        Cadastro existingCadastro = cadastroRepo.findById(id)
+    public ResponseEntity<Void> deleteCadastro(@PathVariable Long id,
+                                               @RequestAttribute(name = Sessao.ATRIBUTO, required = false) Sessao sessao) {
+        exigirDono(sessao, id);
+        CadastroRepo.Exclusao exclusao = cadastroRepo.excluirComLogins(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Cadastro não encontrado pelo id :: " + id));
 
-        cadastroRepo.delete(existingCadastro);
+        filtroEmailsCadastro.remover(exclusao.email());
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * O token não carrega o cadastro: com token, só um login ligado ao cadastro pode alterá-lo
+     * (uma consulta pela chave primária do login).
+     */
+    private void exigirDono(Sessao sessao, Long id) {
+        if (sessao != null && !loginRepo.existsByIdAndCadastroId(sessao.loginId(), id)) {
+            throw new AcessoNegadoException("O token não dá acesso ao cadastro :: " + id);
+        }
+    }
+
+    private EntityModel<CadastroDto> toModel(Cadastro cadastro, Expand expand) {
+        ResourceLinks links = linkFactory.linksFor(CadastroController.class);
+        String baseUri = linkFactory.baseUri();
+        return EntityModel.of(dtoMapper.toDto(cadastro, expand), links.self(baseUri, cadastro.getId()), links.collection(baseUri, 0, 10));
+    }
 }
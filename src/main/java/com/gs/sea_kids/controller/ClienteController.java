@@ -1,57 +1,173 @@
 package com.gs.sea_kids.controller;
 
+import com.gs.sea_kids.dto.ClienteDto;
+import com.gs.sea_kids.dto.DtoMapper;
+import com.gs.sea_kids.dto.Expand;
 import com.gs.sea_kids.exception.ResourceNotFoundException;
+import com.gs.sea_kids.export.NdjsonExporter;
+import com.gs.sea_kids.hateoas.LinkFactory;
+import com.gs.sea_kids.hateoas.Paginas;
+import com.gs.sea_kids.hateoas.ResourceLinks;
 import com.gs.sea_kids.model.Cliente;
+import com.gs.sea_kids.repo.AtualizacaoParcial;
 import com.gs.sea_kids.repo.ClienteRepo;
+import com.gs.sea_kids.validation.BatchValidator;
+import com.gs.sea_kids.validation.FiltroEmails;
+import com.gs.sea_kids.web.ETags;
+import com.gs.sea_kids.web.TotaisAproximados;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
-import org.springframework.data.domain.Page;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
-
 @RestController
 @RequestMapping("/clientes")
 @Validated
 public class ClienteController {
 
+    private static final Set<String> CAMPOS_PATCH = Set.of("nome", "email");
+
     @Autowired
     private ClienteRepo clienteRepo;
 
+    @Autowired
+    private LinkFactory linkFactory;
+
+    @Autowired
+    private AtualizacaoParcial atualizacaoParcial;
+
+    @Autowired
+    private TotaisAproximados totaisAproximados;
+
+    @Autowired
+    private DtoMapper dtoMapper;
+
+    @Autowired
+    private NdjsonExporter ndjsonExporter;
+
+    @Autowired
+    private FiltroEmails filtroEmailsCliente;
+
+    @Autowired
+    private FiltroEmails filtroEmailsCadastro;
+
+    @Autowired
+    private BatchValidator batchValidator;
+
     @GetMapping
     @Operation(summary = "Lista todos os clientes")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Sucesso ao listar os clientes"),
             @ApiResponse(responseCode = "404", description = "Nenhum cliente encontrado")
     })
-    public ResponseEntity<CollectionModel<EntityModel<Cliente>>> getClientes(@RequestParam(defaultValue = "0") int page,
-                                                                             @RequestParam(defaultValue = "10") int size) {
-        Pageable pageable = PageRequest.of(page, size);
-        Page<Cliente> clientePage = clienteRepo.findAll(pageable);
-
-        List<EntityModel<Cliente>> clientes = clientePage.stream()
-                .map(cliente -> EntityModel.of(cliente,
-                        linkTo(methodOn(ClienteController.class).getCliente(cliente.getId())).withSelfRel(),
-                        linkTo(methodOn(ClienteController.class).getClientes(page, size)).withRel("clientes")))
+    public ResponseEntity<CollectionModel<EntityModel<ClienteDto>>> getClientes(@RequestParam(defaultValue = "0") int page,
+                                                                                @RequestParam(defaultValue = "10") int size,
+                                                                                @RequestParam(required = false) Boolean withTotal,
+                                                                                @RequestParam(required = false) Long after,
+                                                                                @RequestParam(defaultValue = "") Expand expand,
+                                                                                @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (after != null) {
+            return getClientesAfter(after, size, expand, ifNoneMatch);
+        }
+
+        Slice<Cliente> clientePage = clienteRepo.findAllBy(PageRequest.of(page, size));
+        Long total = Boolean.TRUE.equals(withTotal) ? totaisAproximados.total(clienteRepo) : null;
+        String etag = ETags.ofPage("page=" + page + "&size=" + size + "&next=" + clientePage.hasNext() + "&total=" + total + "&expand=" + expand.chave(), clientePage.getContent(), Cliente::getId, Cliente::getRevisao);
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ETags.notModified(etag);
+        }
+
+        ResourceLinks links = linkFactory.linksFor(ClienteController.class);
+        String baseUri = linkFactory.baseUri();
+        Link collectionLink = links.collection(baseUri, page, size);
+
+        List<EntityModel<ClienteDto>> clientes = clientePage.stream()
+                .map(cliente -> EntityModel.of(dtoMapper.toDto(cliente, expand), links.self(baseUri, cliente.getId()), collectionLink))
+                .collect(Collectors.toList());
+
+        CollectionModel<EntityModel<ClienteDto>> collectionModel = Paginas.of(clientes, clientePage, total);
+        collectionModel.add(collectionLink.withSelfRel());
+        if (clientePage.hasNext()) {
+            collectionModel.add(links.collection(baseUri, page + 1, size).withRel(IanaLinkRelations.NEXT));
+        }
+
+        return ResponseEntity.ok().eTag(etag).body(collectionModel);
+    }
+
+    private ResponseEntity<CollectionModel<EntityModel<ClienteDto>>> getClientesAfter(long after, int size, Expand expand, String ifNoneMatch) {
+        List<Cliente> clientes = clienteRepo.findByIdGreaterThanOrderByIdAsc(after, Limit.of(size + 1));
+        boolean hasNext = clientes.size() > size;
+        if (hasNext) {
+            clientes = clientes.subList(0, size);
+        }
+
+        String etag = ETags.ofPage("after=" + after + "&size=" + size + "&next=" + hasNext + "&expand=" + expand.chave(), clientes, Cliente::getId, Cliente::getRevisao);
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ETags.notModified(etag);
+        }
+
+        ResourceLinks links = linkFactory.linksFor(ClienteController.class);
+        String baseUri = linkFactory.baseUri();
+        Link cursorLink = links.cursor(baseUri, after, size);
+
+        List<EntityModel<ClienteDto>> models = clientes.stream()
+                .map(cliente -> EntityModel.of(dtoMapper.toDto(cliente, expand), links.self(baseUri, cliente.getId()), cursorLink))
                 .collect(Collectors.toList());
 
-        CollectionModel<EntityModel<Cliente>> collectionModel = CollectionModel.of(clientes);
-        collectionModel.add(linkTo(methodOn(ClienteController.class).getClientes(page, size)).withSelfRel());
+        CollectionModel<EntityModel<ClienteDto>> collectionModel = CollectionModel.of(models);
+        collectionModel.add(cursorLink.withSelfRel());
+        if (hasNext) {
+            collectionModel.add(links.cursor(baseUri, clientes.get(size - 1).getId(), size).withRel(IanaLinkRelations.NEXT));
+        }
+
+        return ResponseEntity.ok().eTag(etag).body(collectionModel);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Transactional(readOnly = true)
+    @Operation(summary = "Exporta todos os clientes em NDJSON")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Sucesso ao exportar os clientes")
+    })
+    public void exportClientes(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        ndjsonExporter.export(clienteRepo.streamAllByOrderByIdAsc(), cliente -> dtoMapper.toDto(cliente, Expand.NENHUMA), response.getOutputStream());
+    }
 
-        return ResponseEntity.ok(collectionModel);
+    @GetMapping("/email-available")
+    @Operation(summary = "Informa se um email ainda pode ser usado em um novo cliente")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Disponibilidade do email")
+    })
+    public ResponseEntity<Map<String, Object>> getEmailAvailable(@RequestParam String email) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("email", email);
+        body.put("disponivel", !filtroEmailsCliente.emUso(email));
+        return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(body);
     }
 
     @GetMapping("/{id}")
@@ -60,15 +176,22 @@ public class ClienteController {
             @ApiResponse(responseCode = "200", description = "Sucesso ao obter detalhes do cliente"),
             @ApiResponse(responseCode = "404", description = "Cliente não encontrado")
     })
-    public ResponseEntity<EntityModel<Cliente>> getCliente(@PathVariable Long id) {
+    public ResponseEntity<EntityModel<ClienteDto>> getCliente(@PathVariable Long id,
+                                                              @RequestParam(defaultValue = "") Expand expand,
+                                                              @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            String etag = clienteRepo.findRevisaoById(id).map(revisao -> ETags.of(id, revisao, expand.chave())).orElse(null);
+            if (etag != null && ETags.matches(ifNoneMatch, etag)) {
+                return ETags.notModified(etag);
+            }
+        }
+
         Cliente cliente = clienteRepo.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Cliente não encontrado pelo id :: " + id));
 
-        EntityModel<Cliente> clienteModel = EntityModel.of(cliente,
-                linkTo(methodOn(ClienteController.class).getCliente(id)).withSelfRel(),
-                linkTo(methodOn(ClienteController.class).getClientes(0, 10)).withRel("clientes"));
+        EntityModel<ClienteDto> clienteModel = toModel(cliente, expand);
 
-        return ResponseEntity.ok(clienteModel);
+        return ResponseEntity.ok().eTag(ETags.of(cliente.getId(), cliente.getRevisao(), expand.chave())).body(clienteModel);
     }
 
     @PostMapping
@@ -77,14 +200,33 @@ public class ClienteController {
             @ApiResponse(responseCode = "201", description = "Sucesso ao criar um novo cliente"),
             @ApiResponse(responseCode = "400", description = "Requisição inválida")
     })
-    public ResponseEntity<EntityModel<Cliente>> saveCliente(@Valid @RequestBody Cliente cliente) {
+    public ResponseEntity<EntityModel<ClienteDto>> saveCliente(@Valid @RequestBody Cliente cliente) {
+        filtroEmailsCliente.exigirDisponivel(cliente.getEmail());
         Cliente savedCliente = clienteRepo.save(cliente);
+        filtroEmailsCliente.registrar(savedCliente.getEmail());
+
+        EntityModel<ClienteDto> clienteModel = toModel(savedCliente, Expand.NENHUMA);
+
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(ETags.of(savedCliente.getId(), savedCliente.getRevisao())).body(clienteModel);
+    }
+
+    @PostMapping("/batch")
+    @Operation(summary = "Cria vários clientes em lote")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Sucesso ao criar os clientes"),
+            @ApiResponse(responseCode = "400", description = "Requisição inválida, com os erros de cada elemento")
+    })
+    public ResponseEntity<CollectionModel<EntityModel<ClienteDto>>> saveClientes(@RequestBody List<Cliente> clientes) {
+        batchValidator.validate(clientes);
+        filtroEmailsCliente.exigirDisponiveis(clientes.stream().map(Cliente::getEmail).toList());
+        List<Cliente> savedClientes = clienteRepo.saveAll(clientes);
+        savedClientes.forEach(cliente -> filtroEmailsCliente.registrar(cliente.getEmail()));
 
-        EntityModel<Cliente> clienteModel = EntityModel.of(savedCliente,
-                linkTo(methodOn(ClienteController.class).getCliente(savedCliente.getId())).withSelfRel(),
-                linkTo(methodOn(ClienteController.class).getClientes(0, 10)).withRel("clientes"));
+        List<EntityModel<ClienteDto>> models = savedClientes.stream()
+                .map(cliente -> toModel(cliente, Expand.NENHUMA))
+                .collect(Collectors.toList());
 
-        return ResponseEntity.status(HttpStatus.CREATED).body(clienteModel);
+        return ResponseEntity.status(HttpStatus.CREATED).body(CollectionModel.of(models));
     }
 
     @PutMapping("/{id}")
@@ -94,19 +236,64 @@ public class ClienteController {
             @ApiResponse(responseCode = "400", description = "Requisição inválida"),
             @ApiResponse(responseCode = "404", description = "Cliente não encontrado")
     })
-    public ResponseEntity<EntityModel<Cliente>> updateCliente(@PathVariable Long id, @Valid @RequestBody Cliente cliente) {
+    public ResponseEntity<EntityModel<ClienteDto>> updateCliente(@PathVariable Long id, @Valid @RequestBody Cliente cliente,
+                                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         Cliente existingCliente = clienteRepo.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Cliente não encontrado pelo id :: " + id));
+        ETags.checkIfMatch(ifMatch, ETags.of(existingCliente.getId(), existingCliente.getRevisao()));
+
+        String emailAnterior = existingCliente.getEmail();
+        boolean emailAlterado = !FiltroEmails.mesmoEmail(emailAnterior, cliente.getEmail());
+        if (emailAlterado) {
+            filtroEmailsCliente.exigirDisponivel(cliente.getEmail());
+        }
 
         existingCliente.setNome(cliente.getNome());
         existingCliente.setEmail(cliente.getEmail());
         Cliente updatedCliente = clienteRepo.save(existingCliente);
+        if (emailAlterado) {
+            filtroEmailsCliente.remover(emailAnterior);
+            filtroEmailsCliente.registrar(updatedCliente.getEmail());
+        }
+
+        EntityModel<ClienteDto> clienteModel = toModel(updatedCliente, Expand.NENHUMA);
+
+        return ResponseEntity.ok().eTag(ETags.of(updatedCliente.getId(), updatedCliente.getRevisao())).body(clienteModel);
+    }
 
-        EntityModel<Cliente> clienteModel = EntityModel.of(updatedCliente,
-                linkTo(methodOn(ClienteController.class).getCliente(updatedCliente.getId())).withSelfRel(),
-                linkTo(methodOn(ClienteController.class).getClientes(0, 10)).withRel("clientes"));
+    @PatchMapping("/{id}")
+    @Operation(summary = "Altera só os campos enviados de um cliente, num único UPDATE")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Cliente alterado; com If-Match, o ETag da nova revisão vem na resposta"),
+            @ApiResponse(responseCode = "400", description = "Campo desconhecido ou inválido"),
+            @ApiResponse(responseCode = "404", description = "Cliente não encontrado"),
+            @ApiResponse(responseCode = "412", description = "O cliente foi alterado depois da revisão do If-Match")
+    })
+    public ResponseEntity<Void> patchCliente(@PathVariable Long id, @RequestBody Map<String, Object> campos,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Map<String, Object> alteracoes = atualizacaoParcial.validar(Cliente.class, campos, CAMPOS_PATCH);
+        Long revisao = ETags.revisaoEsperada(ifMatch, id);
+
+        // o email anterior só é lido quando o PATCH troca o email: o filtro precisa dele para a remoção
+        String emailAnterior = null;
+        String novoEmail = (String) alteracoes.get("email");
+        boolean emailAlterado = false;
+        if (alteracoes.containsKey("email")) {
+            emailAnterior = clienteRepo.findEmailById(id).orElse(null);
+            emailAlterado = !FiltroEmails.mesmoEmail(emailAnterior, novoEmail);
+            if (emailAlterado) {
+                filtroEmailsCliente.exigirDisponivel(novoEmail);
+            }
+        }
+
+        int linhas = atualizacaoParcial.atualizar(Cliente.class, id, revisao, alteracoes);
+        AtualizacaoParcial.exigirLinha(linhas, id, () -> clienteRepo.findRevisaoById(id), "Cliente não encontrado pelo id :: ");
+        if (emailAlterado) {
+            filtroEmailsCliente.remover(emailAnterior);
+            filtroEmailsCliente.registrar(novoEmail);
+        }
 
-        return ResponseEntity.ok(clienteModel);
+        return ETags.noContent(id, revisao);
     }
 
     @DeleteMapping("/{id}")
@@ -116,10 +303,17 @@ public class ClienteController {
             @ApiResponse(responseCode = "404", description = "Cliente não encontrado")
     })
     public ResponseEntity<Void> deleteCliente(@PathVariable Long id) {
-        Cliente existingCliente = clienteRepo.findById(id)
+        ClienteRepo.Exclusao exclusao = clienteRepo.excluirComDependentes(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Cliente não encontrado pelo id :: " + id));
 
-        clienteRepo.delete(existingCliente);
+        filtroEmailsCliente.remover(exclusao.email());
+        exclusao.emailsCadastros().forEach(filtroEmailsCadastro::remover);
         return ResponseEntity.noContent().build();
     }
+
+    private EntityModel<ClienteDto> toModel(Cliente cliente, Expand expand) {
+        ResourceLinks links = linkFactory.linksFor(ClienteController.class);
+        String baseUri = linkFactory.baseUri();
+        return EntityModel.of(dtoMapper.toDto(cliente, expand), links.self(baseUri, cliente.getId()), links.collection(baseUri, 0, 10));
+    }
 }
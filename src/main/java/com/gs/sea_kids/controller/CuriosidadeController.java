@@ -1,57 +1,249 @@
 package com.gs.sea_kids.controller;
 
+import com.gs.sea_kids.dto.CuriosidadeDto;
+import com.gs.sea_kids.dto.CuriosidadeResumo;
+import com.gs.sea_kids.dto.DtoMapper;
+import com.gs.sea_kids.dto.Expand;
+import com.gs.sea_kids.eventos.CanalEventos;
 import com.gs.sea_kids.exception.ResourceNotFoundException;
+import com.gs.sea_kids.export.NdjsonExporter;
+import com.gs.sea_kids.hateoas.LinkFactory;
+import com.gs.sea_kids.hateoas.Paginas;
+import com.gs.sea_kids.hateoas.ResourceLinks;
 import com.gs.sea_kids.model.Curiosidade;
+import com.gs.sea_kids.model.Mudanca;
+import com.gs.sea_kids.mudancas.RegistroMudancas;
+import com.gs.sea_kids.model.CuriosidadeImagem;
+import com.gs.sea_kids.repo.CuriosidadeImagemRepo;
+import com.gs.sea_kids.repo.AtualizacaoParcial;
 import com.gs.sea_kids.repo.CuriosidadeRepo;
+import com.gs.sea_kids.search.IndiceBusca;
+import com.gs.sea_kids.storage.ImagemStorage;
+import com.gs.sea_kids.validation.BatchValidator;
+import com.gs.sea_kids.web.ByteRange;
+import com.gs.sea_kids.web.ETags;
+import com.gs.sea_kids.web.RespostaCache;
+import com.gs.sea_kids.web.TotaisAproximados;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
-import org.springframework.data.domain.Page;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.SQLException;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
-
 @RestController
 @RequestMapping("/curiosidades")
 @Validated
 public class CuriosidadeController {
 
+    private static final Set<String> CAMPOS_PATCH = Set.of("titulo", "texto");
+    private static final String IMAGEM = "imagem";
+    private static final String FULL = "full";
+    private static final String EVENTO = "curiosidade";
+
     @Autowired
     private CuriosidadeRepo curiosidadeRepo;
 
+    @Autowired
+    private ImagemStorage imagemStorage;
+
+    @Autowired
+    private CuriosidadeImagemRepo curiosidadeImagemRepo;
+
+    @Autowired
+    private LinkFactory linkFactory;
+
+    @Autowired
+    private AtualizacaoParcial atualizacaoParcial;
+
+    @Autowired
+    private TotaisAproximados totaisAproximados;
+
+    @Autowired
+    private DtoMapper dtoMapper;
+
+    @Autowired
+    private NdjsonExporter ndjsonExporter;
+
+    @Autowired
+    private IndiceBusca indiceBusca;
+
+    @Autowired
+    private RespostaCache respostaCache;
+
+    @Autowired
+    private RegistroMudancas registroMudancas;
+
+    @Autowired
+    private CanalEventos canalEventos;
+
+    @Autowired
+    private BatchValidator batchValidator;
+
     @GetMapping
-    @Operation(summary = "Lista todas as curiosidades")
+    @Operation(summary = "Lista todas as curiosidades (resumo por padrão; view=full traz as linhas completas)")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Sucesso ao listar as curiosidades"),
             @ApiResponse(responseCode = "404", description = "Nenhuma curiosidade encontrada")
     })
-    public ResponseEntity<CollectionModel<EntityModel<Curiosidade>>> getCuriosidades(@RequestParam(defaultValue = "0") int page,
-                                                                                     @RequestParam(defaultValue = "10") int size) {
-        Pageable pageable = PageRequest.of(page, size);
-        Page<Curiosidade> curiosidadePage = curiosidadeRepo.findAll(pageable);
-
-        List<EntityModel<Curiosidade>> curiosidades = curiosidadePage.stream()
-                .map(curiosidade -> EntityModel.of(curiosidade,
-                        linkTo(methodOn(CuriosidadeController.class).getCuriosidade(curiosidade.getId())).withSelfRel(),
-                        linkTo(methodOn(CuriosidadeController.class).getCuriosidades(page, size)).withRel("curiosidades")))
+    public ResponseEntity<CollectionModel<?>> getCuriosidades(@RequestParam(defaultValue = "0") int page,
+                                                              @RequestParam(defaultValue = "10") int size,
+                                                              @RequestParam(required = false) Boolean withTotal,
+                                                              @RequestParam(required = false) Long after,
+                                                              @RequestParam(defaultValue = "resumo") String view,
+                                                              @RequestParam(defaultValue = "") Expand expand,
+                                                              @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (!FULL.equals(view)) {
+            return after != null ? getCuriosidadeResumos(after, size, ifNoneMatch) : getCuriosidadeResumos(page, size, withTotal, ifNoneMatch);
+        }
+        if (after != null) {
+            return getCuriosidadesAfter(after, size, expand, ifNoneMatch);
+        }
+
+        Slice<Curiosidade> curiosidadePage = curiosidadeRepo.findAllBy(PageRequest.of(page, size));
+        Long total = Boolean.TRUE.equals(withTotal) ? totaisAproximados.total(curiosidadeRepo) : null;
+        String etag = ETags.ofPage("view=full&page=" + page + "&size=" + size + "&next=" + curiosidadePage.hasNext() + "&total=" + total + "&expand=" + expand.chave(), curiosidadePage.getContent(), Curiosidade::getId, Curiosidade::getRevisao);
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ETags.notModified(etag);
+        }
+
+        ResourceLinks links = linkFactory.linksFor(CuriosidadeController.class);
+        String baseUri = linkFactory.baseUri();
+        Link collectionLink = links.collection(baseUri, page, size);
+
+        List<EntityModel<CuriosidadeDto>> curiosidades = curiosidadePage.stream()
+                .map(curiosidade -> EntityModel.of(dtoMapper.toDto(curiosidade, expand), links.self(baseUri, curiosidade.getId()), collectionLink,
+                        links.related(baseUri, curiosidade.getId(), IMAGEM)))
+                .collect(Collectors.toList());
+
+        CollectionModel<EntityModel<CuriosidadeDto>> collectionModel = Paginas.of(curiosidades, curiosidadePage, total);
+        collectionModel.add(Link.of(collectionLink.getHref() + "&view=" + FULL).withSelfRel());
+        if (curiosidadePage.hasNext()) {
+            collectionModel.add(Link.of(links.collection(baseUri, page + 1, size).getHref() + "&view=" + FULL).withRel(IanaLinkRelations.NEXT));
+        }
+
+        return ResponseEntity.ok().eTag(etag).body(collectionModel);
+    }
+
+    private ResponseEntity<CollectionModel<?>> getCuriosidadeResumos(int page, int size, Boolean withTotal, String ifNoneMatch) {
+        Slice<CuriosidadeResumo> resumoPage = curiosidadeRepo.findResumos(PageRequest.of(page, size));
+        Long total = Boolean.TRUE.equals(withTotal) ? totaisAproximados.total(curiosidadeRepo) : null;
+        String etag = ETags.ofPage("page=" + page + "&size=" + size + "&next=" + resumoPage.hasNext() + "&total=" + total, resumoPage.getContent(), CuriosidadeResumo::id, CuriosidadeResumo::revisao);
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ETags.notModified(etag);
+        }
+
+        ResourceLinks links = linkFactory.linksFor(CuriosidadeController.class);
+        String baseUri = linkFactory.baseUri();
+        Link collectionLink = links.collection(baseUri, page, size);
+
+        List<EntityModel<CuriosidadeResumo>> resumos = resumoPage.stream()
+                .map(resumo -> EntityModel.of(resumo, links.self(baseUri, resumo.id()), collectionLink,
+                        links.related(baseUri, resumo.id(), IMAGEM)))
+                .collect(Collectors.toList());
+
+        CollectionModel<EntityModel<CuriosidadeResumo>> collectionModel = Paginas.of(resumos, resumoPage, total);
+        collectionModel.add(collectionLink.withSelfRel());
+        if (resumoPage.hasNext()) {
+            collectionModel.add(links.collection(baseUri, page + 1, size).withRel(IanaLinkRelations.NEXT));
+        }
+
+        return ResponseEntity.ok().eTag(etag).body(collectionModel);
+    }
+
+    private ResponseEntity<CollectionModel<?>> getCuriosidadeResumos(long after, int size, String ifNoneMatch) {
+        List<CuriosidadeResumo> resumos = curiosidadeRepo.findResumosAfter(after, Limit.of(size + 1));
+        boolean hasNext = resumos.size() > size;
+        if (hasNext) {
+            resumos = resumos.subList(0, size);
+        }
+
+        String etag = ETags.ofPage("after=" + after + "&size=" + size + "&next=" + hasNext, resumos, CuriosidadeResumo::id, CuriosidadeResumo::revisao);
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ETags.notModified(etag);
+        }
+
+        ResourceLinks links = linkFactory.linksFor(CuriosidadeController.class);
+        String baseUri = linkFactory.baseUri();
+        Link cursorLink = links.cursor(baseUri, after, size);
+
+        List<EntityModel<CuriosidadeResumo>> models = resumos.stream()
+                .map(resumo -> EntityModel.of(resumo, links.self(baseUri, resumo.id()), cursorLink,
+                        links.related(baseUri, resumo.id(), IMAGEM)))
                 .collect(Collectors.toList());
 
-        CollectionModel<EntityModel<Curiosidade>> collectionModel = CollectionModel.of(curiosidades);
-        collectionModel.add(linkTo(methodOn(CuriosidadeController.class).getCuriosidades(page, size)).withSelfRel());
+        CollectionModel<EntityModel<CuriosidadeResumo>> collectionModel = CollectionModel.of(models);
+        collectionModel.add(cursorLink.withSelfRel());
+        if (hasNext) {
+            collectionModel.add(links.cursor(baseUri, resumos.get(size - 1).id(), size).withRel(IanaLinkRelations.NEXT));
+        }
 
-        return ResponseEntity.ok(collectionModel);
+        return ResponseEntity.ok().eTag(etag).body(collectionModel);
+    }
+
+    private ResponseEntity<CollectionModel<?>> getCuriosidadesAfter(long after, int size, Expand expand, String ifNoneMatch) {
+        List<Curiosidade> curiosidades = curiosidadeRepo.findByIdGreaterThanOrderByIdAsc(after, Limit.of(size + 1));
+        boolean hasNext = curiosidades.size() > size;
+        if (hasNext) {
+            curiosidades = curiosidades.subList(0, size);
+        }
+
+        String etag = ETags.ofPage("view=full&after=" + after + "&size=" + size + "&next=" + hasNext + "&expand=" + expand.chave(), curiosidades, Curiosidade::getId, Curiosidade::getRevisao);
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ETags.notModified(etag);
+        }
+
+        ResourceLinks links = linkFactory.linksFor(CuriosidadeController.class);
+        String baseUri = linkFactory.baseUri();
+        Link cursorLink = links.cursor(baseUri, after, size);
+
+        List<EntityModel<CuriosidadeDto>> models = curiosidades.stream()
+                .map(curiosidade -> EntityModel.of(dtoMapper.toDto(curiosidade, expand), links.self(baseUri, curiosidade.getId()), cursorLink,
+                        links.related(baseUri, curiosidade.getId(), IMAGEM)))
+                .collect(Collectors.toList());
+
+        CollectionModel<EntityModel<CuriosidadeDto>> collectionModel = CollectionModel.of(models);
+        collectionModel.add(Link.of(cursorLink.getHref() + "&view=" + FULL).withSelfRel());
+        if (hasNext) {
+            Link next = links.cursor(baseUri, curiosidades.get(size - 1).getId(), size);
+            collectionModel.add(Link.of(next.getHref() + "&view=" + FULL).withRel(IanaLinkRelations.NEXT));
+        }
+
+        return ResponseEntity.ok().eTag(etag).body(collectionModel);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Transactional(readOnly = true)
+    @Operation(summary = "Exporta todas as curiosidades em NDJSON")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Sucesso ao exportar as curiosidades")
+    })
+    public void exportCuriosidades(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        ndjsonExporter.export(curiosidadeRepo.streamAllByOrderByIdAsc(), curiosidade -> dtoMapper.toDto(curiosidade, Expand.NENHUMA), response.getOutputStream());
     }
 
     @GetMapping("/{id}")
@@ -60,15 +252,22 @@ public class CuriosidadeController {
             @ApiResponse(responseCode = "200", description = "Sucesso ao obter detalhes da curiosidade"),
             @ApiResponse(responseCode = "404", description = "Curiosidade não encontrada")
     })
-    public ResponseEntity<EntityModel<Curiosidade>> getCuriosidade(@PathVariable Long id) {
+    public ResponseEntity<EntityModel<CuriosidadeDto>> getCuriosidade(@PathVariable Long id,
+                                                                      @RequestParam(defaultValue = "") Expand expand,
+                                                                      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            String etag = curiosidadeRepo.findRevisaoById(id).map(revisao -> ETags.of(id, revisao, expand.chave())).orElse(null);
+            if (etag != null && ETags.matches(ifNoneMatch, etag)) {
+                return ETags.notModified(etag);
+            }
+        }
+
         Curiosidade curiosidade = curiosidadeRepo.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Curiosidade não encontrada pelo id :: " + id));
 
-        EntityModel<Curiosidade> curiosidadeModel = EntityModel.of(curiosidade,
-                linkTo(methodOn(CuriosidadeController.class).getCuriosidade(id)).withSelfRel(),
-                linkTo(methodOn(CuriosidadeController.class).getCuriosidades(0, 10)).withRel("curiosidades"));
+        EntityModel<CuriosidadeDto> curiosidadeModel = toModel(curiosidade, expand);
 
-        return ResponseEntity.ok(curiosidadeModel);
+        return ResponseEntity.ok().eTag(ETags.of(curiosidade.getId(), curiosidade.getRevisao(), expand.chave())).body(curiosidadeModel);
     }
 
     @PostMapping
@@ -77,14 +276,47 @@ public class CuriosidadeController {
             @ApiResponse(responseCode = "201", description = "Sucesso ao criar uma nova curiosidade"),
             @ApiResponse(responseCode = "400", description = "Requisição inválida")
     })
-    public ResponseEntity<EntityModel<Curiosidade>> saveCuriosidade(@Valid @RequestBody Curiosidade curiosidade) {
+    @Transactional
+    public ResponseEntity<EntityModel<CuriosidadeDto>> saveCuriosidade(@Valid @RequestBody Curiosidade curiosidade) {
         Curiosidade savedCuriosidade = curiosidadeRepo.save(curiosidade);
+        registroMudancas.upsert(Mudanca.Tipo.CURIOSIDADE, savedCuriosidade.getId());
+        indiceBusca.indexar(savedCuriosidade);
+        respostaCache.invalidar(RespostaCache.CURIOSIDADES);
+        if (curiosidade.getImagem() != null) {
+            imagemStorage.gravarBase64(savedCuriosidade.getId(), curiosidade.getImagem());
+        }
 
-        EntityModel<Curiosidade> curiosidadeModel = EntityModel.of(savedCuriosidade,
-                linkTo(methodOn(CuriosidadeController.class).getCuriosidade(savedCuriosidade.getId())).withSelfRel(),
-                linkTo(methodOn(CuriosidadeController.class).getCuriosidades(0, 10)).withRel("curiosidades"));
+        EntityModel<CuriosidadeDto> curiosidadeModel = toModel(savedCuriosidade, Expand.NENHUMA);
+        canalEventos.publicar(curiosidadeModel.getContent().appId(), EVENTO, curiosidadeModel.getContent());
 
-        return ResponseEntity.status(HttpStatus.CREATED).body(curiosidadeModel);
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(ETags.of(savedCuriosidade.getId(), savedCuriosidade.getRevisao())).body(curiosidadeModel);
+    }
+
+    @PostMapping("/batch")
+    @Operation(summary = "Cria várias curiosidades em lote")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Sucesso ao criar as curiosidades"),
+            @ApiResponse(responseCode = "400", description = "Requisição inválida, com os erros de cada elemento")
+    })
+    @Transactional
+    public ResponseEntity<CollectionModel<EntityModel<CuriosidadeDto>>> saveCuriosidades(@RequestBody List<Curiosidade> curiosidades) {
+        batchValidator.validate(curiosidades);
+        List<Curiosidade> savedCuriosidades = curiosidadeRepo.saveAll(curiosidades);
+        registroMudancas.upserts(Mudanca.Tipo.CURIOSIDADE, savedCuriosidades.stream().map(Curiosidade::getId).toList());
+        savedCuriosidades.forEach(indiceBusca::indexar);
+        respostaCache.invalidar(RespostaCache.CURIOSIDADES);
+        for (Curiosidade savedCuriosidade : savedCuriosidades) {
+            if (savedCuriosidade.getImagem() != null) {
+                imagemStorage.gravarBase64(savedCuriosidade.getId(), savedCuriosidade.getImagem());
+            }
+        }
+
+        List<EntityModel<CuriosidadeDto>> models = savedCuriosidades.stream()
+                .map(curiosidade -> toModel(curiosidade, Expand.NENHUMA))
+                .collect(Collectors.toList());
+        models.forEach(model -> canalEventos.publicar(model.getContent().appId(), EVENTO, model.getContent()));
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(CollectionModel.of(models));
     }
 
     @PutMapping("/{id}")
@@ -94,20 +326,111 @@ public class CuriosidadeController {
             @ApiResponse(responseCode = "400", description = "Requisição inválida"),
             @ApiResponse(responseCode = "404", description = "Curiosidade não encontrada")
     })
-    public ResponseEntity<EntityModel<Curiosidade>> updateCuriosidade(@PathVariable Long id, @Valid @RequestBody Curiosidade curiosidade) {
+    @Transactional
+    public ResponseEntity<EntityModel<CuriosidadeDto>> updateCuriosidade(@PathVariable Long id, @Valid @RequestBody Curiosidade curiosidade,
+                                                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         Curiosidade existingCuriosidade = curiosidadeRepo.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Curiosidade não encontrada pelo id :: " + id));
+        ETags.checkIfMatch(ifMatch, ETags.of(existingCuriosidade.getId(), existingCuriosidade.getRevisao()));
 
         existingCuriosidade.setTitulo(curiosidade.getTitulo());
-        existingCuriosidade.setImagem(curiosidade.getImagem());
         existingCuriosidade.setTexto(curiosidade.getTexto());
-        Curiosidade updatedCuriosidade = curiosidadeRepo.save(existingCuriosidade);
+        // flush para a revisão nova já estar na entidade ao montar o ETag
+        Curiosidade updatedCuriosidade = curiosidadeRepo.saveAndFlush(existingCuriosidade);
+        registroMudancas.upsert(Mudanca.Tipo.CURIOSIDADE, id);
+        indiceBusca.indexar(updatedCuriosidade);
+        respostaCache.invalidar(RespostaCache.CURIOSIDADES);
+        if (curiosidade.getImagem() != null) {
+            imagemStorage.gravarBase64(id, curiosidade.getImagem());
+        }
 
-        EntityModel<Curiosidade> curiosidadeModel = EntityModel.of(updatedCuriosidade,
-                linkTo(methodOn(CuriosidadeController.class).getCuriosidade(updatedCuriosidade.getId())).withSelfRel(),
-                linkTo(methodOn(CuriosidadeController.class).getCuriosidades(0, 10)).withRel("curiosidades"));
+        EntityModel<CuriosidadeDto> curiosidadeModel = toModel(updatedCuriosidade, Expand.NENHUMA);
 
-        return ResponseEntity.ok(curiosidadeModel);
+        return ResponseEntity.ok().eTag(ETags.of(updatedCuriosidade.getId(), updatedCuriosidade.getRevisao())).body(curiosidadeModel);
+    }
+
+    @GetMapping("/{id}/imagem")
+    @Transactional(readOnly = true)
+    @Operation(summary = "Baixa a imagem de uma curiosidade, aceitando o cabeçalho Range")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Imagem completa"),
+            @ApiResponse(responseCode = "206", description = "Parte da imagem pedida no Range"),
+            @ApiResponse(responseCode = "404", description = "Curiosidade sem imagem"),
+            @ApiResponse(responseCode = "416", description = "Range fora do tamanho da imagem")
+    })
+    public void getImagem(@PathVariable Long id,
+                          @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+                          HttpServletResponse response) throws IOException, SQLException {
+        CuriosidadeImagem imagem = curiosidadeImagemRepo.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Imagem não encontrada para a curiosidade :: " + id));
+
+        ByteRange intervalo = ByteRange.of(range, imagem.getTamanho());
+        response.setStatus(intervalo.parcial() ? HttpStatus.PARTIAL_CONTENT.value() : HttpStatus.OK.value());
+        response.setContentType(imagem.getTipo());
+        response.setContentLengthLong(intervalo.tamanho());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (intervalo.parcial()) {
+            response.setHeader(HttpHeaders.CONTENT_RANGE, intervalo.contentRange());
+        }
+        if (intervalo.tamanho() == 0) {
+            return;
+        }
+
+        // A posição do Blob começa em 1
+        try (InputStream conteudo = imagem.getConteudo().getBinaryStream(intervalo.inicio() + 1, intervalo.tamanho())) {
+            conteudo.transferTo(response.getOutputStream());
+        }
+    }
+
+    @PutMapping("/{id}/imagem")
+    @Operation(summary = "Envia a imagem de uma curiosidade como binário (Content-Type image/*)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Imagem gravada"),
+            @ApiResponse(responseCode = "404", description = "Curiosidade não encontrada"),
+            @ApiResponse(responseCode = "411", description = "Content-Length ausente"),
+            @ApiResponse(responseCode = "413", description = "Imagem maior que o limite"),
+            @ApiResponse(responseCode = "415", description = "Content-Type não é uma imagem")
+    })
+    @Transactional
+    public ResponseEntity<Void> putImagem(@PathVariable Long id, HttpServletRequest request) throws IOException {
+        if (!curiosidadeRepo.existsById(id)) {
+            throw new ResourceNotFoundException("Curiosidade não encontrada pelo id :: " + id);
+        }
+
+        imagemStorage.gravar(id, request.getContentType(), request.getInputStream(), request.getContentLengthLong());
+        // a imagem não muda a revisão, mas o cliente offline precisa baixá-la de novo
+        registroMudancas.upsert(Mudanca.Tipo.CURIOSIDADE, id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PatchMapping("/{id}")
+    @Operation(summary = "Altera só os campos enviados de uma curiosidade, num único UPDATE")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Curiosidade alterada; com If-Match, o ETag da nova revisão vem na resposta"),
+            @ApiResponse(responseCode = "400", description = "Campo desconhecido ou inválido"),
+            @ApiResponse(responseCode = "404", description = "Curiosidade não encontrada"),
+            @ApiResponse(responseCode = "412", description = "A curiosidade foi alterada depois da revisão do If-Match")
+    })
+    @Transactional
+    public ResponseEntity<Void> patchCuriosidade(@PathVariable Long id, @RequestBody Map<String, Object> campos,
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Map<String, Object> alteracoes = atualizacaoParcial.validar(Curiosidade.class, campos, CAMPOS_PATCH);
+        Long revisao = ETags.revisaoEsperada(ifMatch, id);
+
+        int linhas = atualizacaoParcial.atualizar(Curiosidade.class, id, revisao, alteracoes);
+        AtualizacaoParcial.exigirLinha(linhas, id, () -> curiosidadeRepo.findRevisaoById(id), "Curiosidade não encontrada pelo id :: ");
+        registroMudancas.upsert(Mudanca.Tipo.CURIOSIDADE, id);
+        boolean titulo = alteracoes.containsKey("titulo");
+        boolean texto = alteracoes.containsKey("texto");
+        if (titulo || texto) {
+            // o índice guarda título e texto juntos; com só um deles no PATCH, só o outro vem do banco
+            indiceBusca.indexar(IndiceBusca.CURIOSIDADE, id,
+                    titulo ? (String) alteracoes.get("titulo") : curiosidadeRepo.findTituloById(id).orElse(null),
+                    texto ? (String) alteracoes.get("texto") : curiosidadeRepo.findTextoById(id).orElse(null));
+        }
+        respostaCache.invalidar(RespostaCache.CURIOSIDADES);
+
+        return ETags.noContent(id, revisao);
     }
 
     @DeleteMapping("/{id}")
@@ -116,11 +439,21 @@ public class CuriosidadeController {
             @ApiResponse(responseCode = "204", description = "Sucesso ao deletar a curiosidade"),
             @ApiResponse(responseCode = "404", description = "Curiosidade não encontrada")
     })
+    @Transactional
     public ResponseEntity<Void> deleteCuriosidade(@PathVariable Long id) {
-        Curiosidade existingCuriosidade = curiosidadeRepo.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Curiosidade não encontrada pelo id :: " + id));
-
-        curiosidadeRepo.delete(existingCuriosidade);
+        if (atualizacaoParcial.excluir(Curiosidade.class, id) == 0) {
+            throw new ResourceNotFoundException("Curiosidade não encontrada pelo id :: " + id);
+        }
+        registroMudancas.exclusao(Mudanca.Tipo.CURIOSIDADE, id);
+        indiceBusca.remover(IndiceBusca.CURIOSIDADE, id);
+        respostaCache.invalidar(RespostaCache.CURIOSIDADES);
         return ResponseEntity.noContent().build();
     }
+
+    private EntityModel<CuriosidadeDto> toModel(Curiosidade curiosidade, Expand expand) {
+        ResourceLinks links = linkFactory.linksFor(CuriosidadeController.class);
+        String baseUri = linkFactory.baseUri();
+        return EntityModel.of(dtoMapper.toDto(curiosidade, expand), links.self(baseUri, curiosidade.getId()), links.collection(baseUri, 0, 10),
+                links.related(baseUri, curiosidade.getId(), IMAGEM));
+    }
 }
@@ -0,0 +1,125 @@
+package com.gs.sea_kids.controller;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.gs.sea_kids.config.CacheProperties;
+import com.gs.sea_kids.config.SecondLevelCacheConfig;
+import com.gs.sea_kids.security.HashingExecutor;
+import com.gs.sea_kids.validation.FiltroEmails;
+import com.gs.sea_kids.web.LimiteConcorrenciaFilter;
+import com.gs.sea_kids.web.LimiteTaxaFilter;
+import com.gs.sea_kids.web.RespostaCache;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.cache.CacheManager;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/estatisticas")
+@Tag(name = "Estatísticas", description = "Contadores internos para dimensionamento")
+public class EstatisticasController {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheProperties cacheProperties;
+
+    @Autowired
+    private CacheManager hibernateCacheManager;
+
+    @Autowired
+    private HashingExecutor hashingExecutor;
+
+    @Autowired
+    private FiltroEmails filtroEmailsCliente;
+
+    @Autowired
+    private FiltroEmails filtroEmailsCadastro;
+
+    @Autowired
+    private LimiteConcorrenciaFilter limiteConcorrenciaFilter;
+
+    @Autowired
+    private LimiteTaxaFilter limiteTaxaFilter;
+
+    @Autowired
+    private RespostaCache respostaCache;
+
+    @Operation(summary = "Acertos e falhas do cache de segundo nível por região")
+    @GetMapping("/cache")
+    public ResponseEntity<Map<String, Map<String, Long>>> getCache() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Map<String, Map<String, Long>> regions = new LinkedHashMap<>();
+
+        for (String region : cacheProperties.getRegions().keySet()) {
+            if (region.equals(SecondLevelCacheConfig.QUERY_RESULTS_REGION)) {
+                continue;
+            }
+            CacheRegionStatistics regionStatistics = statistics.getDomainDataRegionStatistics(region);
+            Map<String, Long> counters = new LinkedHashMap<>();
+            counters.put("hits", regionStatistics.getHitCount());
+            counters.put("misses", regionStatistics.getMissCount());
+            counters.put("puts", regionStatistics.getPutCount());
+            counters.put("elementos", estimatedSize(region));
+            regions.put(region, counters);
+        }
+
+        Map<String, Long> queries = new LinkedHashMap<>();
+        queries.put("hits", statistics.getQueryCacheHitCount());
+        queries.put("misses", statistics.getQueryCacheMissCount());
+        queries.put("puts", statistics.getQueryCachePutCount());
+        queries.put("elementos", estimatedSize(SecondLevelCacheConfig.QUERY_RESULTS_REGION));
+        regions.put(SecondLevelCacheConfig.QUERY_RESULTS_REGION, queries);
+
+        return ResponseEntity.ok(regions);
+    }
+
+    @Operation(summary = "Ocupação, fila e recusas do pool de hashing de senhas")
+    @GetMapping("/hashing")
+    public ResponseEntity<Map<String, Long>> getHashing() {
+        return ResponseEntity.ok(hashingExecutor.estatisticas());
+    }
+
+    @Operation(summary = "Memória, ocupação e falsos positivos dos filtros de Bloom de email")
+    @GetMapping("/emails")
+    public ResponseEntity<Map<String, Map<String, Number>>> getEmails() {
+        Map<String, Map<String, Number>> filtros = new LinkedHashMap<>();
+        filtros.put("clientes", filtroEmailsCliente.estatisticas());
+        filtros.put("cadastros", filtroEmailsCadastro.estatisticas());
+        return ResponseEntity.ok(filtros);
+    }
+
+    @Operation(summary = "Limite adaptativo, requisições em andamento e recusas por grupo de rotas")
+    @GetMapping("/concorrencia")
+    public ResponseEntity<Map<String, Map<String, Number>>> getConcorrencia() {
+        return ResponseEntity.ok(limiteConcorrenciaFilter.estatisticas());
+    }
+
+    @Operation(summary = "Taxa, baldes ativos e recusas (429) do limite por cliente em cada grupo de rotas")
+    @GetMapping("/taxa")
+    public ResponseEntity<Map<String, Map<String, Number>>> getTaxa() {
+        return ResponseEntity.ok(limiteTaxaFilter.estatisticas());
+    }
+
+    @Operation(summary = "Acertos, falhas e bytes ocupados pelo cache de respostas serializadas")
+    @GetMapping("/respostas")
+    public ResponseEntity<Map<String, Number>> getRespostas() {
+        return ResponseEntity.ok(respostaCache.estatisticas());
+    }
+
+    private long estimatedSize(String region) {
+        javax.cache.Cache<Object, Object> cache = hibernateCacheManager.getCache(region);
+        return cache == null ? 0 : cache.unwrap(Cache.class).estimatedSize();
+    }
+}
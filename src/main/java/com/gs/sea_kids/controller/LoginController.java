@@ -1,62 +1,169 @@
 package com.gs.sea_kids.controller;
 
+import com.gs.sea_kids.dto.AutenticacaoDto;
+import com.gs.sea_kids.dto.Credenciais;
+import com.gs.sea_kids.dto.DtoMapper;
+import com.gs.sea_kids.dto.Expand;
+import com.gs.sea_kids.dto.LoginDto;
+import com.gs.sea_kids.exception.CredenciaisInvalidasException;
+import com.gs.sea_kids.exception.AcessoNegadoException;
 import com.gs.sea_kids.exception.ResourceNotFoundException;
+import com.gs.sea_kids.export.NdjsonExporter;
+import com.gs.sea_kids.hateoas.LinkFactory;
+import com.gs.sea_kids.hateoas.Paginas;
+import com.gs.sea_kids.hateoas.ResourceLinks;
 import com.gs.sea_kids.model.Login;
+import com.gs.sea_kids.repo.AtualizacaoParcial;
 import com.gs.sea_kids.repo.LoginRepo;
+import com.gs.sea_kids.security.Autenticador;
+import com.gs.sea_kids.security.Sessao;
+import com.gs.sea_kids.security.SessaoTokens;
+import com.gs.sea_kids.web.ETags;
+import com.gs.sea_kids.web.TotaisAproximados;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
-import org.springframework.data.domain.Page;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
-
 @RestController
 @RequestMapping("/logins")
 @Validated
 public class LoginController {
 
+    private static final Set<String> CAMPOS_PATCH = Set.of("email", "senha");
+
     private static final Logger logger = LoggerFactory.getLogger(LoginController.class);
 
     @Autowired
     private LoginRepo loginRepo;
 
+    @Autowired
+    private LinkFactory linkFactory;
+
+    @Autowired
+    private AtualizacaoParcial atualizacaoParcial;
+
+    @Autowired
+    private TotaisAproximados totaisAproximados;
+
+    @Autowired
+    private DtoMapper dtoMapper;
+
+    @Autowired
+    private NdjsonExporter ndjsonExporter;
+
+    @Autowired
+    private Autenticador autenticador;
+
+    @Autowired
+    private SessaoTokens sessaoTokens;
+
     @GetMapping
     @Operation(summary = "Lista todos os logins")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Sucesso ao listar os logins"),
             @ApiResponse(responseCode = "404", description = "Nenhum login encontrado")
     })
-    public ResponseEntity<CollectionModel<EntityModel<Login>>> getLogins(@RequestParam(defaultValue = "0") int page,
-                                                                         @RequestParam(defaultValue = "10") int size) {
-        Pageable pageable = PageRequest.of(page, size);
-        Page<Login> loginPage = loginRepo.findAll(pageable);
-
-        List<EntityModel<Login>> logins = loginPage.stream()
-                .map(login -> EntityModel.of(login,
-                        linkTo(methodOn(LoginController.class).getLogin(login.getId())).withSelfRel(),
-                        linkTo(methodOn(LoginController.class).getLogins(page, size)).withRel("logins")))
+    public ResponseEntity<CollectionModel<EntityModel<LoginDto>>> getLogins(@RequestParam(defaultValue = "0") int page,
+                                                                            @RequestParam(defaultValue = "10") int size,
+                                                                            @RequestParam(required = false) Boolean withTotal,
+                                                                            @RequestParam(required = false) Long after,
+                                                                            @RequestParam(defaultValue = "") Expand expand,
+                                                                            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (after != null) {
+            return getLoginsAfter(after, size, expand, ifNoneMatch);
+        }
+
+        Slice<Login> loginPage = loginRepo.findAllBy(PageRequest.of(page, size));
+        Long total = Boolean.TRUE.equals(withTotal) ? totaisAproximados.total(loginRepo) : null;
+        String etag = ETags.ofPage("page=" + page + "&size=" + size + "&next=" + loginPage.hasNext() + "&total=" + total + "&expand=" + expand.chave(), loginPage.getContent(), Login::getId, Login::getRevisao);
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ETags.notModified(etag);
+        }
+
+        ResourceLinks links = linkFactory.linksFor(LoginController.class);
+        String baseUri = linkFactory.baseUri();
+        Link collectionLink = links.collection(baseUri, page, size);
+
+        List<EntityModel<LoginDto>> logins = loginPage.stream()
+                .map(login -> EntityModel.of(dtoMapper.toDto(login, expand), links.self(baseUri, login.getId()), collectionLink))
+                .collect(Collectors.toList());
+
+        CollectionModel<EntityModel<LoginDto>> collectionModel = Paginas.of(logins, loginPage, total);
+        collectionModel.add(collectionLink.withSelfRel());
+        if (loginPage.hasNext()) {
+            collectionModel.add(links.collection(baseUri, page + 1, size).withRel(IanaLinkRelations.NEXT));
+        }
+
+        return ResponseEntity.ok().eTag(etag).body(collectionModel);
+    }
+
+    private ResponseEntity<CollectionModel<EntityModel<LoginDto>>> getLoginsAfter(long after, int size, Expand expand, String ifNoneMatch) {
+        List<Login> logins = loginRepo.findByIdGreaterThanOrderByIdAsc(after, Limit.of(size + 1));
+        boolean hasNext = logins.size() > size;
+        if (hasNext) {
+            logins = logins.subList(0, size);
+        }
+
+        String etag = ETags.ofPage("after=" + after + "&size=" + size + "&next=" + hasNext + "&expand=" + expand.chave(), logins, Login::getId, Login::getRevisao);
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ETags.notModified(etag);
+        }
+
+        ResourceLinks links = linkFactory.linksFor(LoginController.class);
+        String baseUri = linkFactory.baseUri();
+        Link cursorLink = links.cursor(baseUri, after, size);
+
+        List<EntityModel<LoginDto>> models = logins.stream()
+                .map(login -> EntityModel.of(dtoMapper.toDto(login, expand), links.self(baseUri, login.getId()), cursorLink))
                 .collect(Collectors.toList());
 
-        CollectionModel<EntityModel<Login>> collectionModel = CollectionModel.of(logins);
-        collectionModel.add(linkTo(methodOn(LoginController.class).getLogins(page, size)).withSelfRel());
+        CollectionModel<EntityModel<LoginDto>> collectionModel = CollectionModel.of(models);
+        collectionModel.add(cursorLink.withSelfRel());
+        if (hasNext) {
+            collectionModel.add(links.cursor(baseUri, logins.get(size - 1).getId(), size).withRel(IanaLinkRelations.NEXT));
+        }
 
-        return ResponseEntity.ok(collectionModel);
+        return ResponseEntity.ok().eTag(etag).body(collectionModel);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Transactional(readOnly = true)
+    @Operation(summary = "Exporta todos os logins em NDJSON")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Sucesso ao exportar os logins")
+    })
+    public void exportLogins(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        ndjsonExporter.export(loginRepo.streamAllByOrderByIdAsc(), login -> dtoMapper.toDto(login, Expand.NENHUMA), response.getOutputStream());
     }
 
     @GetMapping("/{id}")
@@ -65,15 +172,22 @@ public class LoginController {
             @ApiResponse(responseCode = "200", description = "Sucesso ao obter detalhes do login"),
             @ApiResponse(responseCode = "404", description = "Login não encontrado")
     })
-    public ResponseEntity<EntityModel<Login>> getLogin(@PathVariable Long id) {
+    public ResponseEntity<EntityModel<LoginDto>> getLogin(@PathVariable Long id,
+                                                          @RequestParam(defaultValue = "") Expand expand,
+                                                          @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            String etag = loginRepo.findRevisaoById(id).map(revisao -> ETags.of(id, revisao, expand.chave())).orElse(null);
+            if (etag != null && ETags.matches(ifNoneMatch, etag)) {
+                return ETags.notModified(etag);
+            }
+        }
+
         Login login = loginRepo.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Login não encontrado pelo id :: " + id));
 
-        EntityModel<Login> loginModel = EntityModel.of(login,
-                linkTo(methodOn(LoginController.class).getLogin(id)).withSelfRel(),
-                linkTo(methodOn(LoginController.class).getLogins(0, 10)).withRel("logins"));
+        EntityModel<LoginDto> loginModel = toModel(login, expand);
 
-        return ResponseEntity.ok(loginModel);
+        return ResponseEntity.ok().eTag(ETags.of(login.getId(), login.getRevisao(), expand.chave())).body(loginModel);
     }
 
     @PostMapping
@@ -82,15 +196,51 @@ public class LoginController {
             @ApiResponse(responseCode = "201", description = "Sucesso ao criar um novo login"),
             @ApiResponse(responseCode = "400", description = "Requisição inválida")
     })
-    public ResponseEntity<EntityModel<Login>> saveLogin(@Valid @RequestBody Login login) {
+    public ResponseEntity<EntityModel<LoginDto>> saveLogin(@Valid @RequestBody Login login) {
+        login.setSenha(autenticador.hash(login.getSenha()));
 
         Login savedLogin = loginRepo.save(login);
 
-        EntityModel<Login> loginModel = EntityModel.of(savedLogin,
-                linkTo(methodOn(LoginController.class).getLogin(savedLogin.getId())).withSelfRel(),
-                linkTo(methodOn(LoginController.class).getLogins(0, 10)).withRel("logins"));
+        EntityModel<LoginDto> loginModel = toModel(savedLogin, Expand.NENHUMA);
+
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(ETags.of(savedLogin.getId(), savedLogin.getRevisao())).body(loginModel);
+    }
+
+    @PostMapping("/authenticate")
+    @Operation(summary = "Autentica um login por email e senha")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Credenciais válidas"),
+            @ApiResponse(responseCode = "401", description = "Email ou senha inválidos"),
+            @ApiResponse(responseCode = "503", description = "Fila de hashing cheia")
+    })
+    public CompletableFuture<ResponseEntity<EntityModel<AutenticacaoDto>>> authenticate(@RequestBody Credenciais credenciais) {
+        // Links montados aqui: a resposta é concluída numa thread de hashing, fora da requisição
+        ResourceLinks links = linkFactory.linksFor(LoginController.class);
+        String baseUri = linkFactory.baseUri();
+
+        return autenticador.autenticar(credenciais.email(), credenciais.senha())
+                .thenApply(login -> {
+                    Sessao sessao = sessaoTokens.novaSessao(login.getId(), login.getCliente() == null ? null : login.getCliente().getId());
+                    AutenticacaoDto autenticacao = new AutenticacaoDto(sessaoTokens.emitir(sessao),
+                            Instant.ofEpochMilli(sessao.expiraEm()), dtoMapper.toDto(login, Expand.NENHUMA));
+                    return ResponseEntity.ok()
+                            .cacheControl(CacheControl.noStore())
+                            .body(EntityModel.of(autenticacao, links.self(baseUri, login.getId())));
+                });
+    }
 
-        return ResponseEntity.status(HttpStatus.CREATED).body(loginModel);
+    @PostMapping("/logout")
+    @Operation(summary = "Revoga o token de sessão usado na requisição")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Token revogado"),
+            @ApiResponse(responseCode = "401", description = "Requisição sem token válido")
+    })
+    public ResponseEntity<Void> logout(@RequestAttribute(name = Sessao.ATRIBUTO, required = false) Sessao sessao) {
+        if (sessao == null) {
+            throw new CredenciaisInvalidasException();
+        }
+        sessaoTokens.revogar(sessao);
+        return ResponseEntity.noContent().build();
     }
 
     @PutMapping("/{id}")
@@ -98,34 +248,83 @@ public class LoginController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Sucesso ao atualizar o login"),
             @ApiResponse(responseCode = "400", description = "Requisição inválida"),
+            @ApiResponse(responseCode = "403", description = "O token é de outro login"),
             @ApiResponse(responseCode = "404", description = "Login não encontrado")
     })
-    public ResponseEntity<EntityModel<Login>> updateLogin(@PathVariable Long id, @Valid @RequestBody Login login) {
+    public ResponseEntity<EntityModel<LoginDto>> updateLogin(@PathVariable Long id, @Valid @RequestBody Login login,
+                                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                             @RequestAttribute(name = Sessao.ATRIBUTO, required = false) Sessao sessao) {
+        exigirDono(sessao, id);
         Login existingLogin = loginRepo.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Login não encontrado pelo id :: " + id));
+        ETags.checkIfMatch(ifMatch, ETags.of(existingLogin.getId(), existingLogin.getRevisao()));
 
         existingLogin.setEmail(login.getEmail());
-        existingLogin.setSenha(login.getSenha());
+        existingLogin.setSenha(autenticador.hash(login.getSenha()));
         Login updatedLogin = loginRepo.save(existingLogin);
+        sessaoTokens.revogarLogin(id);
 
-        EntityModel<Login> loginModel = EntityModel.of(updatedLogin,
-                linkTo(methodOn(LoginController.class).getLogin(updatedLogin.getId())).withSelfRel(),
-                linkTo(methodOn(LoginController.class).getLogins(0, 10)).withRel("logins"));
+        EntityModel<LoginDto> loginModel = toModel(updatedLogin, Expand.NENHUMA);
 
-        return ResponseEntity.ok(loginModel);
+        return ResponseEntity.ok().eTag(ETags.of(updatedLogin.getId(), updatedLogin.getRevisao())).body(loginModel);
+    }
+
+    @PatchMapping("/{id}")
+    @Operation(summary = "Altera só os campos enviados de um login, num único UPDATE")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Login alterado; com If-Match, o ETag da nova revisão vem na resposta"),
+            @ApiResponse(responseCode = "400", description = "Campo desconhecido ou inválido"),
+            @ApiResponse(responseCode = "403", description = "O token é de outro login"),
+            @ApiResponse(responseCode = "404", description = "Login não encontrado"),
+            @ApiResponse(responseCode = "412", description = "O login foi alterado depois da revisão do If-Match")
+    })
+    public ResponseEntity<Void> patchLogin(@PathVariable Long id, @RequestBody Map<String, Object> campos,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                           @RequestAttribute(name = Sessao.ATRIBUTO, required = false) Sessao sessao) {
+        exigirDono(sessao, id);
+        Map<String, Object> alteracoes = atualizacaoParcial.validar(Login.class, campos, CAMPOS_PATCH);
+        Long revisao = ETags.revisaoEsperada(ifMatch, id);
+        if (alteracoes.containsKey("senha")) {
+            alteracoes.put("senha", autenticador.hash((String) alteracoes.get("senha")));
+        }
+
+        int linhas = atualizacaoParcial.atualizar(Login.class, id, revisao, alteracoes);
+        AtualizacaoParcial.exigirLinha(linhas, id, () -> loginRepo.findRevisaoById(id), "Login não encontrado pelo id :: ");
+        sessaoTokens.revogarLogin(id);
+
+        return ETags.noContent(id, revisao);
     }
 
     @DeleteMapping("/{id}")
     @Operation(summary = "Deleta um login existente")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "204", description = "Sucesso ao deletar o login"),
+            @ApiResponse(responseCode = "403", description = "O token é de outro login"),
             @ApiResponse(responseCode = "404", description = "Login não encontrado")
     })
-    public ResponseEntity<Void> deleteLogin(@PathVariable Long id) {
-        Login existingLogin = loginRepo.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Login não encontrado pelo id :: " + id));
-
-        loginRepo.delete(existingLogin);
+    public ResponseEntity<Void> deleteLogin(@PathVariable Long id,
+                                            @RequestAttribute(name = Sessao.ATRIBUTO, required = false) Sessao sessao) {
+        exigirDono(sessao, id);
+        if (atualizacaoParcial.excluir(Login.class, id) == 0) {
+            throw new ResourceNotFoundException("Login não encontrado pelo id :: " + id);
+        }
+        sessaoTokens.revogarLogin(id);
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * Sem token a rota só chega aqui se não estiver em {@code seakids.token.rotas-protegidas};
+     * com token, um login só altera a si mesmo.
+     */
+    private static void exigirDono(Sessao sessao, Long id) {
+        if (sessao != null && sessao.loginId() != id) {
+            throw new AcessoNegadoException("O token não dá acesso ao login :: " + id);
+        }
+    }
+
+    private EntityModel<LoginDto> toModel(Login login, Expand expand) {
+        ResourceLinks links = linkFactory.linksFor(LoginController.class);
+        String baseUri = linkFactory.baseUri();
+        return EntityModel.of(dtoMapper.toDto(login, expand), links.self(baseUri, login.getId()), links.collection(baseUri, 0, 10));
+    }
 }
@@ -0,0 +1,54 @@
+package com.gs.sea_kids.controller;
+
+import com.gs.sea_kids.dto.PaginaMudancas;
+import com.gs.sea_kids.mudancas.FeedMudancas;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+
+@RestController
+@RequestMapping("/changes")
+@Validated
+@Tag(name = "Mudanças", description = "Sincronização incremental de apps, vídeos e curiosidades")
+public class MudancaController {
+
+    @Autowired
+    private FeedMudancas feedMudancas;
+
+    @Value("${seakids.mudancas.espera-maxima:30s}")
+    private Duration esperaMaxima;
+
+    @Operation(summary = "Apps, vídeos e curiosidades alterados depois do cursor: upserts com o estado atual e lápides das exclusões",
+            description = "Sem since, responde só o cursor atual, para começar a sincronizar depois de baixar as listagens. "
+                    + "Com wait (segundos), espera por mudanças antes de responder vazio. "
+                    + "A lápide de um app vale também para os vídeos e curiosidades dele.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Mudanças e o cursor para a próxima chamada"),
+            @ApiResponse(responseCode = "400", description = "limit ou wait fora do intervalo")
+    })
+    @GetMapping
+    public DeferredResult<PaginaMudancas> getChanges(@RequestParam(required = false) Long since,
+                                                     @RequestParam(defaultValue = "100") @Min(1) @Max(1000) int limit,
+                                                     @RequestParam(defaultValue = "0") @Min(0) int wait) {
+        if (since == null) {
+            DeferredResult<PaginaMudancas> cabeca = new DeferredResult<>();
+            cabeca.setResult(PaginaMudancas.vazia(feedMudancas.cabeca()));
+            return cabeca;
+        }
+        Duration espera = Duration.ofSeconds(wait);
+        return feedMudancas.aguardar(since, limit, espera.compareTo(esperaMaxima) > 0 ? esperaMaxima : espera);
+    }
+}
@@ -1,62 +1,236 @@
 package com.gs.sea_kids.controller;
 
+import com.gs.sea_kids.dto.DtoMapper;
+import com.gs.sea_kids.dto.Expand;
+import com.gs.sea_kids.eventos.CanalEventos;
+import com.gs.sea_kids.dto.VideoDto;
+import com.gs.sea_kids.dto.VideoResumo;
 import com.gs.sea_kids.exception.ResourceNotFoundException;
+import com.gs.sea_kids.export.NdjsonExporter;
+import com.gs.sea_kids.hateoas.LinkFactory;
+import com.gs.sea_kids.hateoas.Paginas;
+import com.gs.sea_kids.hateoas.ResourceLinks;
+import com.gs.sea_kids.model.Mudanca;
 import com.gs.sea_kids.model.Video;
+import com.gs.sea_kids.mudancas.RegistroMudancas;
+import com.gs.sea_kids.repo.AtualizacaoParcial;
 import com.gs.sea_kids.repo.VideoRepo;
+import com.gs.sea_kids.search.IndiceBusca;
+import com.gs.sea_kids.validation.BatchValidator;
+import com.gs.sea_kids.web.ETags;
+import com.gs.sea_kids.web.RespostaCache;
+import com.gs.sea_kids.web.TotaisAproximados;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
-import org.springframework.data.domain.Page;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
-
 @RestController
 @RequestMapping("/videos")
 @Validated
 public class VideoController {
 
+    private static final Set<String> CAMPOS_PATCH = Set.of("titulo", "link");
+    private static final String FULL = "full";
+    private static final String EVENTO = "video";
+
     private static final Logger logger = LoggerFactory.getLogger(VideoController.class);
 
     @Autowired
     private VideoRepo videoRepo;
 
+    @Autowired
+    private LinkFactory linkFactory;
+
+    @Autowired
+    private AtualizacaoParcial atualizacaoParcial;
+
+    @Autowired
+    private TotaisAproximados totaisAproximados;
+
+    @Autowired
+    private DtoMapper dtoMapper;
+
+    @Autowired
+    private NdjsonExporter ndjsonExporter;
+
+    @Autowired
+    private IndiceBusca indiceBusca;
+
+    @Autowired
+    private RespostaCache respostaCache;
+
+    @Autowired
+    private BatchValidator batchValidator;
+
+    @Autowired
+    private RegistroMudancas registroMudancas;
+
+    @Autowired
+    private CanalEventos canalEventos;
+
     @GetMapping
-    @Operation(summary = "Lista todos os vídeos")
+    @Operation(summary = "Lista todos os vídeos (resumo por padrão; view=full traz as linhas completas)")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Sucesso ao listar os vídeos"),
             @ApiResponse(responseCode = "404", description = "Nenhum vídeo encontrado")
     })
-    public ResponseEntity<CollectionModel<EntityModel<Video>>> getVideos(@RequestParam(defaultValue = "0") int page,
-                                                                         @RequestParam(defaultValue = "10") int size) {
-        Pageable pageable = PageRequest.of(page, size);
-        Page<Video> videoPage = videoRepo.findAll(pageable);
-
-        List<EntityModel<Video>> videos = videoPage.stream()
-                .map(video -> EntityModel.of(video,
-                        linkTo(methodOn(VideoController.class).getVideo(video.getId())).withSelfRel(),
-                        linkTo(methodOn(VideoController.class).getVideos(page, size)).withRel("videos")))
+    public ResponseEntity<CollectionModel<?>> getVideos(@RequestParam(defaultValue = "0") int page,
+                                                        @RequestParam(defaultValue = "10") int size,
+                                                        @RequestParam(required = false) Boolean withTotal,
+                                                        @RequestParam(required = false) Long after,
+                                                        @RequestParam(defaultValue = "resumo") String view,
+                                                        @RequestParam(defaultValue = "") Expand expand,
+                                                        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (!FULL.equals(view)) {
+            return after != null ? getVideoResumos(after, size, ifNoneMatch) : getVideoResumos(page, size, withTotal, ifNoneMatch);
+        }
+        if (after != null) {
+            return getVideosAfter(after, size, expand, ifNoneMatch);
+        }
+
+        Slice<Video> videoPage = videoRepo.findAllBy(PageRequest.of(page, size));
+        Long total = Boolean.TRUE.equals(withTotal) ? totaisAproximados.total(videoRepo) : null;
+        String etag = ETags.ofPage("view=full&page=" + page + "&size=" + size + "&next=" + videoPage.hasNext() + "&total=" + total + "&expand=" + expand.chave(), videoPage.getContent(), Video::getId, Video::getRevisao);
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ETags.notModified(etag);
+        }
+
+        ResourceLinks links = linkFactory.linksFor(VideoController.class);
+        String baseUri = linkFactory.baseUri();
+        Link collectionLink = links.collection(baseUri, page, size);
+
+        List<EntityModel<VideoDto>> videos = videoPage.stream()
+                .map(video -> EntityModel.of(dtoMapper.toDto(video, expand), links.self(baseUri, video.getId()), collectionLink))
+                .collect(Collectors.toList());
+
+        CollectionModel<EntityModel<VideoDto>> collectionModel = Paginas.of(videos, videoPage, total);
+        collectionModel.add(Link.of(collectionLink.getHref() + "&view=" + FULL).withSelfRel());
+        if (videoPage.hasNext()) {
+            collectionModel.add(Link.of(links.collection(baseUri, page + 1, size).getHref() + "&view=" + FULL).withRel(IanaLinkRelations.NEXT));
+        }
+
+        return ResponseEntity.ok().eTag(etag).body(collectionModel);
+    }
+
+    private ResponseEntity<CollectionModel<?>> getVideoResumos(int page, int size, Boolean withTotal, String ifNoneMatch) {
+        Slice<VideoResumo> resumoPage = videoRepo.findResumos(PageRequest.of(page, size));
+        Long total = Boolean.TRUE.equals(withTotal) ? totaisAproximados.total(videoRepo) : null;
+        String etag = ETags.ofPage("page=" + page + "&size=" + size + "&next=" + resumoPage.hasNext() + "&total=" + total, resumoPage.getContent(), VideoResumo::id, VideoResumo::revisao);
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ETags.notModified(etag);
+        }
+
+        ResourceLinks links = linkFactory.linksFor(VideoController.class);
+        String baseUri = linkFactory.baseUri();
+        Link collectionLink = links.collection(baseUri, page, size);
+
+        List<EntityModel<VideoResumo>> resumos = resumoPage.stream()
+                .map(resumo -> EntityModel.of(resumo, links.self(baseUri, resumo.id()), collectionLink))
                 .collect(Collectors.toList());
 
-        CollectionModel<EntityModel<Video>> collectionModel = CollectionModel.of(videos);
-        collectionModel.add(linkTo(methodOn(VideoController.class).getVideos(page, size)).withSelfRel());
+        CollectionModel<EntityModel<VideoResumo>> collectionModel = Paginas.of(resumos, resumoPage, total);
+        collectionModel.add(collectionLink.withSelfRel());
+        if (resumoPage.hasNext()) {
+            collectionModel.add(links.collection(baseUri, page + 1, size).withRel(IanaLinkRelations.NEXT));
+        }
 
-        return ResponseEntity.ok(collectionModel);
+        return ResponseEntity.ok().eTag(etag).body(collectionModel);
+    }
+
+    private ResponseEntity<CollectionModel<?>> getVideoResumos(long after, int size, String ifNoneMatch) {
+        List<VideoResumo> resumos = videoRepo.findResumosAfter(after, Limit.of(size + 1));
+        boolean hasNext = resumos.size() > size;
+        if (hasNext) {
+            resumos = resumos.subList(0, size);
+        }
+
+        String etag = ETags.ofPage("after=" + after + "&size=" + size + "&next=" + hasNext, resumos, VideoResumo::id, VideoResumo::revisao);
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ETags.notModified(etag);
+        }
+
+        ResourceLinks links = linkFactory.linksFor(VideoController.class);
+        String baseUri = linkFactory.baseUri();
+        Link cursorLink = links.cursor(baseUri, after, size);
+
+        List<EntityModel<VideoResumo>> models = resumos.stream()
+                .map(resumo -> EntityModel.of(resumo, links.self(baseUri, resumo.id()), cursorLink))
+                .collect(Collectors.toList());
+
+        CollectionModel<EntityModel<VideoResumo>> collectionModel = CollectionModel.of(models);
+        collectionModel.add(cursorLink.withSelfRel());
+        if (hasNext) {
+            collectionModel.add(links.cursor(baseUri, resumos.get(size - 1).id(), size).withRel(IanaLinkRelations.NEXT));
+        }
+
+        return ResponseEntity.ok().eTag(etag).body(collectionModel);
+    }
+
+    private ResponseEntity<CollectionModel<?>> getVideosAfter(long after, int size, Expand expand, String ifNoneMatch) {
+        List<Video> videos = videoRepo.findByIdGreaterThanOrderByIdAsc(after, Limit.of(size + 1));
+        boolean hasNext = videos.size() > size;
+        if (hasNext) {
+            videos = videos.subList(0, size);
+        }
+
+        String etag = ETags.ofPage("view=full&after=" + after + "&size=" + size + "&next=" + hasNext + "&expand=" + expand.chave(), videos, Video::getId, Video::getRevisao);
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ETags.notModified(etag);
+        }
+
+        ResourceLinks links = linkFactory.linksFor(VideoController.class);
+        String baseUri = linkFactory.baseUri();
+        Link cursorLink = links.cursor(baseUri, after, size);
+
+        List<EntityModel<VideoDto>> models = videos.stream()
+                .map(video -> EntityModel.of(dtoMapper.toDto(video, expand), links.self(baseUri, video.getId()), cursorLink))
+                .collect(Collectors.toList());
+
+        CollectionModel<EntityModel<VideoDto>> collectionModel = CollectionModel.of(models);
+        collectionModel.add(Link.of(cursorLink.getHref() + "&view=" + FULL).withSelfRel());
+        if (hasNext) {
+            Link next = links.cursor(baseUri, videos.get(size - 1).getId(), size);
+            collectionModel.add(Link.of(next.getHref() + "&view=" + FULL).withRel(IanaLinkRelations.NEXT));
+        }
+
+        return ResponseEntity.ok().eTag(etag).body(collectionModel);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Transactional(readOnly = true)
+    @Operation(summary = "Exporta todos os vídeos em NDJSON")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Sucesso ao exportar os vídeos")
+    })
+    public void exportVideos(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        ndjsonExporter.export(videoRepo.streamAllByOrderByIdAsc(), video -> dtoMapper.toDto(video, Expand.NENHUMA), response.getOutputStream());
     }
 
     @GetMapping("/{id}")
@@ -65,15 +239,22 @@ public class VideoController {
             @ApiResponse(responseCode = "200", description = "Sucesso ao obter detalhes do vídeo"),
             @ApiResponse(responseCode = "404", description = "Vídeo não encontrado")
     })
-    public ResponseEntity<EntityModel<Video>> getVideo(@PathVariable Long id) {
+    public ResponseEntity<EntityModel<VideoDto>> getVideo(@PathVariable Long id,
+                                                          @RequestParam(defaultValue = "") Expand expand,
+                                                          @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            String etag = videoRepo.findRevisaoById(id).map(revisao -> ETags.of(id, revisao, expand.chave())).orElse(null);
+            if (etag != null && ETags.matches(ifNoneMatch, etag)) {
+                return ETags.notModified(etag);
+            }
+        }
+
         Video video = videoRepo.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Vídeo não encontrado pelo id :: " + id));
 
-        EntityModel<Video> videoModel = EntityModel.of(video,
-                linkTo(methodOn(VideoController.class).getVideo(id)).withSelfRel(),
-                linkTo(methodOn(VideoController.class).getVideos(0, 10)).withRel("videos"));
+        EntityModel<VideoDto> videoModel = toModel(video, expand);
 
-        return ResponseEntity.ok(videoModel);
+        return ResponseEntity.ok().eTag(ETags.of(video.getId(), video.getRevisao(), expand.chave())).body(videoModel);
     }
 
     @PostMapping
@@ -82,15 +263,40 @@ public class VideoController {
             @ApiResponse(responseCode = "201", description = "Sucesso ao criar um novo vídeo"),
             @ApiResponse(responseCode = "400", description = "Requisição inválida")
     })
-    public ResponseEntity<EntityModel<Video>> saveVideo(@Valid @RequestBody Video video) {
+    @Transactional
+    public ResponseEntity<EntityModel<VideoDto>> saveVideo(@Valid @RequestBody Video video) {
 
         Video savedVideo = videoRepo.save(video);
+        registroMudancas.upsert(Mudanca.Tipo.VIDEO, savedVideo.getId());
+        indiceBusca.indexar(savedVideo);
+        respostaCache.invalidar(RespostaCache.VIDEOS);
 
-        EntityModel<Video> videoModel = EntityModel.of(savedVideo,
-                linkTo(methodOn(VideoController.class).getVideo(savedVideo.getId())).withSelfRel(),
-                linkTo(methodOn(VideoController.class).getVideos(0, 10)).withRel("videos"));
+        EntityModel<VideoDto> videoModel = toModel(savedVideo, Expand.NENHUMA);
+        canalEventos.publicar(videoModel.getContent().appId(), EVENTO, videoModel.getContent());
 
-        return ResponseEntity.status(HttpStatus.CREATED).body(videoModel);
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(ETags.of(savedVideo.getId(), savedVideo.getRevisao())).body(videoModel);
+    }
+
+    @PostMapping("/batch")
+    @Operation(summary = "Cria vários vídeos em lote")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Sucesso ao criar os vídeos"),
+            @ApiResponse(responseCode = "400", description = "Requisição inválida, com os erros de cada elemento")
+    })
+    @Transactional
+    public ResponseEntity<CollectionModel<EntityModel<VideoDto>>> saveVideos(@RequestBody List<Video> videos) {
+        batchValidator.validate(videos);
+        List<Video> savedVideos = videoRepo.saveAll(videos);
+        registroMudancas.upserts(Mudanca.Tipo.VIDEO, savedVideos.stream().map(Video::getId).toList());
+        savedVideos.forEach(indiceBusca::indexar);
+        respostaCache.invalidar(RespostaCache.VIDEOS);
+
+        List<EntityModel<VideoDto>> models = savedVideos.stream()
+                .map(video -> toModel(video, Expand.NENHUMA))
+                .collect(Collectors.toList());
+        models.forEach(model -> canalEventos.publicar(model.getContent().appId(), EVENTO, model.getContent()));
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(CollectionModel.of(models));
     }
 
     @PutMapping("/{id}")
@@ -100,19 +306,49 @@ public class VideoController {
             @ApiResponse(responseCode = "400", description = "Requisição inválida"),
             @ApiResponse(responseCode = "404", description = "Vídeo não encontrado")
     })
-    public ResponseEntity<EntityModel<Video>> updateVideo(@PathVariable Long id, @Valid @RequestBody Video video) {
+    @Transactional
+    public ResponseEntity<EntityModel<VideoDto>> updateVideo(@PathVariable Long id, @Valid @RequestBody Video video,
+                                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         Video existingVideo = videoRepo.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Vídeo não encontrado pelo id :: " + id));
+        ETags.checkIfMatch(ifMatch, ETags.of(existingVideo.getId(), existingVideo.getRevisao()));
 
         existingVideo.setTitulo(video.getTitulo());
         existingVideo.setLink(video.getLink());
-        Video updatedVideo = videoRepo.save(existingVideo);
+        // flush para a revisão nova já estar na entidade ao montar o ETag
+        Video updatedVideo = videoRepo.saveAndFlush(existingVideo);
+        registroMudancas.upsert(Mudanca.Tipo.VIDEO, id);
+        indiceBusca.indexar(updatedVideo);
+        respostaCache.invalidar(RespostaCache.VIDEOS);
 
-        EntityModel<Video> videoModel = EntityModel.of(updatedVideo,
-                linkTo(methodOn(VideoController.class).getVideo(updatedVideo.getId())).withSelfRel(),
-                linkTo(methodOn(VideoController.class).getVideos(0, 10)).withRel("videos"));
+        EntityModel<VideoDto> videoModel = toModel(updatedVideo, Expand.NENHUMA);
 
-        return ResponseEntity.ok(videoModel);
+        return ResponseEntity.ok().eTag(ETags.of(updatedVideo.getId(), updatedVideo.getRevisao())).body(videoModel);
+    }
+
+    @PatchMapping("/{id}")
+    @Operation(summary = "Altera só os campos enviados de um vídeo, num único UPDATE")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Vídeo alterado; com If-Match, o ETag da nova revisão vem na resposta"),
+            @ApiResponse(responseCode = "400", description = "Campo desconhecido ou inválido"),
+            @ApiResponse(responseCode = "404", description = "Vídeo não encontrado"),
+            @ApiResponse(responseCode = "412", description = "O vídeo foi alterado depois da revisão do If-Match")
+    })
+    @Transactional
+    public ResponseEntity<Void> patchVideo(@PathVariable Long id, @RequestBody Map<String, Object> campos,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Map<String, Object> alteracoes = atualizacaoParcial.validar(Video.class, campos, CAMPOS_PATCH);
+        Long revisao = ETags.revisaoEsperada(ifMatch, id);
+
+        int linhas = atualizacaoParcial.atualizar(Video.class, id, revisao, alteracoes);
+        AtualizacaoParcial.exigirLinha(linhas, id, () -> videoRepo.findRevisaoById(id), "Vídeo não encontrado pelo id :: ");
+        registroMudancas.upsert(Mudanca.Tipo.VIDEO, id);
+        if (alteracoes.containsKey("titulo")) {
+            indiceBusca.indexar(IndiceBusca.VIDEO, id, (String) alteracoes.get("titulo"), null);
+        }
+        respostaCache.invalidar(RespostaCache.VIDEOS);
+
+        return ETags.noContent(id, revisao);
     }
 
     @DeleteMapping("/{id}")
@@ -121,11 +357,20 @@ public class VideoController {
             @ApiResponse(responseCode = "204", description = "Sucesso ao deletar o vídeo"),
             @ApiResponse(responseCode = "404", description = "Vídeo não encontrado")
     })
+    @Transactional
     public ResponseEntity<Void> deleteVideo(@PathVariable Long id) {
-        Video existingVideo = videoRepo.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Vídeo não encontrado pelo id :: " + id));
-
-        videoRepo.delete(existingVideo);
+        if (atualizacaoParcial.excluir(Video.class, id) == 0) {
+            throw new ResourceNotFoundException("Vídeo não encontrado pelo id :: " + id);
+        }
+        registroMudancas.exclusao(Mudanca.Tipo.VIDEO, id);
+        indiceBusca.remover(IndiceBusca.VIDEO, id);
+        respostaCache.invalidar(RespostaCache.VIDEOS);
         return ResponseEntity.noContent().build();
     }
+
+    private EntityModel<VideoDto> toModel(Video video, Expand expand) {
+        ResourceLinks links = linkFactory.linksFor(VideoController.class);
+        String baseUri = linkFactory.baseUri();
+        return EntityModel.of(dtoMapper.toDto(video, expand), links.self(baseUri, video.getId()), links.collection(baseUri, 0, 10));
+    }
 }
@@ -0,0 +1,7 @@
+package com.gs.sea_kids.dto;
+
+import org.springframework.hateoas.server.core.Relation;
+
+@Relation(itemRelation = "app", collectionRelation = "apps")
+public record AppDto(Long id, String nome, String versao) {
+}
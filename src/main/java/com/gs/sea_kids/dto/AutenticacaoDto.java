@@ -0,0 +1,9 @@
+package com.gs.sea_kids.dto;
+
+import java.time.Instant;
+
+/**
+ * Resposta do login: o token vai no {@code Authorization: Bearer} das próximas requisições.
+ */
+public record AutenticacaoDto(String token, Instant expiraEm, LoginDto login) {
+}
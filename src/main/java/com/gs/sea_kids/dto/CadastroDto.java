@@ -0,0 +1,14 @@
+package com.gs.sea_kids.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.springframework.hateoas.server.core.Relation;
+
+/**
+ * Cadastro sem a senha. A relação da coleção mantém o plural que a API já
+ * publicava ({@code cadastroes}, gerado a partir do nome da entidade).
+ */
+@Relation(itemRelation = "cadastro", collectionRelation = "cadastroes")
+public record CadastroDto(Long id, String nome, String email, Long appId, Long clienteId,
+                          @JsonInclude(JsonInclude.Include.NON_NULL) AppDto app,
+                          @JsonInclude(JsonInclude.Include.NON_NULL) ClienteDto cliente) {
+}
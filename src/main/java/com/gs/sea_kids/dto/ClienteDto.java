@@ -0,0 +1,9 @@
+package com.gs.sea_kids.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.springframework.hateoas.server.core.Relation;
+
+@Relation(itemRelation = "cliente", collectionRelation = "clientes")
+public record ClienteDto(Long id, String nome, String email, Long appId,
+                         @JsonInclude(JsonInclude.Include.NON_NULL) AppDto app) {
+}
@@ -0,0 +1,4 @@
+package com.gs.sea_kids.dto;
+
+public record Credenciais(String email, String senha) {
+}
@@ -0,0 +1,9 @@
+package com.gs.sea_kids.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.springframework.hateoas.server.core.Relation;
+
+@Relation(itemRelation = "curiosidade", collectionRelation = "curiosidades")
+public record CuriosidadeDto(Long id, String titulo, String texto, Long appId,
+                             @JsonInclude(JsonInclude.Include.NON_NULL) AppDto app) {
+}
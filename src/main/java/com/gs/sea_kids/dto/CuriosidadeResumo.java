@@ -0,0 +1,12 @@
+package com.gs.sea_kids.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.springframework.hateoas.server.core.Relation;
+
+/**
+ * Linha da listagem de curiosidades: o trecho é cortado no banco (200
+ * caracteres), sem trafegar o CLOB do texto inteiro.
+ */
+@Relation(itemRelation = "curiosidade", collectionRelation = "curiosidades")
+public record CuriosidadeResumo(Long id, String titulo, String trecho, @JsonIgnore Long revisao) {
+}
@@ -0,0 +1,64 @@
+package com.gs.sea_kids.dto;
+
+import com.gs.sea_kids.model.App;
+import com.gs.sea_kids.model.Cadastro;
+import com.gs.sea_kids.model.Cliente;
+import com.gs.sea_kids.model.Curiosidade;
+import com.gs.sea_kids.model.Login;
+import com.gs.sea_kids.model.Video;
+import org.mapstruct.Context;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingConstants;
+import org.mapstruct.Named;
+
+/**
+ * Conversão entidade → DTO gerada pelo MapStruct em tempo de compilação.
+ * Só as relações pedidas em {@link Expand} são lidas como objeto; as demais
+ * viram ids, lidos da chave do proxy sem inicializá-lo. Relações aninhadas
+ * nunca são expandidas, então o custo não depende dos filhos de cada linha.
+ */
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
+public interface DtoMapper {
+
+    AppDto toDto(App app);
+
+    @Mapping(target = "appId", source = "app.id")
+    @Mapping(target = "app", source = "app", conditionExpression = "java(expand.contains(\"app\"))")
+    VideoDto toDto(Video video, @Context Expand expand);
+
+    @Mapping(target = "appId", source = "app.id")
+    @Mapping(target = "app", source = "app", conditionExpression = "java(expand.contains(\"app\"))")
+    CuriosidadeDto toDto(Curiosidade curiosidade, @Context Expand expand);
+
+    @Mapping(target = "appId", source = "app.id")
+    @Mapping(target = "app", source = "app", conditionExpression = "java(expand.contains(\"app\"))")
+    ClienteDto toDto(Cliente cliente, @Context Expand expand);
+
+    @Mapping(target = "appId", source = "app.id")
+    @Mapping(target = "clienteId", source = "cliente.id")
+    @Mapping(target = "app", source = "app", conditionExpression = "java(expand.contains(\"app\"))")
+    @Mapping(target = "cliente", source = "cliente", qualifiedByName = "referencia",
+            conditionExpression = "java(expand.contains(\"cliente\"))")
+    CadastroDto toDto(Cadastro cadastro, @Context Expand expand);
+
+    @Mapping(target = "cadastroId", source = "cadastro.id")
+    @Mapping(target = "clienteId", source = "cliente.id")
+    @Mapping(target = "cadastro", source = "cadastro", qualifiedByName = "referencia",
+            conditionExpression = "java(expand.contains(\"cadastro\"))")
+    @Mapping(target = "cliente", source = "cliente", qualifiedByName = "referencia",
+            conditionExpression = "java(expand.contains(\"cliente\"))")
+    LoginDto toDto(Login login, @Context Expand expand);
+
+    @Named("referencia")
+    @Mapping(target = "appId", source = "app.id")
+    @Mapping(target = "app", ignore = true)
+    ClienteDto toReferencia(Cliente cliente);
+
+    @Named("referencia")
+    @Mapping(target = "appId", source = "app.id")
+    @Mapping(target = "clienteId", source = "cliente.id")
+    @Mapping(target = "app", ignore = true)
+    @Mapping(target = "cliente", ignore = true)
+    CadastroDto toReferencia(Cadastro cadastro);
+}
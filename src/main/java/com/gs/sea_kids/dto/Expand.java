@@ -0,0 +1,35 @@
+package com.gs.sea_kids.dto;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Relações pedidas em {@code ?expand=app,cliente}. Sem o parâmetro, cada
+ * relação sai só como id ({@code appId}); expandida, sai como objeto, sempre
+ * com um único nível.
+ */
+public record Expand(SortedSet<String> relacoes) {
+
+    public static final Expand NENHUMA = new Expand(Collections.emptySortedSet());
+
+    /** Usado pelo Spring para converter o parâmetro da requisição. */
+    public static Expand valueOf(String expand) {
+        SortedSet<String> relacoes = new TreeSet<>();
+        Arrays.stream(expand.split(","))
+                .map(String::trim)
+                .filter(relacao -> !relacao.isEmpty())
+                .forEach(relacoes::add);
+        return relacoes.isEmpty() ? NENHUMA : new Expand(Collections.unmodifiableSortedSet(relacoes));
+    }
+
+    public boolean contains(String relacao) {
+        return relacoes.contains(relacao);
+    }
+
+    /** Identifica a variante da representação no ETag ({@code app+cliente}). */
+    public String chave() {
+        return String.join("+", relacoes);
+    }
+}
@@ -0,0 +1,13 @@
+package com.gs.sea_kids.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.springframework.hateoas.server.core.Relation;
+
+/**
+ * Login sem a senha.
+ */
+@Relation(itemRelation = "login", collectionRelation = "logins")
+public record LoginDto(Long id, String email, Long cadastroId, Long clienteId,
+                       @JsonInclude(JsonInclude.Include.NON_NULL) CadastroDto cadastro,
+                       @JsonInclude(JsonInclude.Include.NON_NULL) ClienteDto cliente) {
+}
@@ -0,0 +1,14 @@
+package com.gs.sea_kids.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Estado atual de um item alterado desde o cursor do cliente: {@code upsert}
+ * traz o item em {@code dados}; {@code exclusao} é a lápide, só com tipo e id.
+ */
+public record MudancaDto(long cursor, String tipo, Long id, String operacao,
+                         @JsonInclude(JsonInclude.Include.NON_NULL) Object dados) {
+
+    public static final String UPSERT = "upsert";
+    public static final String EXCLUSAO = "exclusao";
+}
@@ -0,0 +1,11 @@
+package com.gs.sea_kids.dto;
+
+import java.util.List;
+
+/** Resposta do {@code GET /changes}: o cliente guarda {@code cursor} e manda de volta em {@code since}. */
+public record PaginaMudancas(List<MudancaDto> mudancas, long cursor, boolean temMais) {
+
+    public static PaginaMudancas vazia(long cursor) {
+        return new PaginaMudancas(List.of(), cursor, false);
+    }
+}
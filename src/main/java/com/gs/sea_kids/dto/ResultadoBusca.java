@@ -0,0 +1,7 @@
+package com.gs.sea_kids.dto;
+
+import org.springframework.hateoas.server.core.Relation;
+
+@Relation(itemRelation = "resultado", collectionRelation = "resultados")
+public record ResultadoBusca(String tipo, Long id, String titulo, double score) {
+}
@@ -0,0 +1,9 @@
+package com.gs.sea_kids.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.springframework.hateoas.server.core.Relation;
+
+@Relation(itemRelation = "video", collectionRelation = "videos")
+public record VideoDto(Long id, String titulo, String link, Long appId,
+                       @JsonInclude(JsonInclude.Include.NON_NULL) AppDto app) {
+}
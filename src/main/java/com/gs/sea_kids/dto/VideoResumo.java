@@ -0,0 +1,11 @@
+package com.gs.sea_kids.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.springframework.hateoas.server.core.Relation;
+
+/**
+ * Linha da listagem de vídeos: só o que a lista exibe, sem o CLOB do link.
+ */
+@Relation(itemRelation = "video", collectionRelation = "videos")
+public record VideoResumo(Long id, String titulo, @JsonIgnore Long revisao) {
+}
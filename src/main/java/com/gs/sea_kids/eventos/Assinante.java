@@ -0,0 +1,120 @@
+package com.gs.sea_kids.eventos;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+
+import java.io.IOException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Uma conexão SSE com escrita não bloqueante: os eventos entram numa fila
+ * limitada (os arrays de bytes são os mesmos para todos os assinantes) e só
+ * são escritos enquanto {@link ServletOutputStream#isReady()}; o container
+ * chama {@link #onWritePossible()} quando o socket volta a aceitar bytes.
+ * Fila cheia é cliente lento: a conexão é encerrada em vez de crescer.
+ */
+final class Assinante implements WriteListener, AsyncListener {
+
+    private final Long app;
+    private final ServletOutputStream saida;
+    private final int limite;
+    private final Consumer<Assinante> aoEncerrar;
+
+    private final Queue<byte[]> fila = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendentes = new AtomicInteger();
+    private final AtomicBoolean encerrado = new AtomicBoolean();
+    // protegido pelo lock do assinante, como a escrita
+    private boolean flushPendente;
+
+    Assinante(Long app, ServletOutputStream saida, int limite, Consumer<Assinante> aoEncerrar) {
+        this.app = app;
+        this.saida = saida;
+        this.limite = limite;
+        this.aoEncerrar = aoEncerrar;
+    }
+
+    Long app() {
+        return app;
+    }
+
+    /** {@code false} se a fila estava cheia e a conexão foi encerrada. */
+    boolean enviar(byte[] evento) {
+        if (encerrado.get()) {
+            return true;
+        }
+        if (pendentes.incrementAndGet() > limite) {
+            encerrar();
+            return false;
+        }
+        fila.add(evento);
+        escrever();
+        return true;
+    }
+
+    private synchronized void escrever() {
+        if (encerrado.get()) {
+            return;
+        }
+        try {
+            // isReady() == false garante uma chamada futura de onWritePossible
+            while (saida.isReady()) {
+                byte[] evento = fila.poll();
+                if (evento != null) {
+                    pendentes.decrementAndGet();
+                    saida.write(evento);
+                    flushPendente = true;
+                } else if (flushPendente) {
+                    flushPendente = false;
+                    saida.flush();
+                } else {
+                    return;
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // cliente desconectou
+            encerrar();
+        }
+    }
+
+    void encerrar() {
+        if (encerrado.compareAndSet(false, true)) {
+            fila.clear();
+            aoEncerrar.accept(this);
+        }
+    }
+
+    @Override
+    public void onWritePossible() {
+        escrever();
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        encerrar();
+    }
+
+    @Override
+    public void onComplete(AsyncEvent event) {
+        encerrar();
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {
+        encerrar();
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {
+        encerrar();
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {
+    }
+}
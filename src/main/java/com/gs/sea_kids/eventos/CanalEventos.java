@@ -0,0 +1,200 @@
+package com.gs.sea_kids.eventos;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Server-Sent Events por app ({@code GET /apps/{id}/stream}). Cada conexão é
+ * um {@link AsyncContext} com escrita não bloqueante: nenhuma thread fica
+ * presa a um assinante ocioso, e uma única thread faz a distribuição e os
+ * heartbeats. O evento é serializado uma vez e o mesmo array de bytes vai
+ * para a fila de todos os assinantes do app.
+ */
+@Component
+public class CanalEventos implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(CanalEventos.class);
+
+    // comentário SSE: o cliente ignora, mas mantém proxies abertos e revela conexões mortas
+    private static final byte[] HEARTBEAT = ":\n\n".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] INICIO = "retry: 5000\n\n".getBytes(StandardCharsets.UTF_8);
+
+    private final ObjectWriter writer;
+    private final int buffer;
+    private final int maxAssinantes;
+    private final Map<Long, Set<Assinante>> assinantes = new ConcurrentHashMap<>();
+    private final AtomicInteger conectados = new AtomicInteger();
+    private final LongAdder publicados = new LongAdder();
+    private final LongAdder lentos = new LongAdder();
+    private final ScheduledExecutorService distribuidor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "canal-eventos");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public CanalEventos(ObjectMapper objectMapper,
+                        @Value("${seakids.eventos.buffer:64}") int buffer,
+                        @Value("${seakids.eventos.max-assinantes:20000}") int maxAssinantes,
+                        @Value("${seakids.eventos.heartbeat:15s}") Duration heartbeat) {
+        // uma linha "data:" por evento: o JSON não pode ter quebras de linha
+        this.writer = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+        this.buffer = buffer;
+        this.maxAssinantes = maxAssinantes;
+        distribuidor.scheduleAtFixedRate(this::heartbeat, heartbeat.toMillis(), heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /** Abre o stream: a requisição fica assíncrona e sem timeout; quem encerra é o cliente ou o canal. */
+    public void assinar(Long app, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (conectados.get() >= maxAssinantes) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "5");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Limite de conexões de eventos atingido");
+            return;
+        }
+        response.setContentType(MediaType.TEXT_EVENT_STREAM_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        // nginx não deve segurar os eventos no buffer dele
+        response.setHeader("X-Accel-Buffering", "no");
+
+        AsyncContext contexto = request.startAsync();
+        contexto.setTimeout(0);
+        Assinante assinante = registrar(app, response.getOutputStream(), contexto);
+        contexto.addListener(assinante);
+        response.getOutputStream().setWriteListener(assinante);
+        assinante.enviar(INICIO);
+    }
+
+    Assinante registrar(Long app, ServletOutputStream saida, AsyncContext contexto) {
+        Assinante assinante = new Assinante(app, saida, buffer, encerrado -> remover(encerrado, contexto));
+        // compute, não computeIfAbsent + add: o remover pode estar descartando o conjunto vazio ao mesmo tempo
+        assinantes.compute(app, (chave, doApp) -> {
+            Set<Assinante> conjunto = doApp == null ? ConcurrentHashMap.newKeySet() : doApp;
+            conjunto.add(assinante);
+            return conjunto;
+        });
+        conectados.incrementAndGet();
+        return assinante;
+    }
+
+    /**
+     * Publica um evento para os assinantes do app. Dentro de uma transação, só
+     * depois do commit; a distribuição roda na thread do canal, fora da requisição.
+     */
+    public void publicar(Long app, String evento, Object dados) {
+        if (app == null || !assinantes.containsKey(app)) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    distribuidor.execute(() -> distribuir(app, evento, dados));
+                }
+            });
+        } else {
+            distribuidor.execute(() -> distribuir(app, evento, dados));
+        }
+    }
+
+    void distribuir(Long app, String evento, Object dados) {
+        Set<Assinante> doApp = assinantes.get(app);
+        if (doApp == null) {
+            return;
+        }
+        byte[] bytes = serializar(evento, dados);
+        for (Assinante assinante : doApp) {
+            if (!assinante.enviar(bytes)) {
+                lentos.increment();
+                logger.debug("Assinante do app {} desconectado por não acompanhar os eventos", app);
+            }
+        }
+        publicados.increment();
+    }
+
+    void heartbeat() {
+        for (Set<Assinante> doApp : assinantes.values()) {
+            for (Assinante assinante : doApp) {
+                if (!assinante.enviar(HEARTBEAT)) {
+                    lentos.increment();
+                }
+            }
+        }
+    }
+
+    private byte[] serializar(String evento, Object dados) {
+        try {
+            byte[] json = writer.writeValueAsBytes(dados);
+            byte[] cabecalho = ("event: " + evento + "\ndata: ").getBytes(StandardCharsets.UTF_8);
+            byte[] bytes = new byte[cabecalho.length + json.length + 2];
+            System.arraycopy(cabecalho, 0, bytes, 0, cabecalho.length);
+            System.arraycopy(json, 0, bytes, cabecalho.length, json.length);
+            bytes[bytes.length - 2] = '\n';
+            bytes[bytes.length - 1] = '\n';
+            return bytes;
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void remover(Assinante assinante, AsyncContext contexto) {
+        assinantes.computeIfPresent(assinante.app(), (app, doApp) -> {
+            doApp.remove(assinante);
+            return doApp.isEmpty() ? null : doApp;
+        });
+        conectados.decrementAndGet();
+        if (contexto != null) {
+            try {
+                contexto.complete();
+            } catch (IllegalStateException e) {
+                // já completado pelo container (cliente desconectou)
+            }
+        }
+    }
+
+    public int conectados() {
+        return conectados.get();
+    }
+
+    public long publicados() {
+        return publicados.sum();
+    }
+
+    public long desconectadosPorLentidao() {
+        return lentos.sum();
+    }
+
+    @Override
+    public void destroy() {
+        distribuidor.shutdownNow();
+        assinantes.values().forEach(doApp -> doApp.forEach(Assinante::encerrar));
+    }
+}
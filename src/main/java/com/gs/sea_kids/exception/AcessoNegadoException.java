@@ -0,0 +1,8 @@
+package com.gs.sea_kids.exception;
+
+public class AcessoNegadoException extends RuntimeException {
+
+    public AcessoNegadoException(String message) {
+        super(message);
+    }
+}
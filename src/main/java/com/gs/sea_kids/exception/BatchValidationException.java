@@ -0,0 +1,17 @@
+package com.gs.sea_kids.exception;
+
+import java.util.Map;
+
+public class BatchValidationException extends RuntimeException {
+
+    private final Map<String, String> errors;
+
+    public BatchValidationException(Map<String, String> errors) {
+        super("Lote inválido");
+        this.errors = errors;
+    }
+
+    public Map<String, String> getErrors() {
+        return errors;
+    }
+}
@@ -0,0 +1,8 @@
+package com.gs.sea_kids.exception;
+
+public class CredenciaisInvalidasException extends RuntimeException {
+
+    public CredenciaisInvalidasException() {
+        super("Email ou senha inválidos");
+    }
+}
@@ -0,0 +1,8 @@
+package com.gs.sea_kids.exception;
+
+public class EmailDuplicadoException extends RuntimeException {
+
+    public EmailDuplicadoException(String email) {
+        super("Email já cadastrado :: " + email);
+    }
+}
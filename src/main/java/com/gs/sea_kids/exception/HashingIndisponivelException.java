@@ -0,0 +1,8 @@
+package com.gs.sea_kids.exception;
+
+public class HashingIndisponivelException extends RuntimeException {
+
+    public HashingIndisponivelException() {
+        super("Muitas autenticações simultâneas; tente novamente em instantes");
+    }
+}
@@ -0,0 +1,17 @@
+package com.gs.sea_kids.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class ImagemInvalidaException extends RuntimeException {
+
+    private final HttpStatus status;
+
+    public ImagemInvalidaException(HttpStatus status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,7 @@
+package com.gs.sea_kids.exception;
+
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,15 @@
+package com.gs.sea_kids.exception;
+
+public class RangeNotSatisfiableException extends RuntimeException {
+
+    private final long total;
+
+    public RangeNotSatisfiableException(long total) {
+        super("Intervalo fora do conteúdo de " + total + " bytes");
+        this.total = total;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+}
@@ -0,0 +1,50 @@
+package com.gs.sea_kids.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Escreve um {@link Stream} de entidades como NDJSON direto no output stream,
+ * uma linha por entidade, convertida pelo {@code mapper}. Cada entidade é
+ * desanexada depois de escrita para que o contexto de persistência não cresça
+ * com o tamanho da tabela.
+ */
+@Component
+public class NdjsonExporter {
+
+    private static final SerializedString LINE_SEPARATOR = new SerializedString("\n");
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public <T> void export(Stream<T> rows, Function<T, ?> mapper, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        try (rows; JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.setRootValueSeparator(LINE_SEPARATOR);
+            Iterator<T> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                T row = iterator.next();
+                writer.writeValue(generator, mapper.apply(row));
+                entityManager.detach(row);
+            }
+            generator.writeRaw('\n');
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package com.gs.sea_kids.expurgo;
+
+import com.gs.sea_kids.repo.AppRepo;
+import com.gs.sea_kids.repo.CadastroRepo;
+import com.gs.sea_kids.repo.ClienteRepo;
+import com.gs.sea_kids.repo.CuriosidadeImagemRepo;
+import com.gs.sea_kids.repo.CuriosidadeRepo;
+import com.gs.sea_kids.repo.LoginRepo;
+import com.gs.sea_kids.repo.VideoRepo;
+import com.gs.sea_kids.search.IndiceBusca;
+import com.gs.sea_kids.validation.FiltroEmails;
+import com.gs.sea_kids.web.RespostaCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Remove em segundo plano os apps marcados como excluídos e tudo o que depende
+ * deles, na ordem das chaves estrangeiras: logins, cadastros, clientes,
+ * vídeos, curiosidades e por fim o app. Cada lote é uma transação curta (um
+ * select de até {@code seakids.expurgo.lote} ids e um delete em massa), sem
+ * carregar entidades na sessão. Exclusões interrompidas por um restart são
+ * retomadas quando a aplicação sobe.
+ */
+@Component
+public class ExpurgoApps implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExpurgoApps.class);
+
+    @Autowired
+    private AppRepo appRepo;
+
+    @Autowired
+    private ClienteRepo clienteRepo;
+
+    @Autowired
+    private CadastroRepo cadastroRepo;
+
+    @Autowired
+    private LoginRepo loginRepo;
+
+    @Autowired
+    private VideoRepo videoRepo;
+
+    @Autowired
+    private CuriosidadeRepo curiosidadeRepo;
+
+    @Autowired
+    private CuriosidadeImagemRepo curiosidadeImagemRepo;
+
+    @Autowired
+    private FiltroEmails filtroEmailsCliente;
+
+    @Autowired
+    private FiltroEmails filtroEmailsCadastro;
+
+    @Autowired
+    private IndiceBusca indiceBusca;
+
+    @Autowired
+    private RespostaCache respostaCache;
+
+    private final TransactionTemplate transacao;
+
+    @Value("${seakids.expurgo.lote:500}")
+    private int lote;
+
+    @Value("${seakids.expurgo.pausa:0ms}")
+    private Duration pausa;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "expurgo-apps"));
+    private final Map<Long, Progresso> progressos = new ConcurrentHashMap<>();
+
+    public ExpurgoApps(PlatformTransactionManager transactionManager) {
+        this.transacao = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void retomar() {
+        List<Long> pendentes = appRepo.findIdsExcluidos();
+        if (!pendentes.isEmpty()) {
+            logger.info("Retomando o expurgo de {} app(s) excluído(s): {}", pendentes.size(), pendentes);
+            pendentes.forEach(this::agendar);
+        }
+    }
+
+    /**
+     * Enfileira o expurgo de um app já marcado como excluído; repetir o pedido não duplica o trabalho,
+     * a não ser que o expurgo anterior tenha falhado ou sido interrompido, quando recomeça do ponto em que parou.
+     * Chamado dentro de uma transação, só começa depois do commit da marcação.
+     */
+    public void agendar(Long id) {
+        Progresso novo = new Progresso();
+        if (progressos.compute(id, (chave, atual) -> atual == null || atual.encerradoSemConcluir() ? novo : atual) != novo) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            executor.execute(() -> expurgar(id, novo));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    executor.execute(() -> expurgar(id, novo));
+                } else {
+                    progressos.remove(id, novo);
+                }
+            }
+        });
+    }
+
+    /** Situação e linhas removidas por tabela, ou {@code null} se o app não foi excluído desde que a aplicação subiu. */
+    public Map<String, Object> progresso(Long id) {
+        Progresso progresso = progressos.get(id);
+        return progresso == null ? null : progresso.resumo();
+    }
+
+    private void expurgar(Long app, Progresso progresso) {
+        progresso.situacao = "em andamento";
+        progresso.inicio = Instant.now();
+        try {
+            expurgarLotes(progresso, "logins", limite -> loginRepo.findIdsDoApp(app, limite), ids -> {
+                loginRepo.deleteAllByIdInBatch(ids);
+                return () -> {
+                };
+            });
+            expurgarLotes(progresso, "cadastros", limite -> cadastroRepo.findIdsDoApp(app, limite), ids -> {
+                List<String> emails = cadastroRepo.findEmails(ids);
+                cadastroRepo.deleteAllByIdInBatch(ids);
+                return () -> emails.forEach(filtroEmailsCadastro::remover);
+            });
+            expurgarLotes(progresso, "clientes", limite -> clienteRepo.findIdsDoApp(app, limite), ids -> {
+                List<String> emails = clienteRepo.findEmails(ids);
+                clienteRepo.deleteAllByIdInBatch(ids);
+                return () -> emails.forEach(filtroEmailsCliente::remover);
+            });
+            expurgarLotes(progresso, "videos", limite -> videoRepo.findIdsDoApp(app, limite), ids -> {
+                videoRepo.deleteAllByIdInBatch(ids);
+                return () -> {
+                    ids.forEach(id -> indiceBusca.remover(IndiceBusca.VIDEO, id));
+                    respostaCache.invalidar(RespostaCache.VIDEOS);
+                };
+            });
+            expurgarLotes(progresso, "curiosidades", limite -> curiosidadeRepo.findIdsDoApp(app, limite), ids -> {
+                // a imagem compartilha o id da curiosidade
+                curiosidadeImagemRepo.deleteAllByIdInBatch(ids);
+                curiosidadeRepo.deleteAllByIdInBatch(ids);
+                return () -> {
+                    ids.forEach(id -> indiceBusca.remover(IndiceBusca.CURIOSIDADE, id));
+                    respostaCache.invalidar(RespostaCache.CURIOSIDADES);
+                };
+            });
+            transacao.executeWithoutResult(status -> appRepo.deleteAllByIdInBatch(List.of(app)));
+            progresso.removidos.get("apps").incrementAndGet();
+            progresso.situacao = "concluída";
+            logger.info("App {} expurgado: {}", app, progresso.resumo().get("removidos"));
+        } catch (InterruptedException e) {
+            // desligamento: o que falta é retomado no próximo start
+            progresso.situacao = "interrompida";
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            progresso.situacao = "falhou";
+            progresso.erro = e.getMessage();
+            logger.error("Falha no expurgo do app {}", app, e);
+        } finally {
+            progresso.fim = Instant.now();
+        }
+    }
+
+    /**
+     * Repete select + delete até o select voltar vazio. O retorno de {@code excluir}
+     * roda depois do commit (filtros de email, índice de busca, cache de respostas).
+     */
+    private void expurgarLotes(Progresso progresso, String tabela, Function<Limit, List<Long>> selecionar,
+                               Function<List<Long>, Runnable> excluir) throws InterruptedException {
+        while (true) {
+            Lote executado = transacao.execute(status -> {
+                List<Long> ids = selecionar.apply(Limit.of(lote));
+                return ids.isEmpty() ? null : new Lote(ids.size(), excluir.apply(ids));
+            });
+            if (executado == null) {
+                return;
+            }
+            executado.depoisDoCommit().run();
+            progresso.removidos.get(tabela).addAndGet(executado.linhas());
+            if (!pausa.isZero()) {
+                Thread.sleep(pausa.toMillis());
+            }
+        }
+    }
+
+    private record Lote(int linhas, Runnable depoisDoCommit) {
+    }
+
+    private static final class Progresso {
+
+        private final Instant solicitado = Instant.now();
+        private final Map<String, AtomicLong> removidos = new LinkedHashMap<>();
+        private volatile String situacao = "pendente";
+        private volatile Instant inicio;
+        private volatile Instant fim;
+        private volatile String erro;
+
+        Progresso() {
+            for (String tabela : List.of("logins", "cadastros", "clientes", "videos", "curiosidades", "apps")) {
+                removidos.put(tabela, new AtomicLong());
+            }
+        }
+
+        boolean encerradoSemConcluir() {
+            return "falhou".equals(situacao) || "interrompida".equals(situacao);
+        }
+
+        Map<String, Object> resumo() {
+            Map<String, Long> linhas = new LinkedHashMap<>();
+            removidos.forEach((tabela, quantidade) -> linhas.put(tabela, quantidade.get()));
+            Map<String, Object> resumo = new LinkedHashMap<>();
+            resumo.put("situacao", situacao);
+            resumo.put("solicitado", solicitado.toString());
+            resumo.put("inicio", inicio == null ? null : inicio.toString());
+            resumo.put("fim", fim == null ? null : fim.toString());
+            resumo.put("removidos", linhas);
+            if (erro != null) {
+                resumo.put("erro", erro);
+            }
+            return resumo;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
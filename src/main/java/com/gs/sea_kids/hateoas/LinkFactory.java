@@ -0,0 +1,30 @@
+package com.gs.sea_kids.hateoas;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fornece os links HATEOAS dos recursos sem criar proxies de {@code methodOn}
+ * por item. A URI base é resolvida uma vez por página e os templates uma vez
+ * por controller.
+ */
+@Component
+public class LinkFactory {
+
+    private final Map<Class<?>, ResourceLinks> links = new ConcurrentHashMap<>();
+
+    public ResourceLinks linksFor(Class<?> controller) {
+        return links.computeIfAbsent(controller, ResourceLinks::of);
+    }
+
+    public String baseUri() {
+        if (RequestContextHolder.getRequestAttributes() == null) {
+            return "";
+        }
+        return ServletUriComponentsBuilder.fromCurrentServletMapping().build().toUriString();
+    }
+}
@@ -0,0 +1,24 @@
+package com.gs.sea_kids.hateoas;
+
+import org.springframework.data.domain.Slice;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.PagedModel;
+
+import java.util.List;
+
+/**
+ * Coleção HAL de uma página lida como {@link Slice} (sem {@code count}).
+ * Com total, vira um {@link PagedModel} com os metadados {@code page}.
+ */
+public final class Paginas {
+
+    private Paginas() {
+    }
+
+    public static <T> CollectionModel<T> of(List<T> conteudo, Slice<?> slice, Long total) {
+        if (total == null) {
+            return CollectionModel.of(conteudo);
+        }
+        return PagedModel.of(conteudo, new PagedModel.PageMetadata(slice.getSize(), slice.getNumber(), total));
+    }
+}
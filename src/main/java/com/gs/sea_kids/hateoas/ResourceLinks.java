@@ -0,0 +1,54 @@
+package com.gs.sea_kids.hateoas;
+
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.LinkRelation;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+/**
+ * Templates de link de um recurso, resolvidos uma única vez a partir do
+ * {@link RequestMapping} do controller. Gera os mesmos hrefs que
+ * {@code linkTo(methodOn(...))}, mas apenas com concatenação de strings.
+ */
+public class ResourceLinks {
+
+    private final LinkRelation rel;
+    private final String itemPath;
+    private final String collectionPath;
+    private final String cursorPath;
+
+    private ResourceLinks(String path) {
+        this.rel = LinkRelation.of(path.substring(path.lastIndexOf('/') + 1));
+        this.itemPath = path + "/";
+        this.collectionPath = path + "?page=";
+        this.cursorPath = path + "?after=";
+    }
+
+    static ResourceLinks of(Class<?> controller) {
+        RequestMapping mapping = AnnotatedElementUtils.findMergedAnnotation(controller, RequestMapping.class);
+        if (mapping == null || mapping.path().length == 0) {
+            throw new IllegalArgumentException("Controller sem @RequestMapping: " + controller.getName());
+        }
+        return new ResourceLinks(mapping.path()[0]);
+    }
+
+    public LinkRelation getRel() {
+        return rel;
+    }
+
+    public Link self(String baseUri, Long id) {
+        return Link.of(baseUri + itemPath + id);
+    }
+
+    public Link related(String baseUri, Long id, String rel) {
+        return Link.of(baseUri + itemPath + id + "/" + rel, rel);
+    }
+
+    public Link collection(String baseUri, int page, int size) {
+        return Link.of(baseUri + collectionPath + page + "&size=" + size, rel);
+    }
+
+    public Link cursor(String baseUri, long after, int size) {
+        return Link.of(baseUri + cursorPath + after + "&size=" + size, rel);
+    }
+}
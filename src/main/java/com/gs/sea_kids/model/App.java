@@ -1,32 +1,53 @@
 package com.gs.sea_kids.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotEmpty;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
+import java.time.Instant;
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "app")
 public class App {
 
     @Column(name = "id_app")
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "app_seq")
+    @SequenceGenerator(name = "app_seq", sequenceName = "app_seq", allocationSize = 50)
     private Long id;
     @Column(name = "nm_app", length = 50)
     private String nome;
     @Column(name = "versao_app", length = 50)
     private String versao;
 
+    @Version
+    @Column(name = "revisao_app")
+    @JsonIgnore
+    private long revisao;
+
+    // preenchido no DELETE; as linhas somem depois, no expurgo em segundo plano
+    @Column(name = "excluido_em_app")
+    @JsonIgnore
+    private Instant excluidoEm;
+
     @OneToMany(mappedBy = "app", cascade = CascadeType.ALL)
+    @JsonIgnore
     private List<Cliente> clientes;
 
     @OneToMany(mappedBy = "app", cascade = CascadeType.ALL)
+    @JsonIgnore
     private List<Curiosidade> curiosidades;
 
     @OneToMany(mappedBy = "app", cascade = CascadeType.ALL)
+    @JsonIgnore
     private List<Cadastro> cadastros;
 
     @OneToMany(mappedBy = "app", cascade = CascadeType.ALL)
+    @JsonIgnore
     private List<Video> videos;
 
     public Long getId() {
@@ -37,6 +58,22 @@ public class App {
         this.id = id;
     }
 
+    public long getRevisao() {
+        return revisao;
+    }
+
+    public void setRevisao(long revisao) {
+        this.revisao = revisao;
+    }
+
+    public Instant getExcluidoEm() {
+        return excluidoEm;
+    }
+
+    public void setExcluidoEm(Instant excluidoEm) {
+        this.excluidoEm = excluidoEm;
+    }
+
     public String getNome() {
         return nome;
     }
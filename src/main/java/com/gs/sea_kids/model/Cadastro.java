@@ -1,5 +1,6 @@
 package com.gs.sea_kids.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Pattern;
@@ -11,7 +12,8 @@ public class Cadastro {
 
     @Column(name = "id_cd")
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cadastro_seq")
+    @SequenceGenerator(name = "cadastro_seq", sequenceName = "cadastro_seq", allocationSize = 50)
     private Long id;
     @Column(name = "nome_cd", length = 100)
     private String nome;
@@ -21,15 +23,21 @@ public class Cadastro {
     @Column(name = "senha_cd", length = 100)
     private String senha;
 
-    @ManyToOne
+    @Version
+    @Column(name = "revisao_cd")
+    @JsonIgnore
+    private long revisao;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "app_id_app")
     private App app;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "cliente_cl_id")
     private Cliente cliente;
 
     @OneToMany(mappedBy = "cadastro", cascade = CascadeType.ALL)
+    @JsonIgnore
     private List<Login> logins;
 
     public Long getId() {
@@ -40,6 +48,14 @@ public class Cadastro {
         this.id = id;
     }
 
+    public long getRevisao() {
+        return revisao;
+    }
+
+    public void setRevisao(long revisao) {
+        this.revisao = revisao;
+    }
+
     public String getNome() {
         return nome;
     }
@@ -1,5 +1,6 @@
 package com.gs.sea_kids.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Pattern;
@@ -11,7 +12,8 @@ public class Cliente {
 
     @Column(name = "cl_id")
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cliente_seq")
+    @SequenceGenerator(name = "cliente_seq", sequenceName = "cliente_seq", allocationSize = 50)
     private Long id;
     @Column(name = "nm_cl", length = 100)
     private String nome;
@@ -19,14 +21,21 @@ public class Cliente {
     @Pattern(regexp = "^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+$", message = "Formato de email inválido")
     private String email;
 
-    @ManyToOne
+    @Version
+    @Column(name = "revisao_cl")
+    @JsonIgnore
+    private long revisao;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "app_id_app")
     private App app;
 
     @OneToMany(mappedBy = "cliente", cascade = CascadeType.ALL)
+    @JsonIgnore
     private List<Cadastro> cadastros;
 
     @OneToMany(mappedBy = "cliente", cascade = CascadeType.ALL)
+    @JsonIgnore
     private List<Login> logins;
 
     public Long getId() {
@@ -37,6 +46,14 @@ public class Cliente {
         this.id = id;
     }
 
+    public long getRevisao() {
+        return revisao;
+    }
+
+    public void setRevisao(long revisao) {
+        this.revisao = revisao;
+    }
+
     public String getNome() {
         return nome;
     }
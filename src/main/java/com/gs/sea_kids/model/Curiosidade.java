@@ -1,29 +1,45 @@
 package com.gs.sea_kids.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Pattern;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "curiosidade")
 @Table(name = "curiosidades")
 public class Curiosidade {
 
     @Column(name = "id_cs")
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "curiosidades_seq")
+    @SequenceGenerator(name = "curiosidades_seq", sequenceName = "curiosidades_seq", allocationSize = 50)
     private Long id;
     @Column(name = "titulo_cs", length = 100)
     private String titulo;
-    @Column(name = "imagem_cs")
-    @Lob
+    /**
+     * Base64 aceito só na escrita, por compatibilidade. A imagem fica em
+     * {@link CuriosidadeImagem} e é servida em {@code /curiosidades/{id}/imagem}.
+     */
+    @Transient
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private String imagem;
     @Column(name = "texto_cs")
     @Lob
     private String texto;
 
-    @ManyToOne
+    @Version
+    @Column(name = "revisao_cs")
+    @JsonIgnore
+    private long revisao;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "app_id_app")
     private App app;
 
@@ -35,6 +51,14 @@ public class Curiosidade {
         this.id = id;
     }
 
+    public long getRevisao() {
+        return revisao;
+    }
+
+    public void setRevisao(long revisao) {
+        this.revisao = revisao;
+    }
+
     public String getTitulo() {
         return titulo;
     }
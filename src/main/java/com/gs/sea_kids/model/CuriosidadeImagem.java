@@ -0,0 +1,76 @@
+package com.gs.sea_kids.model;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.sql.Blob;
+
+/**
+ * Imagem de uma {@link Curiosidade}, guardada em BLOB numa tabela própria para
+ * que as listagens não carreguem o conteúdo. Compartilha o id da curiosidade.
+ */
+@Entity
+@Table(name = "curiosidades_imagem")
+public class CuriosidadeImagem implements Persistable<Long> {
+
+    @Column(name = "id_cs")
+    @Id
+    private Long id;
+    @Column(name = "tipo_ci", length = 100, nullable = false)
+    private String tipo;
+    @Column(name = "tamanho_ci", nullable = false)
+    private Long tamanho;
+    @Column(name = "conteudo_ci")
+    @Lob
+    private Blob conteudo;
+
+    @Transient
+    private boolean nova = true;
+
+    protected CuriosidadeImagem() {
+    }
+
+    public CuriosidadeImagem(Long id) {
+        this.id = id;
+    }
+
+    @PostLoad
+    @PostPersist
+    void marcarPersistida() {
+        this.nova = false;
+    }
+
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public boolean isNew() {
+        return nova;
+    }
+
+    public String getTipo() {
+        return tipo;
+    }
+
+    public void setTipo(String tipo) {
+        this.tipo = tipo;
+    }
+
+    public Long getTamanho() {
+        return tamanho;
+    }
+
+    public void setTamanho(Long tamanho) {
+        this.tamanho = tamanho;
+    }
+
+    public Blob getConteudo() {
+        return conteudo;
+    }
+
+    public void setConteudo(Blob conteudo) {
+        this.conteudo = conteudo;
+    }
+}
@@ -1,5 +1,6 @@
 package com.gs.sea_kids.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Pattern;
@@ -7,22 +8,29 @@ import jakarta.validation.constraints.Pattern;
 import java.util.List;
 
 @Entity
+@Table(indexes = @Index(name = "ix_login_email", columnList = "email_lg"))
 public class Login {
 
     @Column(name = "id_lg")
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "login_seq")
+    @SequenceGenerator(name = "login_seq", sequenceName = "login_seq", allocationSize = 50)
     private Long id;
     @Column(name = "email_lg", length = 100)
     private String email;
     @Column(name = "senha_lg", length = 100)
     private String senha;
 
-    @ManyToOne
+    @Version
+    @Column(name = "revisao_lg")
+    @JsonIgnore
+    private long revisao;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "cadastro_id_cd")
     private Cadastro cadastro;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "cliente_cl_id")
     private Cliente cliente;
 
@@ -34,6 +42,14 @@ public class Login {
         this.id = id;
     }
 
+    public long getRevisao() {
+        return revisao;
+    }
+
+    public void setRevisao(long revisao) {
+        this.revisao = revisao;
+    }
+
     public String getEmail() {
         return email;
     }
@@ -0,0 +1,75 @@
+package com.gs.sea_kids.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * Uma linha do log de mudanças de conteúdo, gravada na mesma transação da
+ * alteração. O id é o cursor do {@code GET /changes}; a sequence não usa
+ * blocos (allocationSize = 1) para que a ordem dos ids seja a ordem em que
+ * as gravações pediram o número, mesmo com várias instâncias.
+ */
+@Entity
+@Table(name = "mudancas")
+public class Mudanca {
+
+    public enum Tipo {
+        APP, VIDEO, CURIOSIDADE
+    }
+
+    @Column(name = "id_mud")
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "mudancas_seq")
+    @SequenceGenerator(name = "mudancas_seq", sequenceName = "mudancas_seq", allocationSize = 1)
+    private Long id;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tipo_mud", length = 20, nullable = false)
+    private Tipo tipo;
+    @Column(name = "entidade_mud", nullable = false)
+    private Long entidade;
+    @Column(name = "excluida_mud", nullable = false)
+    private boolean excluida;
+    @Column(name = "gravada_em_mud", nullable = false)
+    private Instant gravadaEm;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+    public void setTipo(Tipo tipo) {
+        this.tipo = tipo;
+    }
+
+    public Long getEntidade() {
+        return entidade;
+    }
+
+    public void setEntidade(Long entidade) {
+        this.entidade = entidade;
+    }
+
+    public boolean isExcluida() {
+        return excluida;
+    }
+
+    public void setExcluida(boolean excluida) {
+        this.excluida = excluida;
+    }
+
+    public Instant getGravadaEm() {
+        return gravadaEm;
+    }
+
+    public void setGravadaEm(Instant gravadaEm) {
+        this.gravadaEm = gravadaEm;
+    }
+}
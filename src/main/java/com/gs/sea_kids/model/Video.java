@@ -1,18 +1,24 @@
 package com.gs.sea_kids.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Pattern;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "video")
 @Table(name = "videos")
 public class Video {
 
     @Column(name = "id_vd")
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "videos_seq")
+    @SequenceGenerator(name = "videos_seq", sequenceName = "videos_seq", allocationSize = 50)
     private Long id;
     @Column(name = "titulo_vd", length = 200)
     private String titulo;
@@ -20,7 +26,12 @@ public class Video {
     @Lob
     private String link;
 
-    @ManyToOne
+    @Version
+    @Column(name = "revisao_vd")
+    @JsonIgnore
+    private long revisao;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "app_id_app")
     private App app;
 
@@ -32,6 +43,14 @@ public class Video {
         this.id = id;
     }
 
+    public long getRevisao() {
+        return revisao;
+    }
+
+    public void setRevisao(long revisao) {
+        this.revisao = revisao;
+    }
+
     public String getTitulo() {
         return titulo;
     }
@@ -0,0 +1,213 @@
+package com.gs.sea_kids.mudancas;
+
+import com.gs.sea_kids.dto.DtoMapper;
+import com.gs.sea_kids.dto.Expand;
+import com.gs.sea_kids.dto.MudancaDto;
+import com.gs.sea_kids.dto.PaginaMudancas;
+import com.gs.sea_kids.model.Mudanca;
+import com.gs.sea_kids.repo.AppRepo;
+import com.gs.sea_kids.repo.CuriosidadeRepo;
+import com.gs.sea_kids.repo.MudancaRepo;
+import com.gs.sea_kids.repo.VideoRepo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Leitura do log de mudanças para o {@code GET /changes}. Uma página traz só
+ * a última mudança de cada item, com o estado atual dele (um select por tipo),
+ * então o tráfego acompanha o que mudou, não o tamanho do catálogo.
+ * <p>
+ * Sem mudanças, a requisição pode esperar (long poll) num {@link DeferredResult},
+ * sem prender thread. Cada commit acorda as esperas numa thread própria, com
+ * uma consulta por cursor distinto: clientes em dia compartilham a mesma.
+ */
+@Component
+public class FeedMudancas implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(FeedMudancas.class);
+
+    @Autowired
+    private MudancaRepo mudancaRepo;
+
+    @Autowired
+    private AppRepo appRepo;
+
+    @Autowired
+    private VideoRepo videoRepo;
+
+    @Autowired
+    private CuriosidadeRepo curiosidadeRepo;
+
+    @Autowired
+    private DtoMapper dtoMapper;
+
+    private final RegistroMudancas registro;
+    private final Set<Espera> esperas = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean acordando = new AtomicBoolean();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "feed-mudancas");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public FeedMudancas(RegistroMudancas registro) {
+        this.registro = registro;
+        registro.aoGravar(this::notificar);
+    }
+
+    /** Cursor da mudança mais recente; é por onde começa um cliente que acabou de baixar tudo. */
+    public long cabeca() {
+        return mudancaRepo.findUltimoAntesDe(registro.horizonte());
+    }
+
+    public PaginaMudancas consultar(long desde, int limite) {
+        List<Mudanca> linhas = mudancaRepo.findEntre(desde, registro.horizonte(), Limit.of(limite + 1));
+        boolean temMais = linhas.size() > limite;
+        if (temMais) {
+            linhas = linhas.subList(0, limite);
+        }
+        if (linhas.isEmpty()) {
+            return PaginaMudancas.vazia(desde);
+        }
+
+        // só a última mudança de cada item, na posição dela
+        Map<Item, Mudanca> ultimas = new LinkedHashMap<>();
+        for (Mudanca mudanca : linhas) {
+            Item item = new Item(mudanca.getTipo(), mudanca.getEntidade());
+            ultimas.remove(item);
+            ultimas.put(item, mudanca);
+        }
+
+        Map<Mudanca.Tipo, Map<Long, Object>> atuais = carregar(ultimas.values());
+        List<MudancaDto> mudancas = new ArrayList<>(ultimas.size());
+        for (Mudanca mudanca : ultimas.values()) {
+            String tipo = mudanca.getTipo().name().toLowerCase();
+            Object dados = mudanca.isExcluida() ? null : atuais.get(mudanca.getTipo()).get(mudanca.getEntidade());
+            // upsert de um item que já não existe: a exclusão vem mais adiante no log
+            mudancas.add(dados == null
+                    ? new MudancaDto(mudanca.getId(), tipo, mudanca.getEntidade(), MudancaDto.EXCLUSAO, null)
+                    : new MudancaDto(mudanca.getId(), tipo, mudanca.getEntidade(), MudancaDto.UPSERT, dados));
+        }
+        return new PaginaMudancas(mudancas, linhas.get(linhas.size() - 1).getId(), temMais);
+    }
+
+    /**
+     * Responde na hora se já houver mudanças depois de {@code desde}; senão a
+     * resposta fica aberta até o próximo commit ou até {@code espera} (página vazia).
+     */
+    public DeferredResult<PaginaMudancas> aguardar(long desde, int limite, Duration espera) {
+        DeferredResult<PaginaMudancas> resultado = new DeferredResult<>(espera.toMillis(), () -> PaginaMudancas.vazia(desde));
+        if (espera.isZero()) {
+            resultado.setResult(consultar(desde, limite));
+            return resultado;
+        }
+
+        // registrada antes da consulta: um commit entre as duas ainda acorda esta espera
+        Espera pendente = new Espera(desde, limite, resultado);
+        esperas.add(pendente);
+        resultado.onCompletion(() -> esperas.remove(pendente));
+        PaginaMudancas pagina = consultar(desde, limite);
+        if (!pagina.mudancas().isEmpty() && esperas.remove(pendente)) {
+            resultado.setResult(pagina);
+        }
+        return resultado;
+    }
+
+    public int esperando() {
+        return esperas.size();
+    }
+
+    private void notificar() {
+        if (!esperas.isEmpty() && acordando.compareAndSet(false, true)) {
+            executor.execute(this::acordar);
+        }
+    }
+
+    private void acordar() {
+        // commits durante esta passada agendam outra
+        acordando.set(false);
+        Map<Cursor, PaginaMudancas> paginas = new HashMap<>();
+        for (Espera espera : esperas) {
+            try {
+                PaginaMudancas pagina = paginas.computeIfAbsent(new Cursor(espera.desde(), espera.limite()),
+                        cursor -> consultar(cursor.desde(), cursor.limite()));
+                if (!pagina.mudancas().isEmpty() && esperas.remove(espera)) {
+                    espera.resultado().setResult(pagina);
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Falha ao consultar o log de mudanças desde {}", espera.desde(), e);
+                if (esperas.remove(espera)) {
+                    espera.resultado().setErrorResult(e);
+                }
+            }
+        }
+    }
+
+    private Map<Mudanca.Tipo, Map<Long, Object>> carregar(Iterable<Mudanca> mudancas) {
+        Map<Mudanca.Tipo, List<Long>> ids = new EnumMap<>(Mudanca.Tipo.class);
+        for (Mudanca.Tipo tipo : Mudanca.Tipo.values()) {
+            ids.put(tipo, new ArrayList<>());
+        }
+        for (Mudanca mudanca : mudancas) {
+            if (!mudanca.isExcluida()) {
+                ids.get(mudanca.getTipo()).add(mudanca.getEntidade());
+            }
+        }
+
+        Map<Mudanca.Tipo, Map<Long, Object>> atuais = new EnumMap<>(Mudanca.Tipo.class);
+        atuais.put(Mudanca.Tipo.APP, porId(ids.get(Mudanca.Tipo.APP), appRepo::findAllById, app -> app.getId(),
+                app -> app.getExcluidoEm() == null ? dtoMapper.toDto(app) : null));
+        atuais.put(Mudanca.Tipo.VIDEO, porId(ids.get(Mudanca.Tipo.VIDEO), videoRepo::findAllById, video -> video.getId(),
+                video -> dtoMapper.toDto(video, Expand.NENHUMA)));
+        atuais.put(Mudanca.Tipo.CURIOSIDADE, porId(ids.get(Mudanca.Tipo.CURIOSIDADE), curiosidadeRepo::findAllById, curiosidade -> curiosidade.getId(),
+                curiosidade -> dtoMapper.toDto(curiosidade, Expand.NENHUMA)));
+        return atuais;
+    }
+
+    private static <T> Map<Long, Object> porId(List<Long> ids, Function<List<Long>, List<T>> buscar,
+                                               Function<T, Long> id, Function<T, Object> dto) {
+        Map<Long, Object> atuais = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (T entidade : buscar.apply(ids)) {
+                Object dados = dto.apply(entidade);
+                if (dados != null) {
+                    atuais.put(id.apply(entidade), dados);
+                }
+            }
+        }
+        return atuais;
+    }
+
+    private record Item(Mudanca.Tipo tipo, Long id) {
+    }
+
+    private record Cursor(long desde, int limite) {
+    }
+
+    private record Espera(long desde, int limite, DeferredResult<PaginaMudancas> resultado) {
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
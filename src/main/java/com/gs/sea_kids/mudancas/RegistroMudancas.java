@@ -0,0 +1,107 @@
+package com.gs.sea_kids.mudancas;
+
+import com.gs.sea_kids.model.Mudanca;
+import com.gs.sea_kids.repo.MudancaRepo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Grava o log de mudanças dentro da transação de quem altera o conteúdo
+ * (propagação MANDATORY: sem transação é erro, não uma linha órfã) e mantém o
+ * horizonte de leitura do feed.
+ * <p>
+ * Ids da sequence são pedidos em ordem, mas as transações podem terminar fora
+ * dela: se o feed entregasse o id 11 enquanto o 10 ainda não foi commitado, o
+ * cliente passaria do 10 para sempre. Por isso cada transação aberta reserva
+ * um piso (maior id já visto + 1) antes de pedir o primeiro id, e o feed só
+ * lê abaixo do menor piso reservado. A reserva é por processo: com várias
+ * instâncias, uma transação longa em outra instância ainda pode ser pulada.
+ */
+@Component
+public class RegistroMudancas {
+
+    @Autowired
+    private MudancaRepo mudancaRepo;
+
+    // piso -> transações abertas com esse piso
+    private final ConcurrentSkipListMap<Long, Integer> pisos = new ConcurrentSkipListMap<>();
+    private final AtomicLong maiorId = new AtomicLong();
+    private final List<Runnable> ouvintes = new CopyOnWriteArrayList<>();
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void upsert(Mudanca.Tipo tipo, Long id) {
+        registrar(tipo, List.of(id), false);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void upserts(Mudanca.Tipo tipo, Collection<Long> ids) {
+        registrar(tipo, ids, false);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void exclusao(Mudanca.Tipo tipo, Long id) {
+        registrar(tipo, List.of(id), true);
+    }
+
+    /** Ids abaixo deste já foram commitados ou desfeitos (neste processo). */
+    public long horizonte() {
+        Map.Entry<Long, Integer> menor = pisos.firstEntry();
+        return menor == null ? Long.MAX_VALUE : menor.getKey();
+    }
+
+    /**
+     * Chamado depois de cada commit que gravou mudanças e de cada rollback que
+     * liberou o menor piso (o horizonte subiu), na thread de quem gravou.
+     */
+    public void aoGravar(Runnable ouvinte) {
+        ouvintes.add(ouvinte);
+    }
+
+    private void registrar(Mudanca.Tipo tipo, Collection<Long> ids, boolean excluida) {
+        reservarPiso();
+        Instant agora = Instant.now();
+        for (Long id : ids) {
+            Mudanca mudanca = new Mudanca();
+            mudanca.setTipo(tipo);
+            mudanca.setEntidade(id);
+            mudanca.setExcluida(excluida);
+            mudanca.setGravadaEm(agora);
+            long gravado = mudancaRepo.save(mudanca).getId();
+            maiorId.accumulateAndGet(gravado, Math::max);
+        }
+    }
+
+    private void reservarPiso() {
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        // reservado antes do nextval: o id que vier será maior que o piso
+        long piso = maiorId.get() + 1;
+        pisos.merge(piso, 1, Integer::sum);
+        TransactionSynchronizationManager.bindResource(this, piso);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(RegistroMudancas.this);
+                long antes = horizonte();
+                pisos.computeIfPresent(piso, (chave, transacoes) -> transacoes == 1 ? null : transacoes - 1);
+                // mesmo no rollback: com o horizonte mais alto, mudanças já commitadas atrás deste piso ficam visíveis
+                if (status == STATUS_COMMITTED || horizonte() != antes) {
+                    ouvintes.forEach(Runnable::run);
+                }
+            }
+        });
+    }
+}
@@ -1,7 +1,41 @@
 package com.gs.sea_kids.repo;
 
 import com.gs.sea_kids.model.App;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface AppRepo extends JpaRepository<App, Long>{
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Slice<App> findAllByExcluidoEmIsNull(Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<App> findByIdGreaterThanAndExcluidoEmIsNullOrderByIdAsc(Long id, Limit limit);
+
+    long countByExcluidoEmIsNull();
+
+    boolean existsByIdAndExcluidoEmIsNotNull(Long id);
+
+    @Query("select e.revisao from App e where e.id = :id and e.excluidoEm is null")
+    Optional<Long> findRevisaoById(@Param("id") Long id);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    Stream<App> streamAllByExcluidoEmIsNullOrderByIdAsc();
+
+    @Query("select e.id from App e where e.excluidoEm is not null order by e.excluidoEm")
+    List<Long> findIdsExcluidos();
 }
@@ -0,0 +1,123 @@
+package com.gs.sea_kids.repo;
+
+import com.gs.sea_kids.exception.BatchValidationException;
+import com.gs.sea_kids.exception.PreconditionFailedException;
+import com.gs.sea_kids.exception.ResourceNotFoundException;
+import com.gs.sea_kids.web.ETags;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaDelete;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * PATCH e DELETE por id num único comando, sem carregar a entidade antes: o
+ * UPDATE grava só as colunas enviadas (trocar o título não regrava o texto da
+ * curiosidade) e incrementa a revisão, opcionalmente condicionado à revisão
+ * do If-Match. Nenhuma linha afetada vira 404 ou 412 em {@link #exigirLinha}.
+ */
+@Component
+public class AtualizacaoParcial {
+
+    private static final String REVISAO = "revisao";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private Validator validator;
+
+    /**
+     * Confere o corpo do PATCH contra os campos que o recurso permite alterar e
+     * as anotações de validação da entidade; os erros voltam juntos (400).
+     */
+    public Map<String, Object> validar(Class<?> entidade, Map<String, Object> campos, Set<String> permitidos) {
+        Map<String, String> erros = new LinkedHashMap<>();
+        if (campos == null || campos.isEmpty()) {
+            erros.put("error", "Nenhum campo para alterar");
+        } else {
+            campos.forEach((campo, valor) -> {
+                if (!permitidos.contains(campo)) {
+                    erros.put(campo, "Campo não pode ser alterado; permitidos: " + permitidos);
+                } else if (valor != null && !(valor instanceof String)) {
+                    erros.put(campo, "Deve ser um texto");
+                } else {
+                    for (ConstraintViolation<?> violacao : validator.validateValue(entidade, campo, valor)) {
+                        erros.put(campo, violacao.getMessage());
+                    }
+                }
+            });
+        }
+        if (!erros.isEmpty()) {
+            throw new BatchValidationException(erros);
+        }
+        return new LinkedHashMap<>(campos);
+    }
+
+    /**
+     * {@code update ... set <campos>, revisao = revisao + 1 where id = ? [and revisao = ?]}.
+     * Os atributos em {@code semValor} precisam estar nulos (ex.: o app ainda não excluído).
+     */
+    @Transactional
+    public int atualizar(Class<?> entidade, Long id, Long revisao, Map<String, ?> campos, String... semValor) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Object> update = cb.createCriteriaUpdate(tipo(entidade));
+        Root<Object> root = update.from(tipo(entidade));
+        campos.forEach(update::set);
+        update.set(root.<Long>get(REVISAO), cb.sum(root.<Long>get(REVISAO), 1L));
+
+        List<Predicate> condicoes = new ArrayList<>();
+        condicoes.add(cb.equal(root.get("id"), id));
+        if (revisao != null) {
+            condicoes.add(cb.equal(root.get(REVISAO), revisao));
+        }
+        for (String atributo : semValor) {
+            condicoes.add(cb.isNull(root.get(atributo)));
+        }
+        update.where(condicoes.toArray(Predicate[]::new));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    @Transactional
+    public int excluir(Class<?> entidade, Long id) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaDelete<Object> delete = cb.createCriteriaDelete(tipo(entidade));
+        Root<Object> root = delete.from(tipo(entidade));
+        delete.where(cb.equal(root.get("id"), id));
+        return entityManager.createQuery(delete).executeUpdate();
+    }
+
+    /**
+     * Sem linha afetada, uma leitura da revisão decide entre 404 (o id não
+     * existe) e 412 (existe, mas com outra revisão). Só o caminho de erro paga
+     * esse SELECT.
+     */
+    public static void exigirLinha(int linhas, Long id, Supplier<Optional<Long>> revisaoAtual, String naoEncontrado) {
+        if (linhas > 0) {
+            return;
+        }
+        Long atual = revisaoAtual.get()
+                .orElseThrow(() -> new ResourceNotFoundException(naoEncontrado + id));
+        throw new PreconditionFailedException("O recurso foi alterado; ETag atual: " + ETags.of(id, atual));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Class<Object> tipo(Class<?> entidade) {
+        return (Class<Object>) entidade;
+    }
+}
@@ -1,7 +1,83 @@
 package com.gs.sea_kids.repo;
 
 import com.gs.sea_kids.model.Cadastro;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface CadastroRepo extends JpaRepository<Cadastro, Long>{
+
+    @EntityGraph(attributePaths = {"app", "cliente"})
+    Slice<Cadastro> findAllBy(Pageable pageable);
+
+    @Override
+    @EntityGraph(attributePaths = {"app", "cliente"})
+    Optional<Cadastro> findById(Long id);
+
+    @EntityGraph(attributePaths = {"app", "cliente"})
+    List<Cadastro> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @Query("select e.revisao from Cadastro e where e.id = :id")
+    Optional<Long> findRevisaoById(@Param("id") Long id);
+
+    boolean existsByEmailIgnoreCase(String email);
+
+    @Query("select e.id from Cadastro e where e.app.id = :app"
+            + " or e.cliente.id in (select c.id from Cliente c where c.app.id = :app)")
+    List<Long> findIdsDoApp(@Param("app") Long app, Limit limit);
+
+    @Query("select e.email from Cadastro e where e.id in :ids and e.email is not null")
+    List<String> findEmails(@Param("ids") List<Long> ids);
+
+    @Query("select e.email from Cadastro e where e.id = :id")
+    Optional<String> findEmailById(@Param("id") Long id);
+
+    @Modifying
+    @Query("delete from Login l where l.cadastro.id = :cadastro")
+    int excluirLogins(@Param("cadastro") Long cadastro);
+
+    @Modifying
+    @Query("delete from Cadastro e where e.id = :id")
+    int excluirPorId(@Param("id") Long id);
+
+    /**
+     * Exclui o cadastro e os logins dele em dois comandos, sem carregar o grafo.
+     * Devolve o email do cadastro excluído; vazio se ele não existia.
+     */
+    @Transactional
+    default Optional<Exclusao> excluirComLogins(Long id) {
+        String email = findEmailById(id).orElse(null);
+        excluirLogins(id);
+        return excluirPorId(id) == 0 ? Optional.empty() : Optional.of(new Exclusao(email));
+    }
+
+    record Exclusao(String email) {
+    }
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("select e.email from Cadastro e where e.email is not null")
+    Stream<String> streamEmails();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @EntityGraph(attributePaths = {"app", "cliente"})
+    Stream<Cadastro> streamAllByOrderByIdAsc();
 }
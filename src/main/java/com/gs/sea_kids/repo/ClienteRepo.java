@@ -1,7 +1,92 @@
 package com.gs.sea_kids.repo;
 
 import com.gs.sea_kids.model.Cliente;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ClienteRepo extends JpaRepository<Cliente, Long>{
+
+    @EntityGraph(attributePaths = "app")
+    Slice<Cliente> findAllBy(Pageable pageable);
+
+    @Override
+    @EntityGraph(attributePaths = "app")
+    Optional<Cliente> findById(Long id);
+
+    @EntityGraph(attributePaths = "app")
+    List<Cliente> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @Query("select e.revisao from Cliente e where e.id = :id")
+    Optional<Long> findRevisaoById(@Param("id") Long id);
+
+    boolean existsByEmailIgnoreCase(String email);
+
+    @Query("select e.id from Cliente e where e.app.id = :app")
+    List<Long> findIdsDoApp(@Param("app") Long app, Limit limit);
+
+    @Query("select e.email from Cliente e where e.id in :ids and e.email is not null")
+    List<String> findEmails(@Param("ids") List<Long> ids);
+
+    @Query("select e.email from Cliente e where e.id = :id")
+    Optional<String> findEmailById(@Param("id") Long id);
+
+    @Query("select d.email from Cadastro d where d.cliente.id = :cliente and d.email is not null")
+    List<String> findEmailsDosCadastros(@Param("cliente") Long cliente);
+
+    @Modifying
+    @Query("delete from Login l where l.cliente.id = :cliente"
+            + " or l.cadastro.id in (select d.id from Cadastro d where d.cliente.id = :cliente)")
+    int excluirLogins(@Param("cliente") Long cliente);
+
+    @Modifying
+    @Query("delete from Cadastro d where d.cliente.id = :cliente")
+    int excluirCadastros(@Param("cliente") Long cliente);
+
+    @Modifying
+    @Query("delete from Cliente e where e.id = :id")
+    int excluirPorId(@Param("id") Long id);
+
+    /**
+     * O que o cascade de {@code Cliente} fazia carregando cadastros e logins um a um,
+     * em comandos em massa na ordem das chaves. Vazio se o cliente não existia.
+     */
+    @Transactional
+    default Optional<Exclusao> excluirComDependentes(Long id) {
+        String email = findEmailById(id).orElse(null);
+        List<String> emailsCadastros = findEmailsDosCadastros(id);
+        excluirLogins(id);
+        excluirCadastros(id);
+        return excluirPorId(id) == 0 ? Optional.empty() : Optional.of(new Exclusao(email, emailsCadastros));
+    }
+
+    record Exclusao(String email, List<String> emailsCadastros) {
+    }
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("select e.email from Cliente e where e.email is not null")
+    Stream<String> streamEmails();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @EntityGraph(attributePaths = "app")
+    Stream<Cliente> streamAllByOrderByIdAsc();
 }
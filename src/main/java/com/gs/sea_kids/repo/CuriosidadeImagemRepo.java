@@ -0,0 +1,7 @@
+package com.gs.sea_kids.repo;
+
+import com.gs.sea_kids.model.CuriosidadeImagem;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface CuriosidadeImagemRepo extends JpaRepository<CuriosidadeImagem, Long> {
+}
@@ -1,7 +1,60 @@
 package com.gs.sea_kids.repo;
 
+import com.gs.sea_kids.dto.CuriosidadeResumo;
 import com.gs.sea_kids.model.Curiosidade;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface CuriosidadeRepo extends JpaRepository<Curiosidade, Long>{
+
+    @EntityGraph(attributePaths = "app")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Slice<Curiosidade> findAllBy(Pageable pageable);
+
+    @Override
+    @EntityGraph(attributePaths = "app")
+    Optional<Curiosidade> findById(Long id);
+
+    @EntityGraph(attributePaths = "app")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Curiosidade> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @Query("select new com.gs.sea_kids.dto.CuriosidadeResumo(c.id, c.titulo, trecho(c.texto, 200), c.revisao) from Curiosidade c order by c.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Slice<CuriosidadeResumo> findResumos(Pageable pageable);
+
+    @Query("select new com.gs.sea_kids.dto.CuriosidadeResumo(c.id, c.titulo, trecho(c.texto, 200), c.revisao) from Curiosidade c where c.id > :after order by c.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<CuriosidadeResumo> findResumosAfter(@Param("after") Long after, Limit limit);
+
+    @Query("select e.revisao from Curiosidade e where e.id = :id")
+    Optional<Long> findRevisaoById(@Param("id") Long id);
+
+    @Query("select e.titulo from Curiosidade e where e.id = :id")
+    Optional<String> findTituloById(@Param("id") Long id);
+
+    @Query("select e.texto from Curiosidade e where e.id = :id")
+    Optional<String> findTextoById(@Param("id") Long id);
+
+    @Query("select e.id from Curiosidade e where e.app.id = :app")
+    List<Long> findIdsDoApp(@Param("app") Long app, Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @EntityGraph(attributePaths = "app")
+    Stream<Curiosidade> streamAllByOrderByIdAsc();
 }
@@ -1,7 +1,59 @@
 package com.gs.sea_kids.repo;
 
 import com.gs.sea_kids.model.Login;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface LoginRepo extends JpaRepository<Login, Long>{
+
+    @EntityGraph(attributePaths = {"cadastro", "cliente"})
+    Slice<Login> findAllBy(Pageable pageable);
+
+    @Override
+    @EntityGraph(attributePaths = {"cadastro", "cliente"})
+    Optional<Login> findById(Long id);
+
+    @EntityGraph(attributePaths = {"cadastro", "cliente"})
+    List<Login> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @Query("select e.revisao from Login e where e.id = :id")
+    Optional<Long> findRevisaoById(@Param("id") Long id);
+
+    Optional<Login> findFirstByEmailOrderByIdAsc(String email);
+
+    boolean existsByIdAndCadastroId(Long id, Long cadastroId);
+
+    @Query("select e.id from Login e where e.cliente.id in (select c.id from Cliente c where c.app.id = :app)"
+            + " or e.cadastro.id in (select d.id from Cadastro d where d.app.id = :app"
+            + " or d.cliente.id in (select c.id from Cliente c where c.app.id = :app))")
+    List<Long> findIdsDoApp(@Param("app") Long app, Limit limit);
+
+    /**
+     * Troca o hash só se a senha ainda for a lida na autenticação; um PUT concorrente prevalece.
+     */
+    @Transactional
+    @Modifying
+    @Query("update Login e set e.senha = :novaSenha, e.revisao = e.revisao + 1 where e.id = :id and e.senha = :senhaAtual")
+    int atualizarSenha(@Param("id") Long id, @Param("senhaAtual") String senhaAtual, @Param("novaSenha") String novaSenha);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @EntityGraph(attributePaths = {"cadastro", "cliente"})
+    Stream<Login> streamAllByOrderByIdAsc();
 }
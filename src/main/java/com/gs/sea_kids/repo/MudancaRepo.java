@@ -0,0 +1,18 @@
+package com.gs.sea_kids.repo;
+
+import com.gs.sea_kids.model.Mudanca;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface MudancaRepo extends JpaRepository<Mudanca, Long> {
+
+    @Query("select m from Mudanca m where m.id > :desde and m.id < :horizonte order by m.id")
+    List<Mudanca> findEntre(@Param("desde") Long desde, @Param("horizonte") Long horizonte, Limit limit);
+
+    @Query("select coalesce(max(m.id), 0) from Mudanca m where m.id < :horizonte")
+    long findUltimoAntesDe(@Param("horizonte") Long horizonte);
+}
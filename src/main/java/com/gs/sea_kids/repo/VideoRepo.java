@@ -1,7 +1,54 @@
 package com.gs.sea_kids.repo;
 
+import com.gs.sea_kids.dto.VideoResumo;
 import com.gs.sea_kids.model.Video;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface VideoRepo extends JpaRepository<Video, Long>{
+
+    @EntityGraph(attributePaths = "app")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Slice<Video> findAllBy(Pageable pageable);
+
+    @Override
+    @EntityGraph(attributePaths = "app")
+    Optional<Video> findById(Long id);
+
+    @EntityGraph(attributePaths = "app")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Video> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @Query("select new com.gs.sea_kids.dto.VideoResumo(v.id, v.titulo, v.revisao) from Video v order by v.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Slice<VideoResumo> findResumos(Pageable pageable);
+
+    @Query("select new com.gs.sea_kids.dto.VideoResumo(v.id, v.titulo, v.revisao) from Video v where v.id > :after order by v.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<VideoResumo> findResumosAfter(@Param("after") Long after, Limit limit);
+
+    @Query("select e.revisao from Video e where e.id = :id")
+    Optional<Long> findRevisaoById(@Param("id") Long id);
+
+    @Query("select e.id from Video e where e.app.id = :app")
+    List<Long> findIdsDoApp(@Param("app") Long app, Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @EntityGraph(attributePaths = "app")
+    Stream<Video> streamAllByOrderByIdAsc();
 }
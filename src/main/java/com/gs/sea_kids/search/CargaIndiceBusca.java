@@ -0,0 +1,46 @@
+package com.gs.sea_kids.search;
+
+import com.gs.sea_kids.model.Curiosidade;
+import com.gs.sea_kids.model.Video;
+import com.gs.sea_kids.repo.CuriosidadeRepo;
+import com.gs.sea_kids.repo.VideoRepo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.stream.Stream;
+
+/**
+ * Monta o índice de busca por stream de vídeos e curiosidades depois que a aplicação sobe.
+ */
+@Component
+public class CargaIndiceBusca {
+
+    private static final Logger logger = LoggerFactory.getLogger(CargaIndiceBusca.class);
+
+    @Autowired
+    private VideoRepo videoRepo;
+
+    @Autowired
+    private CuriosidadeRepo curiosidadeRepo;
+
+    @Autowired
+    private IndiceBusca indiceBusca;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void carregar() {
+        long inicio = System.nanoTime();
+        try (Stream<Video> videos = videoRepo.streamAllByOrderByIdAsc()) {
+            videos.forEach(indiceBusca::indexar);
+        }
+        try (Stream<Curiosidade> curiosidades = curiosidadeRepo.streamAllByOrderByIdAsc()) {
+            curiosidades.forEach(indiceBusca::indexar);
+        }
+        logger.info("Índice de busca carregado em {} ms com {} documentos", (System.nanoTime() - inicio) / 1_000_000, indiceBusca.documentos());
+    }
+}
@@ -0,0 +1,288 @@
+package com.gs.sea_kids.search;
+
+import com.gs.sea_kids.dto.ResultadoBusca;
+import com.gs.sea_kids.model.Curiosidade;
+import com.gs.sea_kids.model.Video;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido em memória sobre o título e o texto das curiosidades e o
+ * título dos vídeos, com ranking BM25 (termos do título pesam
+ * {@value #PESO_TITULO}x). Buscas usam o lock de leitura; os caminhos de
+ * escrita dos controllers atualizam o índice documento a documento, e só
+ * depois do commit: uma transação desfeita não deixa rastro no índice.
+ */
+@Component
+public class IndiceBusca {
+
+    public static final String VIDEO = "video";
+    public static final String CURIOSIDADE = "curiosidade";
+
+    private static final int PESO_TITULO = 3;
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Integer> termos = new HashMap<>();
+    private PostingList[] postings = new PostingList[1024];
+
+    // Documentos por número interno; os números liberados por remoções são reaproveitados
+    private final Map<String, Map<Long, Integer>> numeros = Map.of(VIDEO, new HashMap<>(), CURIOSIDADE, new HashMap<>());
+    private String[] tipos = new String[1024];
+    private long[] ids = new long[1024];
+    private String[] titulos = new String[1024];
+    private int[][] termosDoDocumento = new int[1024][];
+    private int[] comprimentos = new int[1024];
+    private int[] livres = new int[16];
+    private int totalLivres;
+    private int proximoNumero;
+    private int documentos;
+    private long somaComprimentos;
+
+    public void indexar(Video video) {
+        indexar(VIDEO, video.getId(), video.getTitulo(), null);
+    }
+
+    public void indexar(Curiosidade curiosidade) {
+        indexar(CURIOSIDADE, curiosidade.getId(), curiosidade.getTitulo(), curiosidade.getTexto());
+    }
+
+    public void indexar(String tipo, long id, String titulo, String texto) {
+        depoisDoCommit(() -> gravar(tipo, id, titulo, texto));
+    }
+
+    public void remover(String tipo, long id) {
+        depoisDoCommit(() -> retirar(tipo, id));
+    }
+
+    private static void depoisDoCommit(Runnable alteracao) {
+        // transação só de leitura (a carga inicial) não tem o que desfazer
+        if (TransactionSynchronizationManager.isSynchronizationActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    alteracao.run();
+                }
+            });
+        } else {
+            alteracao.run();
+        }
+    }
+
+    private void gravar(String tipo, long id, String titulo, String texto) {
+        // Normalização fora do lock; só a atualização das listas é exclusiva
+        List<String> termosTitulo = Normalizacao.termos(titulo);
+        List<String> termosTexto = Normalizacao.termos(texto);
+        Map<String, Integer> pesos = new LinkedHashMap<>();
+        termosTitulo.forEach(termo -> pesos.merge(termo, PESO_TITULO, Integer::sum));
+        termosTexto.forEach(termo -> pesos.merge(termo, 1, Integer::sum));
+        int comprimento = termosTitulo.size() + termosTexto.size();
+
+        lock.writeLock().lock();
+        try {
+            Integer anterior = numeros.get(tipo).remove(id);
+            if (anterior != null) {
+                liberar(anterior);
+            }
+            int numero = alocar();
+            numeros.get(tipo).put(id, numero);
+            tipos[numero] = tipo;
+            ids[numero] = id;
+            titulos[numero] = titulo;
+            comprimentos[numero] = comprimento;
+            somaComprimentos += comprimento;
+            documentos++;
+
+            int[] termosDoc = new int[pesos.size()];
+            int i = 0;
+            for (Map.Entry<String, Integer> entrada : pesos.entrySet()) {
+                int termo = termo(entrada.getKey());
+                postings[termo].adicionar(numero, entrada.getValue());
+                termosDoc[i++] = termo;
+            }
+            termosDoDocumento[numero] = termosDoc;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void retirar(String tipo, long id) {
+        lock.writeLock().lock();
+        try {
+            Integer numero = numeros.get(tipo).remove(id);
+            if (numero != null) {
+                liberar(numero);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<ResultadoBusca> buscar(String consulta, int limite) {
+        List<String> termosConsulta = new ArrayList<>(new LinkedHashSet<>(Normalizacao.termos(consulta)));
+        if (termosConsulta.isEmpty() || limite <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            if (documentos == 0) {
+                return List.of();
+            }
+            float comprimentoMedio = (float) somaComprimentos / documentos;
+            float[] scores = new float[proximoNumero];
+            int[] tocados = new int[16];
+            int totalTocados = 0;
+
+            for (String termoConsulta : termosConsulta) {
+                Integer termo = termos.get(termoConsulta);
+                if (termo == null || postings[termo].tamanho == 0) {
+                    continue;
+                }
+                PostingList lista = postings[termo];
+                float idf = (float) Math.log(1 + (documentos - lista.tamanho + 0.5) / (lista.tamanho + 0.5));
+                for (int i = 0; i < lista.tamanho; i++) {
+                    int numero = lista.documentos[i];
+                    int peso = lista.pesos[i];
+                    float normalizacao = K1 * (1 - B + B * comprimentos[numero] / comprimentoMedio);
+                    if (scores[numero] == 0) {
+                        if (totalTocados == tocados.length) {
+                            tocados = Arrays.copyOf(tocados, totalTocados * 2);
+                        }
+                        tocados[totalTocados++] = numero;
+                    }
+                    scores[numero] += idf * peso * (K1 + 1) / (peso + normalizacao);
+                }
+            }
+
+            // Top-k num heap mínimo de longs: score (positivo) nos 32 bits altos e número do documento nos baixos
+            int k = Math.min(limite, totalTocados);
+            long[] heap = new long[k];
+            int tamanhoHeap = 0;
+            for (int i = 0; i < totalTocados; i++) {
+                long chave = ((long) Float.floatToIntBits(scores[tocados[i]]) << 32) | tocados[i];
+                if (tamanhoHeap < k) {
+                    heap[tamanhoHeap++] = chave;
+                    subir(heap, tamanhoHeap - 1);
+                } else if (chave > heap[0]) {
+                    heap[0] = chave;
+                    descer(heap, tamanhoHeap);
+                }
+            }
+            Arrays.sort(heap, 0, tamanhoHeap);
+
+            List<ResultadoBusca> resultados = new ArrayList<>(tamanhoHeap);
+            for (int i = tamanhoHeap - 1; i >= 0; i--) {
+                int numero = (int) heap[i];
+                resultados.add(new ResultadoBusca(tipos[numero], ids[numero], titulos[numero], scores[numero]));
+            }
+            return resultados;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int documentos() {
+        lock.readLock().lock();
+        try {
+            return documentos;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void subir(long[] heap, int posicao) {
+        while (posicao > 0) {
+            int pai = (posicao - 1) / 2;
+            if (heap[pai] <= heap[posicao]) {
+                return;
+            }
+            trocar(heap, pai, posicao);
+            posicao = pai;
+        }
+    }
+
+    private static void descer(long[] heap, int tamanho) {
+        int posicao = 0;
+        while (true) {
+            int menor = posicao;
+            int esquerda = 2 * posicao + 1;
+            int direita = esquerda + 1;
+            if (esquerda < tamanho && heap[esquerda] < heap[menor]) {
+                menor = esquerda;
+            }
+            if (direita < tamanho && heap[direita] < heap[menor]) {
+                menor = direita;
+            }
+            if (menor == posicao) {
+                return;
+            }
+            trocar(heap, posicao, menor);
+            posicao = menor;
+        }
+    }
+
+    private static void trocar(long[] heap, int i, int j) {
+        long temporario = heap[i];
+        heap[i] = heap[j];
+        heap[j] = temporario;
+    }
+
+    private int termo(String texto) {
+        Integer existente = termos.get(texto);
+        if (existente != null) {
+            return existente;
+        }
+        int termo = termos.size();
+        if (termo == postings.length) {
+            postings = Arrays.copyOf(postings, termo * 2);
+        }
+        postings[termo] = new PostingList();
+        termos.put(texto, termo);
+        return termo;
+    }
+
+    private int alocar() {
+        if (totalLivres > 0) {
+            return livres[--totalLivres];
+        }
+        int numero = proximoNumero++;
+        if (numero == ids.length) {
+            int capacidade = numero * 2;
+            tipos = Arrays.copyOf(tipos, capacidade);
+            ids = Arrays.copyOf(ids, capacidade);
+            titulos = Arrays.copyOf(titulos, capacidade);
+            termosDoDocumento = Arrays.copyOf(termosDoDocumento, capacidade);
+            comprimentos = Arrays.copyOf(comprimentos, capacidade);
+        }
+        return numero;
+    }
+
+    private void liberar(int numero) {
+        for (int termo : termosDoDocumento[numero]) {
+            postings[termo].remover(numero);
+        }
+        somaComprimentos -= comprimentos[numero];
+        documentos--;
+        tipos[numero] = null;
+        titulos[numero] = null;
+        termosDoDocumento[numero] = null;
+        if (totalLivres == livres.length) {
+            livres = Arrays.copyOf(livres, totalLivres * 2);
+        }
+        livres[totalLivres++] = numero;
+    }
+}
@@ -0,0 +1,78 @@
+package com.gs.sea_kids.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Quebra textos em termos para o índice: sem acentos, em minúsculas, sem
+ * palavras vazias e com um radical simples de plural ("tubarões" e "tubarão"
+ * viram "tubarao"; "baleias", "baleia").
+ */
+final class Normalizacao {
+
+    private static final Set<String> PALAVRAS_VAZIAS = Set.of(
+            "a", "o", "as", "os", "um", "uma", "uns", "umas", "de", "do", "da", "dos", "das",
+            "em", "no", "na", "nos", "nas", "ao", "aos", "e", "ou", "que", "com", "por", "para",
+            "pra", "se", "mais", "muito", "como", "seu", "sua", "eh", "ja", "tem");
+
+    private Normalizacao() {
+    }
+
+    static List<String> termos(String texto) {
+        List<String> termos = new ArrayList<>();
+        if (texto == null || texto.isEmpty()) {
+            return termos;
+        }
+        String semAcentos = Normalizer.normalize(texto, Normalizer.Form.NFD).toLowerCase(Locale.ROOT);
+
+        StringBuilder termo = new StringBuilder();
+        for (int i = 0; i <= semAcentos.length(); i++) {
+            char c = i < semAcentos.length() ? semAcentos.charAt(i) : ' ';
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                termo.append(c);
+            } else if (!termo.isEmpty()) {
+                adicionar(termos, termo.toString());
+                termo.setLength(0);
+            }
+        }
+        return termos;
+    }
+
+    private static void adicionar(List<String> termos, String termo) {
+        if (termo.length() < 2 || PALAVRAS_VAZIAS.contains(termo)) {
+            return;
+        }
+        termos.add(radical(termo));
+    }
+
+    static String radical(String termo) {
+        if (termo.length() <= 3) {
+            return termo;
+        }
+        if (termo.endsWith("oes")) {
+            return termo.substring(0, termo.length() - 3) + "ao";
+        }
+        if (termo.endsWith("ais")) {
+            return termo.substring(0, termo.length() - 3) + "al";
+        }
+        if (termo.endsWith("eis")) {
+            return termo.substring(0, termo.length() - 3) + "el";
+        }
+        if (termo.endsWith("ns")) {
+            return termo.substring(0, termo.length() - 2) + "m";
+        }
+        if (termo.endsWith("zes")) {
+            return termo.substring(0, termo.length() - 2);
+        }
+        if (termo.endsWith("s")) {
+            return termo.substring(0, termo.length() - 1);
+        }
+        return termo;
+    }
+}
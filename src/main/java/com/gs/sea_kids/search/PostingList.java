@@ -0,0 +1,39 @@
+package com.gs.sea_kids.search;
+
+import java.util.Arrays;
+
+/**
+ * Documentos de um termo, em ordem crescente, com o peso do termo em cada um.
+ * Dois {@code int[]} paralelos em vez de coleções de objetos.
+ */
+final class PostingList {
+
+    int[] documentos = new int[4];
+    int[] pesos = new int[4];
+    int tamanho;
+
+    void adicionar(int documento, int peso) {
+        int posicao = tamanho == 0 || documentos[tamanho - 1] < documento
+                ? tamanho
+                : -(Arrays.binarySearch(documentos, 0, tamanho, documento) + 1);
+        if (tamanho == documentos.length) {
+            documentos = Arrays.copyOf(documentos, tamanho * 2);
+            pesos = Arrays.copyOf(pesos, tamanho * 2);
+        }
+        System.arraycopy(documentos, posicao, documentos, posicao + 1, tamanho - posicao);
+        System.arraycopy(pesos, posicao, pesos, posicao + 1, tamanho - posicao);
+        documentos[posicao] = documento;
+        pesos[posicao] = peso;
+        tamanho++;
+    }
+
+    void remover(int documento) {
+        int posicao = Arrays.binarySearch(documentos, 0, tamanho, documento);
+        if (posicao < 0) {
+            return;
+        }
+        System.arraycopy(documentos, posicao + 1, documentos, posicao, tamanho - posicao - 1);
+        System.arraycopy(pesos, posicao + 1, pesos, posicao, tamanho - posicao - 1);
+        tamanho--;
+    }
+}
@@ -0,0 +1,58 @@
+package com.gs.sea_kids.security;
+
+import com.gs.sea_kids.exception.CredenciaisInvalidasException;
+import com.gs.sea_kids.model.Login;
+import com.gs.sea_kids.repo.LoginRepo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Autenticação por email e senha. A busca pelo email roda na thread da
+ * requisição; a verificação do hash e o eventual rehash, no {@link HashingExecutor}.
+ */
+@Service
+public class Autenticador {
+
+    @Autowired
+    private LoginRepo loginRepo;
+
+    @Autowired
+    private SenhaHasher senhaHasher;
+
+    @Autowired
+    private HashingExecutor hashingExecutor;
+
+    public CompletableFuture<Login> autenticar(String email, String senha) {
+        if (email == null || senha == null) {
+            throw new CredenciaisInvalidasException();
+        }
+        Login login = loginRepo.findFirstByEmailOrderByIdAsc(email).orElse(null);
+        return CompletableFuture.supplyAsync(() -> verificar(login, senha), hashingExecutor);
+    }
+
+    public String hash(String senha) {
+        if (senha == null) {
+            return null;
+        }
+        return CompletableFuture.supplyAsync(() -> senhaHasher.hash(senha), hashingExecutor).join();
+    }
+
+    private Login verificar(Login login, String senha) {
+        String armazenada = login == null ? null : login.getSenha();
+        if (!senhaHasher.confere(senha, armazenada)) {
+            throw new CredenciaisInvalidasException();
+        }
+
+        // Migração preguiçosa: senhas em texto puro ou com custo antigo são regravadas no primeiro login
+        if (senhaHasher.precisaRehash(armazenada)) {
+            String novoHash = senhaHasher.hash(senha);
+            if (loginRepo.atualizarSenha(login.getId(), armazenada, novoHash) > 0) {
+                login.setSenha(novoHash);
+                login.setRevisao(login.getRevisao() + 1);
+            }
+        }
+        return login;
+    }
+}
@@ -0,0 +1,104 @@
+package com.gs.sea_kids.security;
+
+import com.gs.sea_kids.exception.HashingIndisponivelException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pool dedicado aos hashes de senha. Threads e fila são limitadas: numa rajada
+ * de logins o excedente é recusado (503) em vez de ocupar as threads do
+ * servlet que atendem as leituras de conteúdo.
+ */
+@Component
+public class HashingExecutor implements Executor, DisposableBean {
+
+    private final ThreadPoolExecutor pool;
+    private final LongAdder concluidas = new LongAdder();
+    private final LongAdder rejeitadas = new LongAdder();
+    private final LongAdder esperaNanos = new LongAdder();
+    private final LongAdder execucaoNanos = new LongAdder();
+
+    public HashingExecutor(@Value("${seakids.hashing.threads:0}") int threads,
+                           @Value("${seakids.hashing.fila:64}") int fila) {
+        int tamanho = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger contador = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(tamanho, tamanho, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(fila),
+                runnable -> new Thread(runnable, "hashing-" + contador.incrementAndGet()),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public void execute(Runnable tarefa) {
+        long enfileirada = System.nanoTime();
+        try {
+            pool.execute(() -> {
+                long inicio = System.nanoTime();
+                esperaNanos.add(inicio - enfileirada);
+                try {
+                    tarefa.run();
+                } finally {
+                    execucaoNanos.add(System.nanoTime() - inicio);
+                    concluidas.increment();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejeitadas.increment();
+            throw new HashingIndisponivelException();
+        }
+    }
+
+    public Map<String, Long> estatisticas() {
+        long total = concluidas.sum();
+        Map<String, Long> estatisticas = new LinkedHashMap<>();
+        estatisticas.put("threads", (long) pool.getMaximumPoolSize());
+        estatisticas.put("ativas", (long) pool.getActiveCount());
+        estatisticas.put("fila", (long) pool.getQueue().size());
+        estatisticas.put("capacidadeFila", (long) (pool.getQueue().size() + pool.getQueue().remainingCapacity()));
+        estatisticas.put("concluidas", total);
+        estatisticas.put("rejeitadas", rejeitadas.sum());
+        estatisticas.put("esperaMediaMicros", total == 0 ? 0 : esperaNanos.sum() / total / 1_000);
+        estatisticas.put("execucaoMediaMicros", total == 0 ? 0 : execucaoNanos.sum() / total / 1_000);
+        return estatisticas;
+    }
+
+    public int ativas() {
+        return pool.getActiveCount();
+    }
+
+    public int fila() {
+        return pool.getQueue().size();
+    }
+
+    public long concluidas() {
+        return concluidas.sum();
+    }
+
+    public long rejeitadas() {
+        return rejeitadas.sum();
+    }
+
+    public double esperaNanos() {
+        return esperaNanos.sum();
+    }
+
+    public double execucaoNanos() {
+        return execucaoNanos.sum();
+    }
+
+    @Override
+    public void destroy() {
+        pool.shutdown();
+    }
+}
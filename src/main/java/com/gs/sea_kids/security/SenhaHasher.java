@@ -0,0 +1,53 @@
+package com.gs.sea_kids.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Hash de senhas com bcrypt ({@code seakids.hashing.custo}). Senhas antigas,
+ * gravadas em texto puro, ainda são aceitas e sinalizadas para rehash.
+ */
+@Component
+public class SenhaHasher {
+
+    private static final Pattern BCRYPT = Pattern.compile("^\\$2[aby]?\\$(\\d\\d)\\$[./0-9A-Za-z]{53}$");
+
+    private final int custo;
+    private final BCryptPasswordEncoder encoder;
+    private final String hashFicticio;
+
+    public SenhaHasher(@Value("${seakids.hashing.custo:10}") int custo) {
+        this.custo = custo;
+        this.encoder = new BCryptPasswordEncoder(custo);
+        this.hashFicticio = encoder.encode("seakids");
+    }
+
+    public int getCusto() {
+        return custo;
+    }
+
+    public String hash(CharSequence senha) {
+        return encoder.encode(senha);
+    }
+
+    public boolean confere(CharSequence senha, String armazenada) {
+        if (armazenada != null && BCRYPT.matcher(armazenada).matches()) {
+            return encoder.matches(senha, armazenada);
+        }
+        // Email inexistente ou senha legada: paga o mesmo custo de um bcrypt para não revelar qual foi o caso
+        encoder.matches(senha, hashFicticio);
+        return armazenada != null && MessageDigest.isEqual(
+                senha.toString().getBytes(StandardCharsets.UTF_8), armazenada.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public boolean precisaRehash(String armazenada) {
+        Matcher matcher = BCRYPT.matcher(armazenada);
+        return !matcher.matches() || Integer.parseInt(matcher.group(1)) < custo;
+    }
+}
@@ -0,0 +1,10 @@
+package com.gs.sea_kids.security;
+
+/**
+ * Conteúdo de um token de sessão válido. {@code clienteId} é nulo quando o
+ * login não está ligado a um cliente.
+ */
+public record Sessao(long tokenId, long loginId, Long clienteId, long expiraEm) {
+
+    public static final String ATRIBUTO = "seakids.sessao";
+}
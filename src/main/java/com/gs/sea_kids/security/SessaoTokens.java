@@ -0,0 +1,227 @@
+package com.gs.sea_kids.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Emite e verifica tokens de sessão assinados com HMAC-SHA256, sem consultar o
+ * banco. O token é {@code base64url(payload).base64url(assinatura)}, com
+ * payload binário de tamanho fixo: versão, id do token, login, cliente e
+ * expiração (epoch em milissegundos).
+ * <p>
+ * A verificação decodifica em buffers por thread e reaproveita um {@link Mac}
+ * por thread já inicializado com a chave; a única alocação é a {@link Sessao}
+ * devolvida.
+ */
+@Component
+public class SessaoTokens {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessaoTokens.class);
+
+    private static final byte VERSAO = 1;
+    private static final int PAYLOAD_BYTES = 1 + 8 + 8 + 8 + 8;
+    private static final int ASSINATURA_BYTES = 32;
+    private static final int PAYLOAD_CHARS = (PAYLOAD_BYTES * 4 + 2) / 3;
+    private static final int ASSINATURA_CHARS = (ASSINATURA_BYTES * 4 + 2) / 3;
+    private static final int TOKEN_CHARS = PAYLOAD_CHARS + 1 + ASSINATURA_CHARS;
+    private static final byte[] BASE64URL = new byte[128];
+
+    static {
+        Arrays.fill(BASE64URL, (byte) -1);
+        String alfabeto = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        for (int i = 0; i < alfabeto.length(); i++) {
+            BASE64URL[alfabeto.charAt(i)] = (byte) i;
+        }
+    }
+
+    private final SecretKeySpec chave;
+    private final Duration ttl;
+    private final Clock clock;
+    private final SecureRandom random = new SecureRandom();
+    private final ThreadLocal<Buffers> buffers;
+
+    // id do token -> expiração; login -> instante até o qual os tokens dele foram revogados
+    private final Map<Long, Long> tokensRevogados = new ConcurrentHashMap<>();
+    private final Map<Long, Long> loginsRevogados = new ConcurrentHashMap<>();
+
+    @Autowired
+    public SessaoTokens(@Value("${seakids.token.chave:}") String chave,
+                        @Value("${seakids.token.ttl:1h}") Duration ttl) {
+        this(chave.isEmpty() ? chaveAleatoria() : Base64.getDecoder().decode(chave), ttl, Clock.systemUTC());
+        if (chave.isEmpty()) {
+            logger.warn("seakids.token.chave não configurada; tokens gerados com chave aleatória não sobrevivem a um restart");
+        }
+    }
+
+    public SessaoTokens(byte[] chave, Duration ttl, Clock clock) {
+        if (chave.length < 32) {
+            throw new IllegalArgumentException("A chave HMAC precisa de pelo menos 32 bytes");
+        }
+        this.chave = new SecretKeySpec(chave, "HmacSHA256");
+        this.ttl = ttl;
+        this.clock = clock;
+        this.buffers = ThreadLocal.withInitial(() -> new Buffers(this.chave));
+    }
+
+    public Sessao novaSessao(long loginId, Long clienteId) {
+        return new Sessao(random.nextLong(), loginId, clienteId, clock.millis() + ttl.toMillis());
+    }
+
+    public String emitir(Sessao sessao) {
+        byte[] payload = new byte[PAYLOAD_BYTES];
+        payload[0] = VERSAO;
+        escrever(payload, 1, sessao.tokenId());
+        escrever(payload, 9, sessao.loginId());
+        escrever(payload, 17, sessao.clienteId() == null ? 0 : sessao.clienteId());
+        escrever(payload, 25, sessao.expiraEm());
+
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String payloadTexto = encoder.encodeToString(payload);
+        Buffers buffers = this.buffers.get();
+        byte[] assinatura = buffers.mac.doFinal(payloadTexto.getBytes(StandardCharsets.US_ASCII));
+        return payloadTexto + '.' + encoder.encodeToString(assinatura);
+    }
+
+    /**
+     * @return a sessão do token, ou {@code null} se ele estiver malformado,
+     * adulterado, expirado ou revogado
+     */
+    public Sessao verificar(CharSequence token) {
+        if (token == null || token.length() != TOKEN_CHARS || token.charAt(PAYLOAD_CHARS) != '.') {
+            return null;
+        }
+        Buffers buffers = this.buffers.get();
+        for (int i = 0; i < PAYLOAD_CHARS; i++) {
+            buffers.texto[i] = (byte) token.charAt(i);
+        }
+        buffers.mac.update(buffers.texto, 0, PAYLOAD_CHARS);
+        try {
+            buffers.mac.doFinal(buffers.esperada, 0);
+        } catch (ShortBufferException e) {
+            throw new IllegalStateException(e);
+        }
+        if (!decodificar(token, PAYLOAD_CHARS + 1, ASSINATURA_CHARS, buffers.recebida)
+                || !MessageDigest.isEqual(buffers.esperada, buffers.recebida)
+                || !decodificar(token, 0, PAYLOAD_CHARS, buffers.payload)
+                || buffers.payload[0] != VERSAO) {
+            return null;
+        }
+
+        long tokenId = ler(buffers.payload, 1);
+        long loginId = ler(buffers.payload, 9);
+        long clienteId = ler(buffers.payload, 17);
+        long expiraEm = ler(buffers.payload, 25);
+        if (expiraEm <= clock.millis() || revogado(tokenId, loginId, expiraEm)) {
+            return null;
+        }
+        return new Sessao(tokenId, loginId, clienteId == 0 ? null : clienteId, expiraEm);
+    }
+
+    public void revogar(Sessao sessao) {
+        limparRevogacoesVencidas();
+        tokensRevogados.put(sessao.tokenId(), sessao.expiraEm());
+    }
+
+    /**
+     * Revoga todos os tokens já emitidos para o login (senha trocada, login removido).
+     */
+    public void revogarLogin(long loginId) {
+        limparRevogacoesVencidas();
+        loginsRevogados.put(loginId, clock.millis() + ttl.toMillis());
+    }
+
+    private boolean revogado(long tokenId, long loginId, long expiraEm) {
+        if (!tokensRevogados.isEmpty() && tokensRevogados.containsKey(tokenId)) {
+            return true;
+        }
+        if (loginsRevogados.isEmpty()) {
+            return false;
+        }
+        // Tokens emitidos antes da revogação expiram até o instante registrado; os novos expiram depois dele
+        Long revogadoAte = loginsRevogados.get(loginId);
+        return revogadoAte != null && expiraEm <= revogadoAte;
+    }
+
+    private void limparRevogacoesVencidas() {
+        long agora = clock.millis();
+        tokensRevogados.values().removeIf(expiraEm -> expiraEm <= agora);
+        loginsRevogados.values().removeIf(revogadoAte -> revogadoAte <= agora);
+    }
+
+    private static boolean decodificar(CharSequence texto, int inicio, int tamanho, byte[] destino) {
+        int bits = 0;
+        int acumulados = 0;
+        int escritos = 0;
+        for (int i = inicio; i < inicio + tamanho; i++) {
+            char c = texto.charAt(i);
+            int valor = c < 128 ? BASE64URL[c] : -1;
+            if (valor < 0) {
+                return false;
+            }
+            bits = (bits << 6) | valor;
+            acumulados += 6;
+            if (acumulados >= 8) {
+                acumulados -= 8;
+                destino[escritos++] = (byte) (bits >> acumulados);
+            }
+        }
+        // Bits de sobra precisam ser zero: cada token tem uma única representação
+        return escritos == destino.length && (bits & ((1 << acumulados) - 1)) == 0;
+    }
+
+    private static void escrever(byte[] destino, int posicao, long valor) {
+        for (int i = 7; i >= 0; i--) {
+            destino[posicao + i] = (byte) valor;
+            valor >>>= 8;
+        }
+    }
+
+    private static long ler(byte[] origem, int posicao) {
+        long valor = 0;
+        for (int i = 0; i < 8; i++) {
+            valor = (valor << 8) | (origem[posicao + i] & 0xFF);
+        }
+        return valor;
+    }
+
+    private static byte[] chaveAleatoria() {
+        byte[] chave = new byte[32];
+        new SecureRandom().nextBytes(chave);
+        return chave;
+    }
+
+    private static final class Buffers {
+
+        private final Mac mac;
+        private final byte[] texto = new byte[PAYLOAD_CHARS];
+        private final byte[] payload = new byte[PAYLOAD_BYTES];
+        private final byte[] esperada = new byte[ASSINATURA_BYTES];
+        private final byte[] recebida = new byte[ASSINATURA_BYTES];
+
+        private Buffers(SecretKeySpec chave) {
+            try {
+                mac = Mac.getInstance("HmacSHA256");
+                mac.init(chave);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
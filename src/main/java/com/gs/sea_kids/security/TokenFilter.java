@@ -0,0 +1,91 @@
+package com.gs.sea_kids.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Valida o {@code Authorization: Bearer} de cada requisição em memória e
+ * publica a {@link Sessao} como atributo da requisição. Token inválido é
+ * sempre 401; a ausência de token só é 401 nas rotas de
+ * {@code seakids.token.rotas-protegidas}, para os métodos de
+ * {@code seakids.token.metodos-protegidos} (a autenticação nunca é protegida).
+ * Se o token é de quem pode alterar o recurso é verificado pelo controller.
+ */
+@Component
+public class TokenFilter extends OncePerRequestFilter implements Ordered {
+
+    private static final String BEARER = "Bearer ";
+    private static final String AUTENTICACAO = "/logins/authenticate";
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    @Autowired
+    private SessaoTokens sessaoTokens;
+
+    @Value("${seakids.token.rotas-protegidas:}")
+    private List<String> rotasProtegidas;
+
+    @Value("${seakids.token.metodos-protegidos:PUT,PATCH,DELETE}")
+    private Set<String> metodosProtegidos;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authorization != null && authorization.regionMatches(true, 0, BEARER, 0, BEARER.length())) {
+            // já verificada pelo LimiteTaxaFilter quando a rota limita a taxa por login
+            Sessao sessao = request.getAttribute(Sessao.ATRIBUTO) instanceof Sessao verificada
+                    ? verificada
+                    : sessaoTokens.verificar(authorization.substring(BEARER.length()).trim());
+            if (sessao == null) {
+                recusar(response, "Token inválido, expirado ou revogado");
+                return;
+            }
+            request.setAttribute(Sessao.ATRIBUTO, sessao);
+        } else if (metodosProtegidos.contains(request.getMethod())
+                && protegida(request.getRequestURI().substring(request.getContextPath().length()))) {
+            recusar(response, "Autenticação necessária");
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    private boolean protegida(String path) {
+        if (path.equals(AUTENTICACAO)) {
+            return false;
+        }
+        for (String rota : rotasProtegidas) {
+            if (pathMatcher.match(rota, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void recusar(HttpServletResponse response, String mensagem) throws IOException {
+        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+        response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        response.getWriter().write("{\"error\":\"" + mensagem + "\"}");
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 10;
+    }
+}
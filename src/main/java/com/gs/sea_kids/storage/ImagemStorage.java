@@ -0,0 +1,95 @@
+package com.gs.sea_kids.storage;
+
+import com.gs.sea_kids.exception.ImagemInvalidaException;
+import com.gs.sea_kids.model.CuriosidadeImagem;
+import com.gs.sea_kids.repo.CuriosidadeImagemRepo;
+import org.hibernate.engine.jdbc.BlobProxy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLConnection;
+import java.util.Base64;
+
+/**
+ * Grava as imagens das curiosidades em BLOB. O conteúdo é repassado ao driver
+ * como stream, sem ser copiado para um {@code byte[]}.
+ */
+@Component
+public class ImagemStorage {
+
+    @Autowired
+    private CuriosidadeImagemRepo curiosidadeImagemRepo;
+
+    @Value("${seakids.imagem.max-size:5MB}")
+    private DataSize maxSize;
+
+    @Transactional
+    public void gravar(Long id, String tipo, InputStream conteudo, long tamanho) {
+        MediaType mediaType;
+        try {
+            mediaType = tipo == null ? null : MediaType.parseMediaType(tipo);
+        } catch (IllegalArgumentException e) {
+            mediaType = null;
+        }
+        if (mediaType == null || !"image".equals(mediaType.getType()) || mediaType.isWildcardSubtype()) {
+            throw new ImagemInvalidaException(HttpStatus.UNSUPPORTED_MEDIA_TYPE, "O Content-Type precisa ser uma imagem (image/*)");
+        }
+        if (tamanho < 0) {
+            throw new ImagemInvalidaException(HttpStatus.LENGTH_REQUIRED, "Informe o Content-Length da imagem");
+        }
+        if (tamanho > maxSize.toBytes()) {
+            throw new ImagemInvalidaException(HttpStatus.PAYLOAD_TOO_LARGE, "A imagem excede o limite de " + maxSize.toBytes() + " bytes");
+        }
+
+        CuriosidadeImagem imagem = curiosidadeImagemRepo.findById(id).orElseGet(() -> new CuriosidadeImagem(id));
+        imagem.setTipo(mediaType.toString());
+        imagem.setTamanho(tamanho);
+        imagem.setConteudo(BlobProxy.generateProxy(conteudo, tamanho));
+        curiosidadeImagemRepo.save(imagem);
+    }
+
+    /**
+     * Compatibilidade com os clientes que ainda enviam a imagem em base64 no
+     * JSON, com ou sem o prefixo {@code data:image/png;base64,}.
+     */
+    @Transactional
+    public void gravarBase64(Long id, String base64) {
+        String tipo = null;
+        if (base64.startsWith("data:")) {
+            int virgula = base64.indexOf(',');
+            int separador = base64.indexOf(';');
+            if (virgula < 0) {
+                throw new ImagemInvalidaException(HttpStatus.BAD_REQUEST, "Data URI da imagem inválida");
+            }
+            tipo = base64.substring(5, separador > 0 && separador < virgula ? separador : virgula);
+            base64 = base64.substring(virgula + 1);
+        }
+
+        byte[] bytes;
+        try {
+            bytes = Base64.getMimeDecoder().decode(base64);
+        } catch (IllegalArgumentException e) {
+            throw new ImagemInvalidaException(HttpStatus.BAD_REQUEST, "A imagem não está em base64 válido");
+        }
+        if (tipo == null || tipo.isEmpty()) {
+            tipo = adivinharTipo(bytes);
+        }
+        gravar(id, tipo, new ByteArrayInputStream(bytes), bytes.length);
+    }
+
+    private static String adivinharTipo(byte[] bytes) {
+        try {
+            return URLConnection.guessContentTypeFromStream(new ByteArrayInputStream(bytes));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
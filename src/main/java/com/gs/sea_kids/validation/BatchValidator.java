@@ -0,0 +1,51 @@
+package com.gs.sea_kids.validation;
+
+import com.gs.sea_kids.exception.BatchValidationException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Valida todos os elementos de um lote antes de qualquer INSERT e reporta os
+ * erros por posição ({@code [3].email}), no mesmo formato do
+ * {@code GlobalExceptionHandler}.
+ */
+@Component
+public class BatchValidator {
+
+    @Autowired
+    private Validator validator;
+
+    @Value("${seakids.batch.max-size:1000}")
+    private int maxSize;
+
+    public <T> void validate(List<T> items) {
+        Map<String, String> errors = new LinkedHashMap<>();
+        if (items == null || items.isEmpty()) {
+            errors.put("lote", "O lote não pode ser vazio");
+        } else if (items.size() > maxSize) {
+            errors.put("lote", "O lote excede o limite de " + maxSize + " elementos");
+        } else {
+            for (int i = 0; i < items.size(); i++) {
+                T item = items.get(i);
+                if (item == null) {
+                    errors.put("[" + i + "]", "Elemento nulo");
+                    continue;
+                }
+                for (ConstraintViolation<T> violation : validator.validate(item)) {
+                    errors.put("[" + i + "]." + violation.getPropertyPath(), violation.getMessage());
+                }
+            }
+        }
+
+        if (!errors.isEmpty()) {
+            throw new BatchValidationException(errors);
+        }
+    }
+}
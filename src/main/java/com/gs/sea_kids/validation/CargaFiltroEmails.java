@@ -0,0 +1,51 @@
+package com.gs.sea_kids.validation;
+
+import com.gs.sea_kids.repo.CadastroRepo;
+import com.gs.sea_kids.repo.ClienteRepo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Preenche os filtros de email por stream depois que a aplicação sobe; enquanto
+ * isso, as verificações vão direto ao banco.
+ */
+@Component
+public class CargaFiltroEmails {
+
+    private static final Logger logger = LoggerFactory.getLogger(CargaFiltroEmails.class);
+
+    @Autowired
+    private ClienteRepo clienteRepo;
+
+    @Autowired
+    private CadastroRepo cadastroRepo;
+
+    @Autowired
+    private FiltroEmails filtroEmailsCliente;
+
+    @Autowired
+    private FiltroEmails filtroEmailsCadastro;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void carregar() {
+        carregar("clientes", filtroEmailsCliente, clienteRepo::streamEmails);
+        carregar("cadastros", filtroEmailsCadastro, cadastroRepo::streamEmails);
+    }
+
+    private void carregar(String nome, FiltroEmails filtro, Supplier<Stream<String>> emails) {
+        long inicio = System.nanoTime();
+        try (Stream<String> stream = emails.get()) {
+            filtro.carregar(stream);
+        }
+        logger.info("Filtro de emails de {} carregado em {} ms: {}", nome, (System.nanoTime() - inicio) / 1_000_000, filtro.estatisticas());
+    }
+}
@@ -0,0 +1,123 @@
+package com.gs.sea_kids.validation;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom com contadores de 4 bits (16 por {@code long}), o que permite
+ * remover elementos. Atualizações por CAS, sem lock; um contador saturado (15)
+ * nunca é decrementado, então o filtro não produz falsos negativos.
+ */
+public class CountingBloomFilter {
+
+    private static final int CONTADORES_POR_LONG = 16;
+    private static final long SATURADO = 0xF;
+
+    private final AtomicLongArray contadores;
+    private final int tamanho;
+    private final int hashes;
+    private final AtomicLong elementos = new AtomicLong();
+
+    public CountingBloomFilter(long capacidade, double fpp) {
+        long m = (long) Math.ceil(-capacidade * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        this.tamanho = (int) Math.max(CONTADORES_POR_LONG, Math.min(m, Integer.MAX_VALUE - CONTADORES_POR_LONG));
+        this.hashes = Math.max(1, (int) Math.round((double) tamanho / capacidade * Math.log(2)));
+        this.contadores = new AtomicLongArray((tamanho + CONTADORES_POR_LONG - 1) / CONTADORES_POR_LONG);
+    }
+
+    public void add(CharSequence valor) {
+        long h1 = hash(valor);
+        long h2 = misturar(h1) | 1;
+        for (int i = 0; i < hashes; i++) {
+            atualizar(posicao(h1, h2, i), 1);
+        }
+        elementos.incrementAndGet();
+    }
+
+    public void remove(CharSequence valor) {
+        long h1 = hash(valor);
+        long h2 = misturar(h1) | 1;
+        for (int i = 0; i < hashes; i++) {
+            atualizar(posicao(h1, h2, i), -1);
+        }
+        elementos.decrementAndGet();
+    }
+
+    public boolean mightContain(CharSequence valor) {
+        long h1 = hash(valor);
+        long h2 = misturar(h1) | 1;
+        for (int i = 0; i < hashes; i++) {
+            if (contador(posicao(h1, h2, i)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long elementos() {
+        return Math.max(0, elementos.get());
+    }
+
+    public int tamanho() {
+        return tamanho;
+    }
+
+    public int hashes() {
+        return hashes;
+    }
+
+    public long bytes() {
+        return (long) contadores.length() * Long.BYTES;
+    }
+
+    /**
+     * Taxa de falsos positivos esperada para a ocupação atual: (1 - e^(-kn/m))^k.
+     */
+    public double fppEstimada() {
+        return Math.pow(1 - Math.exp(-(double) hashes * elementos() / tamanho), hashes);
+    }
+
+    private int posicao(long h1, long h2, int i) {
+        return (int) Math.floorMod(h1 + i * h2, (long) tamanho);
+    }
+
+    private long contador(int posicao) {
+        return (contadores.get(posicao / CONTADORES_POR_LONG) >>> deslocamento(posicao)) & SATURADO;
+    }
+
+    private void atualizar(int posicao, int delta) {
+        int indice = posicao / CONTADORES_POR_LONG;
+        int deslocamento = deslocamento(posicao);
+        while (true) {
+            long atual = contadores.get(indice);
+            long contador = (atual >>> deslocamento) & SATURADO;
+            if (contador == SATURADO || (delta < 0 && contador == 0)) {
+                return;
+            }
+            long novo = (atual & ~(SATURADO << deslocamento)) | ((contador + delta) << deslocamento);
+            if (contadores.compareAndSet(indice, atual, novo)) {
+                return;
+            }
+        }
+    }
+
+    private static int deslocamento(int posicao) {
+        return (posicao % CONTADORES_POR_LONG) * 4;
+    }
+
+    // FNV-1a de 64 bits seguido do finalizador do SplitMix64
+    private static long hash(CharSequence valor) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < valor.length(); i++) {
+            h ^= valor.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return misturar(h);
+    }
+
+    private static long misturar(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,164 @@
+package com.gs.sea_kids.validation;
+
+import com.gs.sea_kids.exception.BatchValidationException;
+import com.gs.sea_kids.exception.EmailDuplicadoException;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Verificação de "email já cadastrado" de uma entidade. Um {@link CountingBloomFilter}
+ * responde em memória quando o email certamente não existe; o banco só é
+ * consultado quando o filtro diz "talvez". Até a carga inicial terminar, toda
+ * verificação vai ao banco.
+ */
+public class FiltroEmails {
+
+    private final CountingBloomFilter filtro;
+    private final Predicate<String> existeNoBanco;
+    private volatile boolean carregado;
+
+    private final LongAdder consultas = new LongAdder();
+    private final LongAdder respondidasPeloFiltro = new LongAdder();
+    private final LongAdder consultasAoBanco = new LongAdder();
+    private final LongAdder falsosPositivos = new LongAdder();
+
+    public FiltroEmails(long capacidade, double fpp, Predicate<String> existeNoBanco) {
+        this.filtro = new CountingBloomFilter(capacidade, fpp);
+        this.existeNoBanco = existeNoBanco;
+    }
+
+    public void carregar(Stream<String> emails) {
+        emails.forEach(email -> filtro.add(normalizar(email)));
+        carregado = true;
+    }
+
+    public boolean emUso(String email) {
+        String normalizado = normalizar(email);
+        consultas.increment();
+        boolean filtroPronto = carregado;
+        if (filtroPronto && !filtro.mightContain(normalizado)) {
+            respondidasPeloFiltro.increment();
+            return false;
+        }
+
+        consultasAoBanco.increment();
+        boolean existe = existeNoBanco.test(normalizado);
+        if (filtroPronto && !existe) {
+            falsosPositivos.increment();
+        }
+        return existe;
+    }
+
+    public void exigirDisponivel(String email) {
+        if (email != null && emUso(email)) {
+            throw new EmailDuplicadoException(email);
+        }
+    }
+
+    /**
+     * Versão para lotes: acusa, por posição, emails já cadastrados ou repetidos dentro do próprio lote.
+     */
+    public void exigirDisponiveis(List<String> emails) {
+        Map<String, String> errors = new LinkedHashMap<>();
+        Set<String> vistos = new HashSet<>();
+        for (int i = 0; i < emails.size(); i++) {
+            String email = emails.get(i);
+            if (email == null) {
+                continue;
+            }
+            if (!vistos.add(normalizar(email))) {
+                errors.put("[" + i + "].email", "Email repetido no lote");
+            } else if (emUso(email)) {
+                errors.put("[" + i + "].email", "Email já cadastrado");
+            }
+        }
+        if (!errors.isEmpty()) {
+            throw new BatchValidationException(errors);
+        }
+    }
+
+    public void registrar(String email) {
+        if (email != null) {
+            filtro.add(normalizar(email));
+        }
+    }
+
+    /**
+     * Chamado depois que a linha com o email sumiu (exclusão ou troca de email).
+     * O banco não impede emails repetidos, então outra linha pode ter o mesmo:
+     * se o filtro passar a responder "não existe", o banco confirma antes, e o
+     * email volta ao filtro se ainda estiver em uso. Um falso negativo deixaria
+     * passar um email duplicado.
+     */
+    public void remover(String email) {
+        // Antes da carga terminar, remover poderia decrementar um contador que o email nunca incrementou
+        if (email != null && carregado) {
+            String normalizado = normalizar(email);
+            filtro.remove(normalizado);
+            if (!filtro.mightContain(normalizado) && existeNoBanco.test(normalizado)) {
+                filtro.add(normalizado);
+            }
+        }
+    }
+
+    public Map<String, Number> estatisticas() {
+        Map<String, Number> estatisticas = new LinkedHashMap<>();
+        estatisticas.put("elementos", elementos());
+        estatisticas.put("contadores", filtro.tamanho());
+        estatisticas.put("hashes", filtro.hashes());
+        estatisticas.put("memoriaBytes", filtro.bytes());
+        estatisticas.put("fppEstimada", fppEstimada());
+        estatisticas.put("consultas", consultas());
+        estatisticas.put("respondidasPeloFiltro", respondidasPeloFiltro());
+        estatisticas.put("consultasAoBanco", consultasAoBanco());
+        estatisticas.put("falsosPositivos", falsosPositivos());
+        estatisticas.put("fppObservada", fppObservada());
+        return estatisticas;
+    }
+
+    public long elementos() {
+        return filtro.elementos();
+    }
+
+    public double fppEstimada() {
+        return filtro.fppEstimada();
+    }
+
+    /** Falsos positivos sobre as consultas cujo email não existia. */
+    public double fppObservada() {
+        long negativos = respondidasPeloFiltro.sum() + falsosPositivos.sum();
+        return negativos == 0 ? 0.0 : (double) falsosPositivos.sum() / negativos;
+    }
+
+    public long consultas() {
+        return consultas.sum();
+    }
+
+    public long respondidasPeloFiltro() {
+        return respondidasPeloFiltro.sum();
+    }
+
+    public long consultasAoBanco() {
+        return consultasAoBanco.sum();
+    }
+
+    public long falsosPositivos() {
+        return falsosPositivos.sum();
+    }
+
+    public static boolean mesmoEmail(String email, String outro) {
+        return email == null ? outro == null : outro != null && normalizar(email).equals(normalizar(outro));
+    }
+
+    public static String normalizar(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
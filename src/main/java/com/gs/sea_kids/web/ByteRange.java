@@ -0,0 +1,46 @@
+package com.gs.sea_kids.web;
+
+import com.gs.sea_kids.exception.RangeNotSatisfiableException;
+import org.springframework.http.HttpRange;
+
+import java.util.List;
+
+/**
+ * Intervalo de bytes pedido no cabeçalho Range. Só um intervalo é atendido:
+ * cabeçalhos inválidos ou com vários intervalos recebem o conteúdo inteiro,
+ * como a RFC 9110 permite.
+ */
+public record ByteRange(long inicio, long fim, long total, boolean parcial) {
+
+    public static ByteRange of(String range, long total) {
+        if (range != null) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(range);
+            } catch (IllegalArgumentException e) {
+                ranges = List.of();
+            }
+            if (ranges.size() == 1) {
+                try {
+                    long inicio = ranges.get(0).getRangeStart(total);
+                    long fim = ranges.get(0).getRangeEnd(total);
+                    if (inicio <= fim) {
+                        return new ByteRange(inicio, fim, total, true);
+                    }
+                } catch (IllegalArgumentException e) {
+                    // início além do fim do conteúdo
+                }
+                throw new RangeNotSatisfiableException(total);
+            }
+        }
+        return new ByteRange(0, total - 1, total, false);
+    }
+
+    public long tamanho() {
+        return fim - inicio + 1;
+    }
+
+    public String contentRange() {
+        return "bytes " + inicio + "-" + fim + "/" + total;
+    }
+}
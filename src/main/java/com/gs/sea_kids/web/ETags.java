@@ -0,0 +1,136 @@
+package com.gs.sea_kids.web;
+
+import com.gs.sea_kids.exception.PreconditionFailedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * ETags fortes derivados da coluna {@code @Version} ({@code revisao}) das
+ * entidades. Um item vira {@code "id.revisao"}; uma página vira um hash da
+ * sequência de pares id/revisão, de modo que qualquer inclusão, exclusão ou
+ * alteração na página muda o ETag. Representações diferentes do mesmo item
+ * (ex.: {@code ?expand=app}) recebem uma variante: {@code "id.revisao;app"}.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    public static String of(Long id, Long revisao) {
+        return "\"" + id + "." + revisao + "\"";
+    }
+
+    public static String of(Long id, Long revisao, String variante) {
+        if (variante == null || variante.isEmpty()) {
+            return of(id, revisao);
+        }
+        return "\"" + id + "." + revisao + ";" + variante + "\"";
+    }
+
+    public static <T> String ofPage(String page, List<T> items, Function<T, Long> id, Function<T, Long> revisao) {
+        long hash = 0xcbf29ce484222325L;
+        hash = mix(hash, page.hashCode());
+        for (T item : items) {
+            hash = mix(hash, id.apply(item));
+            hash = mix(hash, revisao.apply(item));
+        }
+        return "\"" + Long.toHexString(hash) + "." + items.size() + "\"";
+    }
+
+    /**
+     * Comparação fraca do If-None-Match (RFC 9110, seção 13.1.2): ignora o
+     * prefixo {@code W/} e aceita {@code *}.
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * If-Match usa comparação forte: ETags fracos nunca casam. A variante não
+     * conta, porque o estado do recurso é o mesmo em qualquer representação.
+     */
+    public static void checkIfMatch(String ifMatch, String etag) {
+        if (ifMatch == null) {
+            return;
+        }
+        for (String candidate : ifMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || withoutVariant(tag).equals(etag)) {
+                return;
+            }
+        }
+        throw new PreconditionFailedException("O recurso foi alterado; ETag atual: " + etag);
+    }
+
+    /**
+     * Revisão que o If-Match espera para o item, para gravar com
+     * {@code ... where revisao = ?} sem ler a linha antes. {@code null} sem
+     * If-Match ou com {@code *}; um If-Match que não é deste item nunca casa.
+     */
+    public static Long revisaoEsperada(String ifMatch, Long id) {
+        if (ifMatch == null) {
+            return null;
+        }
+        String prefixo = "\"" + id + ".";
+        for (String candidate : ifMatch.split(",")) {
+            String tag = withoutVariant(candidate.trim());
+            if (tag.equals("*")) {
+                return null;
+            }
+            if (tag.startsWith(prefixo) && tag.endsWith("\"")) {
+                try {
+                    return Long.parseLong(tag.substring(prefixo.length(), tag.length() - 1));
+                } catch (NumberFormatException e) {
+                    // segue para o próximo candidato
+                }
+            }
+        }
+        throw new PreconditionFailedException("O If-Match não corresponde a nenhuma revisão do recurso " + id);
+    }
+
+    /**
+     * 204 de um PATCH: com If-Match a nova revisão é a esperada + 1; sem ele
+     * não há como saber sem reler a linha, então a resposta vai sem ETag.
+     */
+    public static ResponseEntity<Void> noContent(Long id, Long revisaoEsperada) {
+        if (revisaoEsperada == null) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.noContent().eTag(of(id, revisaoEsperada + 1)).build();
+    }
+
+    public static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+    }
+
+    private static String withoutVariant(String tag) {
+        int separador = tag.indexOf(';');
+        return separador < 0 ? tag : tag.substring(0, separador) + "\"";
+    }
+
+    private static long mix(long hash, long value) {
+        for (int i = 0; i < 8; i++) {
+            hash ^= (value >>> (i * 8)) & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,120 @@
+package com.gs.sea_kids.web;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limite de concorrência adaptativo no estilo gradiente: compara a latência
+ * recente com a de longo prazo e encolhe o limite quando ela sobe, crescendo
+ * de novo (+ raiz do limite) enquanto a latência se mantém. Sem locks: o
+ * número em andamento é um {@link AtomicInteger} e o estado do limite é
+ * trocado inteiro por CAS.
+ */
+public class LimiteAdaptativo {
+
+    private static final double PESO_CURTO = 0.1;
+    private static final double PESO_LONGO = 1.0 / 600;
+    private static final double SUAVIZACAO = 0.2;
+
+    private record Estado(double limite, double rttLongo, double rttCurto) {
+    }
+
+    private final int minimo;
+    private final int maximo;
+    private final double tolerancia;
+
+    private final AtomicInteger emAndamento = new AtomicInteger();
+    private final AtomicReference<Estado> estado;
+    private final LongAdder aceitas = new LongAdder();
+    private final LongAdder rejeitadas = new LongAdder();
+
+    public LimiteAdaptativo(int inicial, int minimo, int maximo, double tolerancia) {
+        if (minimo < 1 || maximo < minimo || inicial < minimo || inicial > maximo) {
+            throw new IllegalArgumentException("Limites inválidos: inicial " + inicial + ", mínimo " + minimo + ", máximo " + maximo);
+        }
+        this.minimo = minimo;
+        this.maximo = maximo;
+        this.tolerancia = tolerancia;
+        this.estado = new AtomicReference<>(new Estado(inicial, 0, 0));
+    }
+
+    /** Reserva uma vaga; {@code false} se o limite atual já foi atingido. */
+    public boolean adquirir() {
+        int limite = limite();
+        int atual;
+        do {
+            atual = emAndamento.get();
+            if (atual >= limite) {
+                rejeitadas.increment();
+                return false;
+            }
+        } while (!emAndamento.compareAndSet(atual, atual + 1));
+        aceitas.increment();
+        return true;
+    }
+
+    /** Devolve a vaga e usa a latência da requisição para ajustar o limite. */
+    public void liberar(long rttNanos) {
+        registrar(rttNanos, emAndamento.getAndDecrement());
+    }
+
+    public int limite() {
+        return (int) estado.get().limite();
+    }
+
+    public int emAndamento() {
+        return emAndamento.get();
+    }
+
+    public long aceitas() {
+        return aceitas.sum();
+    }
+
+    public long rejeitadas() {
+        return rejeitadas.sum();
+    }
+
+    void registrar(long rttNanos, int emVoo) {
+        Estado atual;
+        Estado proximo;
+        do {
+            atual = estado.get();
+            proximo = proximo(atual, Math.max(rttNanos, 1), emVoo);
+        } while (!estado.compareAndSet(atual, proximo));
+    }
+
+    private Estado proximo(Estado atual, double rtt, int emVoo) {
+        if (atual.rttLongo() == 0) {
+            return new Estado(atual.limite(), rtt, rtt);
+        }
+        double curto = atual.rttCurto() + (rtt - atual.rttCurto()) * PESO_CURTO;
+        double longo = atual.rttLongo() + (rtt - atual.rttLongo()) * PESO_LONGO;
+        // a latência voltou ao normal depois de uma degradação: a média longa acompanha mais rápido
+        if (longo / curto > 2) {
+            longo *= 0.95;
+        }
+        // pouca carga não diz nada sobre a capacidade: mantém o limite
+        if (emVoo < atual.limite() / 2) {
+            return new Estado(atual.limite(), longo, curto);
+        }
+        double gradiente = Math.max(0.5, Math.min(1.0, tolerancia * longo / curto));
+        double alvo = atual.limite() * gradiente + Math.sqrt(atual.limite());
+        double limite = atual.limite() * (1 - SUAVIZACAO) + alvo * SUAVIZACAO;
+        return new Estado(Math.max(minimo, Math.min(maximo, limite)), longo, curto);
+    }
+
+    public Map<String, Number> estatisticas() {
+        Estado atual = estado.get();
+        Map<String, Number> estatisticas = new LinkedHashMap<>();
+        estatisticas.put("limite", (int) atual.limite());
+        estatisticas.put("emAndamento", emAndamento.get());
+        estatisticas.put("aceitas", aceitas.sum());
+        estatisticas.put("rejeitadas", rejeitadas.sum());
+        estatisticas.put("latenciaRecenteMicros", (long) atual.rttCurto() / 1_000);
+        estatisticas.put("latenciaLongaMicros", (long) atual.rttLongo() / 1_000);
+        return estatisticas;
+    }
+}
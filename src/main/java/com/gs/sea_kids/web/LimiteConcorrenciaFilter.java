@@ -0,0 +1,160 @@
+package com.gs.sea_kids.web;
+
+import com.gs.sea_kids.config.LimiteConcorrenciaProperties;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Um {@link LimiteAdaptativo} por grupo de rotas ({@code seakids.limite.grupos}).
+ * Acima do limite a requisição recebe 503 + {@code Retry-After} na hora, em
+ * vez de esperar por uma thread do Tomcat ou por uma conexão do pool.
+ * Roda antes dos demais filtros para que a recusa custe o mínimo possível.
+ * Em handlers assíncronos ({@code CompletableFuture}, {@code DeferredResult})
+ * a vaga só é liberada, e a latência medida, quando a resposta termina.
+ */
+@Component
+@EnableConfigurationProperties(LimiteConcorrenciaProperties.class)
+public class LimiteConcorrenciaFilter extends OncePerRequestFilter implements Ordered {
+
+    private record Grupo(String nome, List<String> rotas, Set<String> metodos, LimiteAdaptativo limite, String retryAfter) {
+    }
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final List<Grupo> grupos = new ArrayList<>();
+
+    public LimiteConcorrenciaFilter(LimiteConcorrenciaProperties properties) {
+        properties.getGrupos().forEach((nome, grupo) -> grupos.add(new Grupo(
+                nome,
+                List.copyOf(grupo.getRotas()),
+                grupo.getMetodos().stream().map(String::toUpperCase).collect(Collectors.toUnmodifiableSet()),
+                new LimiteAdaptativo(grupo.getLimiteInicial(), grupo.getLimiteMinimo(), grupo.getLimiteMaximo(), grupo.getTolerancia()),
+                String.valueOf(Math.max(1, grupo.getRetryAfter().toSeconds())))));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Grupo grupo = grupo(request.getMethod(), request.getRequestURI().substring(request.getContextPath().length()));
+        if (grupo == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        if (!grupo.limite().adquirir()) {
+            recusar(response, grupo);
+            return;
+        }
+        long inicio = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new Liberacao(grupo.limite(), inicio));
+            } else {
+                grupo.limite().liberar(System.nanoTime() - inicio);
+            }
+        }
+    }
+
+    /** Libera a vaga uma única vez, no fim da requisição assíncrona (completa, erro ou timeout). */
+    private static final class Liberacao implements AsyncListener {
+
+        private final LimiteAdaptativo limite;
+        private final long inicio;
+        private final AtomicBoolean liberada = new AtomicBoolean();
+
+        private Liberacao(LimiteAdaptativo limite, long inicio) {
+            this.limite = limite;
+            this.inicio = inicio;
+        }
+
+        private void liberar() {
+            if (liberada.compareAndSet(false, true)) {
+                limite.liberar(System.nanoTime() - inicio);
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            liberar();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            liberar();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            liberar();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // novo ciclo assíncrono no mesmo request: continua acompanhando
+            event.getAsyncContext().addListener(this);
+        }
+    }
+
+    private Grupo grupo(String metodo, String path) {
+        for (Grupo grupo : grupos) {
+            if (!grupo.metodos().isEmpty() && !grupo.metodos().contains(metodo)) {
+                continue;
+            }
+            for (String rota : grupo.rotas()) {
+                if (pathMatcher.match(rota, path)) {
+                    return grupo;
+                }
+            }
+        }
+        return null;
+    }
+
+    private void recusar(HttpServletResponse response, Grupo grupo) throws IOException {
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.setHeader(HttpHeaders.RETRY_AFTER, grupo.retryAfter());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        response.getWriter().write("{\"error\":\"Servidor sobrecarregado, tente novamente em instantes\"}");
+    }
+
+    public Map<String, Map<String, Number>> estatisticas() {
+        Map<String, Map<String, Number>> estatisticas = new LinkedHashMap<>();
+        for (Grupo grupo : grupos) {
+            estatisticas.put(grupo.nome(), grupo.limite().estatisticas());
+        }
+        return estatisticas;
+    }
+
+    public Map<String, LimiteAdaptativo> limites() {
+        Map<String, LimiteAdaptativo> limites = new LinkedHashMap<>();
+        for (Grupo grupo : grupos) {
+            limites.put(grupo.nome(), grupo.limite());
+        }
+        return limites;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 1;
+    }
+}
@@ -0,0 +1,138 @@
+package com.gs.sea_kids.web;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Balde de fichas por cliente (IP ou token), sem locks e com memória fixa.
+ * Cada balde é um único {@code long} no formato GCRA: o instante em que o
+ * balde volta a ficar cheio. Aceitar uma requisição é um CAS que adianta esse
+ * instante em {@code 1/taxa}; quando ele passa de {@code rajada/taxa} à frente
+ * do relógio, o balde está vazio.
+ * <p>
+ * Um balde cujo instante já passou está cheio, igual a um balde novo, então a
+ * vaga dele pode ser tomada por outro cliente sem varredura de expiração. A
+ * tabela tem tamanho fixo e sondagem curta; se todas as vagas sondadas
+ * estiverem em uso, o cliente divide o balde da vaga de origem (fica mais
+ * restrito, nunca mais permissivo).
+ */
+public class LimiteTaxa {
+
+    private static final int SONDAGEM = 4;
+    private static final long VAZIA = 0;
+
+    private final long intervalo;
+    private final long tolerancia;
+    private final int mascara;
+    private final AtomicLongArray chaves;
+    private final AtomicLongArray cheios;
+    private final LongSupplier relogio;
+
+    private final LongAdder aceitas = new LongAdder();
+    private final LongAdder recusadas = new LongAdder();
+    private final LongAdder compartilhadas = new LongAdder();
+
+    public LimiteTaxa(double taxaPorSegundo, int rajada, int capacidade) {
+        this(taxaPorSegundo, rajada, capacidade, relogioDesde(System.nanoTime()));
+    }
+
+    LimiteTaxa(double taxaPorSegundo, int rajada, int capacidade, LongSupplier relogio) {
+        if (taxaPorSegundo <= 0 || rajada < 1 || capacidade < SONDAGEM) {
+            throw new IllegalArgumentException("Limite de taxa inválido: taxa " + taxaPorSegundo + ", rajada " + rajada + ", capacidade " + capacidade);
+        }
+        int vagas = Integer.highestOneBit(capacidade - 1) << 1;
+        this.intervalo = Math.max(1, (long) (1_000_000_000L / taxaPorSegundo));
+        this.tolerancia = (rajada - 1) * intervalo;
+        this.mascara = vagas - 1;
+        this.chaves = new AtomicLongArray(vagas);
+        this.cheios = new AtomicLongArray(vagas);
+        this.relogio = relogio;
+    }
+
+    /** 0 se o cliente ainda tem ficha; senão, os nanossegundos até a próxima. */
+    public long tentar(String cliente) {
+        long chave = hash(cliente);
+        long agora = relogio.getAsLong();
+        int vaga = vaga(chave, agora);
+        while (true) {
+            long cheio = cheios.get(vaga);
+            long base = cheio - agora > 0 ? cheio : agora;
+            long espera = base - tolerancia - agora;
+            if (espera > 0) {
+                recusadas.increment();
+                return espera;
+            }
+            if (cheios.compareAndSet(vaga, cheio, base + intervalo)) {
+                aceitas.increment();
+                return 0;
+            }
+        }
+    }
+
+    private int vaga(long chave, long agora) {
+        int origem = (int) (chave ^ (chave >>> 32)) & mascara;
+        for (int i = 0; i < SONDAGEM; i++) {
+            int vaga = (origem + i) & mascara;
+            if (chaves.get(vaga) == chave) {
+                return vaga;
+            }
+        }
+        for (int i = 0; i < SONDAGEM; i++) {
+            int vaga = (origem + i) & mascara;
+            long atual = chaves.get(vaga);
+            // vaga nunca usada ou com o balde já cheio: tomar não apaga estado de ninguém
+            if ((atual == VAZIA || cheios.get(vaga) - agora <= 0)
+                    && (chaves.compareAndSet(vaga, atual, chave) || chaves.get(vaga) == chave)) {
+                return vaga;
+            }
+        }
+        compartilhadas.increment();
+        return origem;
+    }
+
+    public long aceitas() {
+        return aceitas.sum();
+    }
+
+    public long recusadas() {
+        return recusadas.sum();
+    }
+
+    public Map<String, Number> estatisticas() {
+        long agora = relogio.getAsLong();
+        int ativos = 0;
+        for (int i = 0; i < cheios.length(); i++) {
+            if (cheios.get(i) - agora > 0) {
+                ativos++;
+            }
+        }
+        Map<String, Number> estatisticas = new LinkedHashMap<>();
+        estatisticas.put("taxaPorSegundo", 1_000_000_000.0 / intervalo);
+        estatisticas.put("rajada", tolerancia / intervalo + 1);
+        estatisticas.put("vagas", cheios.length());
+        estatisticas.put("baldesAtivos", ativos);
+        estatisticas.put("aceitas", aceitas.sum());
+        estatisticas.put("recusadas", recusadas.sum());
+        estatisticas.put("baldesCompartilhados", compartilhadas.sum());
+        return estatisticas;
+    }
+
+    // FNV-1a de 64 bits; 0 marca vaga vazia
+    private static long hash(String cliente) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < cliente.length(); i++) {
+            hash ^= cliente.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 29;
+        return hash == VAZIA ? 1 : hash;
+    }
+
+    // relógio que começa em 1 na criação: o 0 das vagas nunca usadas fica sempre no passado
+    private static LongSupplier relogioDesde(long origem) {
+        return () -> System.nanoTime() - origem + 1;
+    }
+}
@@ -0,0 +1,132 @@
+package com.gs.sea_kids.web;
+
+import com.gs.sea_kids.config.LimiteTaxaProperties;
+import com.gs.sea_kids.security.Sessao;
+import com.gs.sea_kids.security.SessaoTokens;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Um {@link LimiteTaxa} por grupo de rotas ({@code seakids.taxa.grupos}),
+ * com baldes por IP ou por login. Acima da taxa a requisição recebe 429 +
+ * {@code Retry-After} antes de qualquer outro filtro, sem chegar ao banco.
+ * No modo por login o token é verificado aqui (em memória, como no
+ * {@link com.gs.sea_kids.security.TokenFilter}); token inválido conta no
+ * balde do IP, senão cada header inventado ganharia um balde novo.
+ * O IP é o {@code getRemoteAddr()}: atrás de um proxy, configure
+ * {@code server.forward-headers-strategy} para que ele seja o do cliente.
+ */
+@Component
+@EnableConfigurationProperties(LimiteTaxaProperties.class)
+public class LimiteTaxaFilter extends OncePerRequestFilter implements Ordered {
+
+    private static final String BEARER = "Bearer ";
+
+    private record Grupo(String nome, List<String> rotas, Set<String> metodos, LimiteTaxaProperties.Chave chave, LimiteTaxa limite) {
+    }
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final List<Grupo> grupos = new ArrayList<>();
+    private final SessaoTokens sessaoTokens;
+
+    public LimiteTaxaFilter(LimiteTaxaProperties properties, SessaoTokens sessaoTokens) {
+        this.sessaoTokens = sessaoTokens;
+        properties.getGrupos().forEach((nome, grupo) -> grupos.add(new Grupo(
+                nome,
+                List.copyOf(grupo.getRotas()),
+                grupo.getMetodos().stream().map(String::toUpperCase).collect(Collectors.toUnmodifiableSet()),
+                grupo.getChave(),
+                new LimiteTaxa(grupo.getTaxa(), grupo.getRajada(), grupo.getCapacidade()))));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Grupo grupo = grupo(request.getMethod(), request.getRequestURI().substring(request.getContextPath().length()));
+        if (grupo != null) {
+            long espera = grupo.limite().tentar(cliente(request, grupo.chave()));
+            if (espera > 0) {
+                recusar(response, espera);
+                return;
+            }
+        }
+        chain.doFilter(request, response);
+    }
+
+    private String cliente(HttpServletRequest request, LimiteTaxaProperties.Chave chave) {
+        if (chave == LimiteTaxaProperties.Chave.TOKEN) {
+            String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+            if (authorization != null && authorization.regionMatches(true, 0, BEARER, 0, BEARER.length())) {
+                Sessao sessao = sessaoTokens.verificar(authorization.substring(BEARER.length()).trim());
+                if (sessao != null) {
+                    // o TokenFilter reaproveita a sessão em vez de verificar o HMAC de novo
+                    request.setAttribute(Sessao.ATRIBUTO, sessao);
+                    return "login:" + sessao.loginId();
+                }
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    private Grupo grupo(String metodo, String path) {
+        for (Grupo grupo : grupos) {
+            if (!grupo.metodos().isEmpty() && !grupo.metodos().contains(metodo)) {
+                continue;
+            }
+            for (String rota : grupo.rotas()) {
+                if (pathMatcher.match(rota, path)) {
+                    return grupo;
+                }
+            }
+        }
+        return null;
+    }
+
+    private void recusar(HttpServletResponse response, long esperaNanos) throws IOException {
+        long segundos = Math.max(1, (esperaNanos + 999_999_999L) / 1_000_000_000L);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(segundos));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        response.getWriter().write("{\"error\":\"Muitas requisições deste cliente; tente novamente em " + segundos + " s\"}");
+    }
+
+    public Map<String, Map<String, Number>> estatisticas() {
+        Map<String, Map<String, Number>> estatisticas = new LinkedHashMap<>();
+        for (Grupo grupo : grupos) {
+            estatisticas.put(grupo.nome(), grupo.limite().estatisticas());
+        }
+        return estatisticas;
+    }
+
+    public Map<String, LimiteTaxa> limites() {
+        Map<String, LimiteTaxa> limites = new LinkedHashMap<>();
+        for (Grupo grupo : grupos) {
+            limites.put(grupo.nome(), grupo.limite());
+        }
+        return limites;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,128 @@
+package com.gs.sea_kids.web;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Respostas já serializadas das páginas de listagem, limitadas pelo total de
+ * bytes (Caffeine, W-TinyLFU). Cada recurso tem uma geração: os controllers
+ * chamam {@link #invalidar} depois de gravar, e uma resposta montada antes da
+ * gravação não entra no cache mesmo que termine depois dela. Dentro de uma
+ * transação a invalidação se repete depois do commit, porque uma leitura
+ * feita entre a gravação e o commit ainda vê o dado antigo.
+ */
+@Component
+public class RespostaCache {
+
+    public static final String VIDEOS = "/videos";
+    public static final String CURIOSIDADES = "/curiosidades";
+
+    // chaves, cabeçalhos e o próprio nó do Caffeine
+    private static final int OVERHEAD = 256;
+
+    public record Chave(String recurso, int page, int size, String accept, String baseUri) {
+    }
+
+    public record Resposta(byte[] corpo, byte[] gzip, String contentType, String etag) {
+
+        int peso() {
+            return OVERHEAD + corpo.length + (gzip == null ? 0 : gzip.length);
+        }
+    }
+
+    private final Cache<Chave, Resposta> cache;
+    private final Map<String, AtomicLong> geracoes = new ConcurrentHashMap<>();
+    private final int gzipMinimo;
+
+    public RespostaCache(@Value("${seakids.respostas.max-bytes:64MB}") DataSize maxBytes,
+                         @Value("${seakids.respostas.ttl:5m}") Duration ttl,
+                         @Value("${seakids.respostas.gzip-minimo:1KB}") DataSize gzipMinimo) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes.toBytes())
+                .weigher((Chave chave, Resposta resposta) -> resposta.peso())
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.gzipMinimo = (int) gzipMinimo.toBytes();
+    }
+
+    public Resposta buscar(Chave chave) {
+        return cache.getIfPresent(chave);
+    }
+
+    /** Geração atual do recurso; deve ser lida antes de consultar o banco. */
+    public long geracao(String recurso) {
+        return contador(recurso).get();
+    }
+
+    public void guardar(Chave chave, byte[] corpo, String contentType, String etag, long geracao) {
+        Resposta resposta = new Resposta(corpo, corpo.length >= gzipMinimo ? gzip(corpo) : null, contentType, etag);
+        cache.put(chave, resposta);
+        // uma gravação aconteceu enquanto a resposta era montada: ela pode estar desatualizada
+        if (contador(chave.recurso()).get() != geracao) {
+            cache.asMap().remove(chave, resposta);
+        }
+    }
+
+    public void invalidar(String recurso) {
+        descartar(recurso);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    descartar(recurso);
+                }
+            });
+        }
+    }
+
+    private void descartar(String recurso) {
+        contador(recurso).incrementAndGet();
+        cache.asMap().keySet().removeIf(chave -> chave.recurso().equals(recurso));
+    }
+
+    public Cache<Chave, Resposta> cache() {
+        return cache;
+    }
+
+    public Map<String, Number> estatisticas() {
+        CacheStats stats = cache.stats();
+        Map<String, Number> estatisticas = new LinkedHashMap<>();
+        estatisticas.put("hits", stats.hitCount());
+        estatisticas.put("misses", stats.missCount());
+        estatisticas.put("despejos", stats.evictionCount());
+        estatisticas.put("elementos", cache.estimatedSize());
+        estatisticas.put("bytes", cache.policy().eviction().map(e -> e.weightedSize().orElse(0)).orElse(0L));
+        return estatisticas;
+    }
+
+    private AtomicLong contador(String recurso) {
+        return geracoes.computeIfAbsent(recurso, r -> new AtomicLong());
+    }
+
+    private static byte[] gzip(byte[] corpo) {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream(corpo.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(saida)) {
+            gzip.write(corpo);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return saida.toByteArray();
+    }
+}
@@ -0,0 +1,118 @@
+package com.gs.sea_kids.web;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Atende {@code GET /videos} e {@code GET /curiosidades} (só com {@code page}
+ * e {@code size}) direto do {@link RespostaCache}: num acerto não há JPA,
+ * links HATEOAS nem Jackson, só a cópia dos bytes (gzip, se o cliente aceitar).
+ * Roda depois do {@link com.gs.sea_kids.security.TokenFilter}.
+ */
+@Component
+public class RespostaCacheFilter extends OncePerRequestFilter implements Ordered {
+
+    private static final Set<String> RECURSOS = Set.of(RespostaCache.VIDEOS, RespostaCache.CURIOSIDADES);
+    private static final Set<String> PARAMETROS = Set.of("page", "size");
+    private static final String VARY = HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING;
+
+    @Autowired
+    private RespostaCache respostaCache;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RespostaCache.Chave chave = chave(request);
+        if (chave == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        RespostaCache.Resposta resposta = respostaCache.buscar(chave);
+        if (resposta != null) {
+            escrever(request, response, resposta);
+            return;
+        }
+
+        long geracao = respostaCache.geracao(chave.recurso());
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        wrapper.setHeader(HttpHeaders.VARY, VARY);
+        try {
+            chain.doFilter(request, wrapper);
+            if (wrapper.getStatus() == HttpServletResponse.SC_OK && !request.isAsyncStarted()) {
+                respostaCache.guardar(chave, wrapper.getContentAsByteArray(), wrapper.getContentType(),
+                        wrapper.getHeader(HttpHeaders.ETAG), geracao);
+            }
+        } finally {
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    private RespostaCache.Chave chave(HttpServletRequest request) {
+        if (!"GET".equals(request.getMethod())) {
+            return null;
+        }
+        String recurso = request.getRequestURI().substring(request.getContextPath().length());
+        if (!RECURSOS.contains(recurso) || !PARAMETROS.containsAll(request.getParameterMap().keySet())) {
+            return null;
+        }
+        try {
+            int page = inteiro(request.getParameter("page"), 0);
+            int size = inteiro(request.getParameter("size"), 10);
+            String accept = request.getHeader(HttpHeaders.ACCEPT);
+            // os links HATEOAS levam esquema, host e porta da requisição
+            String baseUri = ServletUriComponentsBuilder.fromServletMapping(request).build().toUriString();
+            return new RespostaCache.Chave(recurso, page, size, accept == null ? "*/*" : accept, baseUri);
+        } catch (NumberFormatException e) {
+            // o controller responde 400
+            return null;
+        }
+    }
+
+    private static int inteiro(String valor, int padrao) {
+        return valor == null ? padrao : Integer.parseInt(valor);
+    }
+
+    private void escrever(HttpServletRequest request, HttpServletResponse response, RespostaCache.Resposta resposta)
+            throws IOException {
+        response.setHeader(HttpHeaders.VARY, VARY);
+        if (resposta.etag() != null) {
+            response.setHeader(HttpHeaders.ETAG, resposta.etag());
+            if (ETags.matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), resposta.etag())) {
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return;
+            }
+        }
+        byte[] corpo = resposta.corpo();
+        if (resposta.gzip() != null && aceitaGzip(request)) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            corpo = resposta.gzip();
+        }
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(resposta.contentType());
+        response.setContentLength(corpo.length);
+        response.getOutputStream().write(corpo);
+    }
+
+    private static boolean aceitaGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.contains("gzip");
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 20;
+    }
+}
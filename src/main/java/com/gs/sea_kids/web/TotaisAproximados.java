@@ -0,0 +1,41 @@
+package com.gs.sea_kids.web;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * {@code count(*)} por tabela para o {@code ?withTotal=true} das listagens.
+ * Só a primeira consulta espera o banco; depois do intervalo de atualização o
+ * valor antigo continua sendo servido enquanto a nova contagem roda em
+ * segundo plano, então o total pode estar alguns segundos atrasado.
+ */
+@Component
+public class TotaisAproximados {
+
+    private final LoadingCache<JpaRepository<?, ?>, Long> totais;
+    private final Map<JpaRepository<?, ?>, LongSupplier> contagens = new ConcurrentHashMap<>();
+
+    public TotaisAproximados(@Value("${seakids.totais.atualizacao:1m}") Duration atualizacao) {
+        this.totais = Caffeine.newBuilder()
+                .refreshAfterWrite(atualizacao)
+                .build(repo -> contagens.get(repo).getAsLong());
+    }
+
+    public long total(JpaRepository<?, ?> repo) {
+        return total(repo, repo::count);
+    }
+
+    /** Para tabelas com exclusão lógica: {@code contagem} conta só as linhas visíveis na listagem. */
+    public long total(JpaRepository<?, ?> repo, LongSupplier contagem) {
+        contagens.putIfAbsent(repo, contagem);
+        return totais.get(repo);
+    }
+}
@@ -0,0 +1,118 @@
+package com.gs.sea_kids.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gs.sea_kids.repo.CuriosidadeRepo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.Arrays;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Download da imagem de uma curiosidade com o cabeçalho Range: inteira (200),
+ * um intervalo (206), os últimos N bytes e um intervalo fora da imagem (416).
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class CuriosidadeImagemTests {
+
+    private static final byte[] IMAGEM = new byte[1000];
+
+    static {
+        for (int i = 0; i < IMAGEM.length; i++) {
+            IMAGEM[i] = (byte) i;
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CuriosidadeRepo curiosidadeRepo;
+
+    private long curiosidade;
+
+    @BeforeEach
+    void criarCuriosidadeComImagem() throws Exception {
+        MvcResult resultado = mockMvc.perform(post("/curiosidades").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"titulo\":\"Cavalos-marinhos\",\"texto\":\"O macho carrega os filhotes\"}"))
+                .andExpect(status().isCreated())
+                .andReturn();
+        curiosidade = objectMapper.readTree(resultado.getResponse().getContentAsString()).get("id").asLong();
+
+        mockMvc.perform(put("/curiosidades/{id}/imagem", curiosidade).contentType(MediaType.IMAGE_PNG).content(IMAGEM))
+                .andExpect(status().isNoContent());
+    }
+
+    @AfterEach
+    void removerCuriosidade() {
+        // o banco é compartilhado com as outras classes de teste
+        curiosidadeRepo.deleteById(curiosidade);
+    }
+
+    @Test
+    void semRangeDevolveAImagemInteira() throws Exception {
+        mockMvc.perform(get("/curiosidades/{id}/imagem", curiosidade))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.IMAGE_PNG))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, IMAGEM.length))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_RANGE))
+                .andExpect(content().bytes(IMAGEM));
+    }
+
+    @Test
+    void rangeDevolveSoOIntervaloPedido() throws Exception {
+        mockMvc.perform(get("/curiosidades/{id}/imagem", curiosidade).header(HttpHeaders.RANGE, "bytes=100-199"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 100-199/1000"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 100))
+                .andExpect(content().bytes(Arrays.copyOfRange(IMAGEM, 100, 200)));
+    }
+
+    @Test
+    void rangeComSufixoDevolveOsUltimosBytes() throws Exception {
+        mockMvc.perform(get("/curiosidades/{id}/imagem", curiosidade).header(HttpHeaders.RANGE, "bytes=-50"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 950-999/1000"))
+                .andExpect(content().bytes(Arrays.copyOfRange(IMAGEM, 950, 1000)));
+    }
+
+    @Test
+    void rangeForaDaImagemDevolve416() throws Exception {
+        mockMvc.perform(get("/curiosidades/{id}/imagem", curiosidade).header(HttpHeaders.RANGE, "bytes=1000-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */1000"));
+    }
+
+    @Test
+    void curiosidadeSemImagemDevolve404() throws Exception {
+        MvcResult resultado = mockMvc.perform(post("/curiosidades").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"titulo\":\"Águas-vivas\",\"texto\":\"Não têm cérebro\"}"))
+                .andExpect(status().isCreated())
+                .andReturn();
+        long semImagem = objectMapper.readTree(resultado.getResponse().getContentAsString()).get("id").asLong();
+
+        mockMvc.perform(get("/curiosidades/{id}/imagem", semImagem))
+                .andExpect(status().isNotFound());
+
+        curiosidadeRepo.deleteById(semImagem);
+    }
+}
@@ -0,0 +1,256 @@
+package com.gs.sea_kids.controller;
+
+import com.gs.sea_kids.model.App;
+import com.gs.sea_kids.model.Cadastro;
+import com.gs.sea_kids.model.Cliente;
+import com.gs.sea_kids.model.Login;
+import com.gs.sea_kids.repo.AppRepo;
+import com.gs.sea_kids.repo.CadastroRepo;
+import com.gs.sea_kids.repo.ClienteRepo;
+import com.gs.sea_kids.repo.LoginRepo;
+import com.gs.sea_kids.security.SessaoTokens;
+import com.gs.sea_kids.support.SqlStatementCounter;
+import com.gs.sea_kids.web.ETags;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Fixa a quantidade de comandos SQL por endpoint: uma listagem de 20 logins
+ * precisa continuar custando um único SELECT, independente do número de
+ * cadastros e clientes referenciados.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryCountTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private AppRepo appRepo;
+
+    @Autowired
+    private ClienteRepo clienteRepo;
+
+    @Autowired
+    private CadastroRepo cadastroRepo;
+
+    @Autowired
+    private SessaoTokens sessaoTokens;
+
+    @Autowired
+    private LoginRepo loginRepo;
+
+    private Long loginId;
+    private Long cadastroId;
+    private Long clienteId;
+
+    @BeforeAll
+    void popularBanco() {
+        App app = new App();
+        app.setNome("SeaKids");
+        app.setVersao("1.0");
+        app = appRepo.save(app);
+
+        List<Cliente> clientes = new ArrayList<>();
+        List<Cadastro> cadastros = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Cliente cliente = new Cliente();
+            cliente.setNome("Cliente " + i);
+            cliente.setEmail("cliente" + i + "@seakids.com");
+            cliente.setApp(app);
+            clientes.add(cliente);
+
+            Cadastro cadastro = new Cadastro();
+            cadastro.setNome("Cadastro " + i);
+            cadastro.setEmail("cadastro" + i + "@seakids.com");
+            cadastro.setSenha("segredo" + i);
+            cadastro.setApp(app);
+            cadastro.setCliente(cliente);
+            cadastros.add(cadastro);
+        }
+        clientes = clienteRepo.saveAll(clientes);
+        cadastros = cadastroRepo.saveAll(cadastros);
+
+        List<Login> logins = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Login login = new Login();
+            login.setEmail("login" + i + "@seakids.com");
+            login.setSenha("segredo" + i);
+            login.setCadastro(cadastros.get(i % 5));
+            login.setCliente(clientes.get((i + 1) % 5));
+            logins.add(login);
+        }
+        loginId = loginRepo.saveAll(logins).get(0).getId();
+        cadastroId = cadastros.get(0).getId();
+        clienteId = clientes.get(0).getId();
+    }
+
+    @BeforeEach
+    void limparCaches() {
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void listagemDeLoginsUsaUmSelect() throws Exception {
+        SqlStatementCounter.reset();
+        mockMvc.perform(get("/logins").param("size", "100").param("expand", "cadastro,cliente"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.logins.length()").value(20))
+                .andExpect(jsonPath("$._embedded.logins[0].senha").doesNotExist())
+                .andExpect(jsonPath("$._embedded.logins[0].cadastro.nome").value("Cadastro 0"))
+                .andExpect(jsonPath("$._embedded.logins[0].cliente.nome").value("Cliente 1"));
+        assertEquals(1, SqlStatementCounter.count());
+    }
+
+    @Test
+    void listagemDeLoginsPorCursorUsaUmSelect() throws Exception {
+        SqlStatementCounter.reset();
+        mockMvc.perform(get("/logins").param("after", "0").param("size", "100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.logins.length()").value(20))
+                .andExpect(jsonPath("$._embedded.logins[0].cadastro").doesNotExist())
+                .andExpect(jsonPath("$._embedded.logins[0].cadastroId").isNumber());
+        assertEquals(1, SqlStatementCounter.count());
+    }
+
+    @Test
+    void paginaIntermediariaDeLoginsNaoContaAsLinhas() throws Exception {
+        SqlStatementCounter.reset();
+        mockMvc.perform(get("/logins").param("page", "1").param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.logins.length()").value(5))
+                .andExpect(jsonPath("$._links.next.href").exists())
+                .andExpect(jsonPath("$.page").doesNotExist());
+        assertEquals(1, SqlStatementCounter.count());
+
+        mockMvc.perform(get("/logins").param("page", "1").param("size", "5").param("withTotal", "true"))
+                .andExpect(jsonPath("$.page.totalElements").value(20));
+        SqlStatementCounter.reset();
+        mockMvc.perform(get("/logins").param("page", "3").param("size", "5").param("withTotal", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._links.next").doesNotExist())
+                .andExpect(jsonPath("$.page.totalElements").value(20));
+        assertEquals(1, SqlStatementCounter.count());
+    }
+
+    @Test
+    void detalheDeLoginUsaUmSelect() throws Exception {
+        SqlStatementCounter.reset();
+        mockMvc.perform(get("/logins/{id}", loginId).param("expand", "cadastro"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cadastro.nome").value("Cadastro 0"));
+        assertEquals(1, SqlStatementCounter.count());
+    }
+
+    @Test
+    void listagemDeCadastrosUsaUmSelect() throws Exception {
+        SqlStatementCounter.reset();
+        mockMvc.perform(get("/cadastros").param("size", "100").param("expand", "app"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.cadastroes.length()").value(5))
+                .andExpect(jsonPath("$._embedded.cadastroes[0].app.nome").value("SeaKids"));
+        assertEquals(1, SqlStatementCounter.count());
+    }
+
+    @Test
+    void detalheDeCadastroUsaUmSelect() throws Exception {
+        SqlStatementCounter.reset();
+        mockMvc.perform(get("/cadastros/{id}", cadastroId))
+                .andExpect(status().isOk());
+        assertEquals(1, SqlStatementCounter.count());
+    }
+
+    @Test
+    void listagemDeClientesUsaUmSelect() throws Exception {
+        SqlStatementCounter.reset();
+        mockMvc.perform(get("/clientes").param("size", "100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.clientes.length()").value(5));
+        assertEquals(1, SqlStatementCounter.count());
+    }
+
+    @Test
+    void patchDeClienteUsaUmUpdateCondicionadoARevisao() throws Exception {
+        Long revisao = clienteRepo.findRevisaoById(clienteId).orElseThrow();
+
+        SqlStatementCounter.reset();
+        mockMvc.perform(patch("/clientes/{id}", clienteId)
+                        .header(HttpHeaders.IF_MATCH, ETags.of(clienteId, revisao))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nome\": \"Cliente 0 alterado\"}"))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string(HttpHeaders.ETAG, ETags.of(clienteId, revisao + 1)));
+        assertEquals(1, SqlStatementCounter.count());
+
+        mockMvc.perform(patch("/clientes/{id}", clienteId)
+                        .header(HttpHeaders.IF_MATCH, ETags.of(clienteId, revisao))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nome\": \"Cliente 0\"}"))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(patch("/clientes/{id}", 999_999)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nome\": \"Cliente 0\"}"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(patch("/clientes/{id}", clienteId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"app\": 1, \"email\": \"invalido\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.app").exists())
+                .andExpect(jsonPath("$.email").value("Formato de email inválido"));
+        mockMvc.perform(patch("/clientes/{id}", clienteId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nome\": \"Cliente 0\"}"))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    void exclusaoDeLoginUsaUmDelete() throws Exception {
+        Login login = new Login();
+        login.setEmail("descartavel@seakids.com");
+        login.setSenha("segredo");
+        Long id = loginRepo.save(login).getId();
+
+        String token = "Bearer " + sessaoTokens.emitir(sessaoTokens.novaSessao(id, null));
+
+        SqlStatementCounter.reset();
+        mockMvc.perform(delete("/logins/{id}", id).header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isNoContent());
+        assertEquals(1, SqlStatementCounter.count());
+        // a exclusão revoga os tokens do login
+        mockMvc.perform(delete("/logins/{id}", id).header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void detalheDeClienteUsaUmSelect() throws Exception {
+        SqlStatementCounter.reset();
+        mockMvc.perform(get("/clientes/{id}", clienteId))
+                .andExpect(status().isOk());
+        assertEquals(1, SqlStatementCounter.count());
+    }
+}
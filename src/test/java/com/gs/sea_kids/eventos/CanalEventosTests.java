@@ -0,0 +1,120 @@
+package com.gs.sea_kids.eventos;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gs.sea_kids.dto.VideoDto;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CanalEventosTests {
+
+    private final CanalEventos canal = new CanalEventos(new ObjectMapper(), 3, 100, Duration.ofHours(1));
+
+    @AfterEach
+    void encerrar() {
+        canal.destroy();
+    }
+
+    @Test
+    void eventoSerializadoUmaVezVaiSoParaOsAssinantesDoApp() {
+        Saida primeira = new Saida();
+        Saida segunda = new Saida();
+        Saida outroApp = new Saida();
+        canal.registrar(1L, primeira, null);
+        canal.registrar(1L, segunda, null);
+        canal.registrar(2L, outroApp, null);
+
+        canal.distribuir(1L, "video", new VideoDto(7L, "Baleias", "https://videos.seakids.com/7", 1L, null));
+
+        String esperado = "event: video\ndata: {\"id\":7,\"titulo\":\"Baleias\",\"link\":\"https://videos.seakids.com/7\",\"appId\":1}\n\n";
+        assertEquals(esperado, primeira.texto());
+        assertEquals(esperado, segunda.texto());
+        assertSame(primeira.escritos.get(0), segunda.escritos.get(0));
+        assertEquals("", outroApp.texto());
+    }
+
+    @Test
+    void assinanteLentoEDesconectadoSemAtrasarOsOutros() {
+        Saida lenta = new Saida();
+        lenta.pronta = false;
+        Saida rapida = new Saida();
+        Assinante lento = canal.registrar(1L, lenta, null);
+        canal.registrar(1L, rapida, null);
+
+        for (int i = 0; i < 4; i++) {
+            canal.distribuir(1L, "curiosidade", i);
+        }
+
+        assertEquals(1, canal.conectados());
+        assertEquals(1, canal.desconectadosPorLentidao());
+        assertTrue(rapida.texto().endsWith("event: curiosidade\ndata: 3\n\n"));
+
+        // o socket volta a aceitar bytes, mas a conexão já foi encerrada
+        lenta.pronta = true;
+        lento.onWritePossible();
+        assertEquals("", lenta.texto());
+    }
+
+    @Test
+    void filaEsvaziaQuandoOSocketVoltaAAceitarBytes() {
+        Saida saida = new Saida();
+        saida.pronta = false;
+        Assinante assinante = canal.registrar(1L, saida, null);
+        assinante.enviar("retry: 5000\n\n".getBytes(StandardCharsets.UTF_8));
+        canal.heartbeat();
+        assertEquals("", saida.texto());
+
+        saida.pronta = true;
+        assinante.onWritePossible();
+        assertEquals("retry: 5000\n\n:\n\n", saida.texto());
+        assertTrue(saida.flushes > 0);
+    }
+
+    private static final class Saida extends ServletOutputStream {
+
+        private final List<byte[]> escritos = new ArrayList<>();
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private volatile boolean pronta = true;
+        private int flushes;
+
+        @Override
+        public boolean isReady() {
+            return pronta;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+        }
+
+        @Override
+        public void write(int b) {
+            bytes.write(b);
+        }
+
+        @Override
+        public void write(byte[] b) {
+            escritos.add(b);
+            bytes.writeBytes(b);
+        }
+
+        @Override
+        public void flush() {
+            flushes++;
+        }
+
+        String texto() {
+            return bytes.toString(StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.gs.sea_kids.expurgo;
+
+import com.gs.sea_kids.model.App;
+import com.gs.sea_kids.model.Cadastro;
+import com.gs.sea_kids.model.Cliente;
+import com.gs.sea_kids.model.Curiosidade;
+import com.gs.sea_kids.model.Login;
+import com.gs.sea_kids.model.Video;
+import com.gs.sea_kids.repo.AppRepo;
+import com.gs.sea_kids.repo.CadastroRepo;
+import com.gs.sea_kids.repo.ClienteRepo;
+import com.gs.sea_kids.repo.CuriosidadeRepo;
+import com.gs.sea_kids.repo.LoginRepo;
+import com.gs.sea_kids.repo.VideoRepo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.endsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ExpurgoAppsTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ExpurgoApps expurgoApps;
+
+    @Autowired
+    private AppRepo appRepo;
+
+    @Autowired
+    private ClienteRepo clienteRepo;
+
+    @Autowired
+    private CadastroRepo cadastroRepo;
+
+    @Autowired
+    private LoginRepo loginRepo;
+
+    @Autowired
+    private VideoRepo videoRepo;
+
+    @Autowired
+    private CuriosidadeRepo curiosidadeRepo;
+
+    @Test
+    void exclusaoResponde202EExpurgaEmLotesNaOrdemDasChaves() throws Exception {
+        App app = novoApp("Expurgado");
+        App outroApp = novoApp("Mantido");
+        Cliente clienteDeOutroApp = clienteRepo.save(novoCliente(outroApp, "mantido@seakids.com"));
+
+        List<Cliente> clientes = new ArrayList<>();
+        List<Cadastro> cadastros = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Cliente cliente = novoCliente(app, "expurgo" + i + "@seakids.com");
+            clientes.add(cliente);
+            Cadastro cadastro = new Cadastro();
+            cadastro.setNome("Cadastro " + i);
+            cadastro.setEmail("expurgo.cadastro" + i + "@seakids.com");
+            cadastro.setSenha("segredo");
+            cadastro.setApp(app);
+            cadastro.setCliente(cliente);
+            cadastros.add(cadastro);
+        }
+        clienteRepo.saveAll(clientes);
+        cadastroRepo.saveAll(cadastros);
+
+        List<Login> logins = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            Login login = new Login();
+            login.setEmail("expurgo.login" + i + "@seakids.com");
+            login.setSenha("segredo");
+            login.setCadastro(cadastros.get(i % 4));
+            // um login do app excluído apontando para o cliente de outro app também precisa sair
+            login.setCliente(i == 0 ? clienteDeOutroApp : clientes.get(i % 4));
+            logins.add(login);
+        }
+        loginRepo.saveAll(logins);
+
+        List<Video> videos = new ArrayList<>();
+        List<Curiosidade> curiosidades = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Video video = new Video();
+            video.setTitulo("Vídeo " + i);
+            video.setLink("https://videos.seakids.com/expurgo/" + i);
+            video.setApp(app);
+            videos.add(video);
+            Curiosidade curiosidade = new Curiosidade();
+            curiosidade.setTitulo("Curiosidade " + i);
+            curiosidade.setTexto("Texto " + i);
+            curiosidade.setApp(app);
+            curiosidades.add(curiosidade);
+        }
+        videoRepo.saveAll(videos);
+        curiosidadeRepo.saveAll(curiosidades);
+
+        ReflectionTestUtils.setField(expurgoApps, "lote", 2);
+        try {
+            mockMvc.perform(delete("/apps/{id}", app.getId()))
+                    .andExpect(status().isAccepted())
+                    .andExpect(header().string("Location", endsWith("/apps/" + app.getId() + "/exclusao")));
+            mockMvc.perform(get("/apps/{id}", app.getId()))
+                    .andExpect(status().isNotFound());
+
+            Map<String, Object> progresso = aguardar(app.getId());
+            assertEquals("concluída", progresso.get("situacao"));
+            assertEquals(Map.of("logins", 7L, "cadastros", 4L, "clientes", 4L, "videos", 5L, "curiosidades", 5L, "apps", 1L),
+                    progresso.get("removidos"));
+        } finally {
+            ReflectionTestUtils.setField(expurgoApps, "lote", 500);
+        }
+
+        assertTrue(appRepo.findById(app.getId()).isEmpty());
+        assertTrue(clienteRepo.findIdsDoApp(app.getId(), Limit.of(1)).isEmpty());
+        assertTrue(videoRepo.findIdsDoApp(app.getId(), Limit.of(1)).isEmpty());
+        assertTrue(clienteRepo.findById(clienteDeOutroApp.getId()).isPresent());
+        mockMvc.perform(get("/apps/{id}/exclusao", app.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.removidos.logins").value(7));
+
+        // o banco é compartilhado com as outras classes de teste
+        clienteRepo.delete(clienteDeOutroApp);
+        appRepo.delete(outroApp);
+    }
+
+    @Test
+    void repetirAExclusaoRetomaUmExpurgoQueFalhou() throws Exception {
+        App app = novoApp("Falha no expurgo");
+        Video video = new Video();
+        video.setTitulo("Vídeo");
+        video.setLink("https://videos.seakids.com/expurgo/falha");
+        video.setApp(app);
+        videoRepo.save(video);
+
+        // sem pausa configurada, o expurgo quebra logo depois do primeiro lote
+        ReflectionTestUtils.setField(expurgoApps, "pausa", null);
+        try {
+            mockMvc.perform(delete("/apps/{id}", app.getId()))
+                    .andExpect(status().isAccepted());
+            assertEquals("falhou", aguardar(app.getId()).get("situacao"));
+        } finally {
+            ReflectionTestUtils.setField(expurgoApps, "pausa", Duration.ZERO);
+        }
+        assertTrue(appRepo.findById(app.getId()).isPresent());
+
+        mockMvc.perform(delete("/apps/{id}", app.getId()))
+                .andExpect(status().isAccepted());
+        assertEquals("concluída", aguardar(app.getId()).get("situacao"));
+        assertTrue(appRepo.findById(app.getId()).isEmpty());
+
+        mockMvc.perform(delete("/apps/{id}", app.getId()))
+                .andExpect(status().isNotFound());
+    }
+
+    private Map<String, Object> aguardar(Long id) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 10_000;
+        while (true) {
+            Map<String, Object> progresso = expurgoApps.progresso(id);
+            Object situacao = progresso.get("situacao");
+            if (!"pendente".equals(situacao) && !"em andamento".equals(situacao) || System.currentTimeMillis() > limite) {
+                return progresso;
+            }
+            Thread.sleep(20);
+        }
+    }
+
+    private App novoApp(String nome) {
+        App app = new App();
+        app.setNome(nome);
+        return appRepo.save(app);
+    }
+
+    private static Cliente novoCliente(App app, String email) {
+        Cliente cliente = new Cliente();
+        cliente.setNome(email);
+        cliente.setEmail(email);
+        cliente.setApp(app);
+        return cliente;
+    }
+}
@@ -0,0 +1,62 @@
+package com.gs.sea_kids.hateoas;
+
+import com.gs.sea_kids.controller.AppController;
+import com.gs.sea_kids.controller.CuriosidadeController;
+import com.gs.sea_kids.controller.VideoController;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.hateoas.Link;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+class LinkFactoryTests {
+
+    private final LinkFactory linkFactory = new LinkFactory();
+
+    @BeforeEach
+    void bindRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/sea/videos");
+        request.setServerName("api.seakids.com");
+        request.setServerPort(8443);
+        request.setScheme("https");
+        request.setContextPath("/sea");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @AfterEach
+    void unbindRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void templatesGeramOsMesmosLinksQueMethodOn() {
+        String baseUri = linkFactory.baseUri();
+
+        ResourceLinks videos = linkFactory.linksFor(VideoController.class);
+        assertSameLink(linkTo(methodOn(VideoController.class).getVideo(42L, null, null)).withSelfRel(), videos.self(baseUri, 42L));
+        assertSameLink(linkTo(methodOn(VideoController.class).getVideos(3, 25, null, null, null, null, null)).withRel("videos"), videos.collection(baseUri, 3, 25));
+
+        ResourceLinks curiosidades = linkFactory.linksFor(CuriosidadeController.class);
+        assertSameLink(linkTo(methodOn(CuriosidadeController.class).getCuriosidade(7L, null, null)).withSelfRel(), curiosidades.self(baseUri, 7L));
+        assertSameLink(linkTo(methodOn(CuriosidadeController.class).getCuriosidades(0, 10, null, null, null, null, null)).withRel("curiosidades"),
+                curiosidades.collection(baseUri, 0, 10));
+
+        ResourceLinks apps = linkFactory.linksFor(AppController.class);
+        assertSameLink(linkTo(methodOn(AppController.class).getApps(1, 5, null, null, null)).withSelfRel(), apps.collection(baseUri, 1, 5).withSelfRel());
+    }
+
+    // methodOn anuncia os parâmetros opcionais nulos como template ({&after,view});
+    // os templates do ResourceLinks já geram o link expandido
+    private static void assertSameLink(Link expected, Link actual) {
+        Link expanded = expected.expand();
+        assertEquals(expanded.getHref(), actual.getHref());
+        assertEquals(expanded.getRel(), actual.getRel());
+        assertEquals(expanded.isTemplated(), actual.isTemplated());
+    }
+}
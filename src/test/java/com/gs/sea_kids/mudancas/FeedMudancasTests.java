@@ -0,0 +1,175 @@
+package com.gs.sea_kids.mudancas;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gs.sea_kids.dto.MudancaDto;
+import com.gs.sea_kids.dto.PaginaMudancas;
+import com.gs.sea_kids.model.App;
+import com.gs.sea_kids.model.Mudanca;
+import com.gs.sea_kids.repo.AppRepo;
+import com.gs.sea_kids.repo.VideoRepo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class FeedMudancasTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private FeedMudancas feedMudancas;
+
+    @Autowired
+    private AppRepo appRepo;
+
+    @Autowired
+    private VideoRepo videoRepo;
+
+    @Autowired
+    private RegistroMudancas registroMudancas;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void feedCompactaAsMudancasDeCadaItemEEntregaLapides() throws Exception {
+        long cursor = changes("/changes").get("cursor").asLong();
+
+        long video = criar("/videos", "{\"titulo\":\"Baleias\",\"link\":\"https://videos.seakids.com/baleias\"}");
+        mockMvc.perform(patch("/videos/{id}", video).contentType(MediaType.APPLICATION_JSON).content("{\"titulo\":\"Baleias-azuis\"}"))
+                .andExpect(status().isNoContent());
+        long curiosidade = criar("/curiosidades", "{\"titulo\":\"Polvos\",\"texto\":\"Têm três corações\"}");
+        mockMvc.perform(delete("/curiosidades/{id}", curiosidade))
+                .andExpect(status().isNoContent());
+
+        JsonNode pagina = changes("/changes?since=" + cursor);
+        JsonNode mudancas = pagina.get("mudancas");
+        assertEquals(2, mudancas.size());
+        assertEquals("video", mudancas.get(0).get("tipo").asText());
+        assertEquals(MudancaDto.UPSERT, mudancas.get(0).get("operacao").asText());
+        assertEquals("Baleias-azuis", mudancas.get(0).get("dados").get("titulo").asText());
+        assertEquals(curiosidade, mudancas.get(1).get("id").asLong());
+        assertEquals(MudancaDto.EXCLUSAO, mudancas.get(1).get("operacao").asText());
+        assertFalse(mudancas.get(1).has("dados"));
+        assertFalse(pagina.get("temMais").asBoolean());
+
+        // em dia: nada de novo, o cursor fica onde está
+        long novoCursor = pagina.get("cursor").asLong();
+        JsonNode vazia = changes("/changes?since=" + novoCursor);
+        assertEquals(0, vazia.get("mudancas").size());
+        assertEquals(novoCursor, vazia.get("cursor").asLong());
+
+        // o banco é compartilhado com as outras classes de teste
+        videoRepo.deleteById(video);
+    }
+
+    @Test
+    void longPollRespondeNoCommitSeguinte() throws Exception {
+        long cursor = feedMudancas.cabeca();
+        DeferredResult<PaginaMudancas> resultado = feedMudancas.aguardar(cursor, 10, Duration.ofSeconds(10));
+        assertFalse(resultado.hasResult());
+
+        long app = criar("/apps", "{\"nome\":\"Oceano\",\"versao\":\"1.0\"}");
+
+        long limite = System.currentTimeMillis() + 5_000;
+        while (!resultado.hasResult() && System.currentTimeMillis() < limite) {
+            Thread.sleep(10);
+        }
+        assertTrue(resultado.hasResult());
+        PaginaMudancas pagina = (PaginaMudancas) resultado.getResult();
+        assertEquals(1, pagina.mudancas().size());
+        assertEquals(app, pagina.mudancas().get(0).id());
+        assertEquals("app", pagina.mudancas().get(0).tipo());
+        assertEquals(0, feedMudancas.esperando());
+
+        appRepo.deleteById(app);
+    }
+
+    @Test
+    void rollbackDoMenorPisoAcordaQuemEsperaPorMudancasAtrasDele() throws Exception {
+        long cursor = feedMudancas.cabeca();
+        DeferredResult<PaginaMudancas> resultado = feedMudancas.aguardar(cursor, 10, Duration.ofSeconds(10));
+
+        CountDownLatch gravou = new CountDownLatch(1);
+        CountDownLatch desfazer = new CountDownLatch(1);
+        Thread longa = new Thread(() -> transactionTemplate.executeWithoutResult(status -> {
+            registroMudancas.upsert(Mudanca.Tipo.VIDEO, -1L);
+            gravou.countDown();
+            try {
+                desfazer.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            status.setRollbackOnly();
+        }));
+        longa.start();
+        assertTrue(gravou.await(5, TimeUnit.SECONDS));
+
+        App app = new App();
+        app.setNome("Recife");
+        app.setVersao("1.0");
+        long id = transactionTemplate.execute(status -> {
+            App salvo = appRepo.save(app);
+            registroMudancas.upsert(Mudanca.Tipo.APP, salvo.getId());
+            return salvo.getId();
+        });
+
+        // o commit acorda a espera, mas a mudança está atrás do piso da transação aberta
+        Thread.sleep(200);
+        assertFalse(resultado.hasResult());
+
+        desfazer.countDown();
+        longa.join();
+        long limite = System.currentTimeMillis() + 5_000;
+        while (!resultado.hasResult() && System.currentTimeMillis() < limite) {
+            Thread.sleep(10);
+        }
+        assertTrue(resultado.hasResult());
+        PaginaMudancas pagina = (PaginaMudancas) resultado.getResult();
+        assertEquals(1, pagina.mudancas().size());
+        assertEquals(id, pagina.mudancas().get(0).id());
+
+        appRepo.deleteById(id);
+    }
+
+    private long criar(String recurso, String corpo) throws Exception {
+        MvcResult resultado = mockMvc.perform(post(recurso).contentType(MediaType.APPLICATION_JSON).content(corpo))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readTree(resultado.getResponse().getContentAsString()).get("id").asLong();
+    }
+
+    private JsonNode changes(String uri) throws Exception {
+        MvcResult async = mockMvc.perform(get(uri)).andReturn();
+        MvcResult resultado = mockMvc.perform(asyncDispatch(async))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(resultado.getResponse().getContentAsString());
+    }
+}
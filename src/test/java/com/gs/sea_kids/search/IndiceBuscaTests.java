@@ -0,0 +1,77 @@
+package com.gs.sea_kids.search;
+
+import com.gs.sea_kids.dto.ResultadoBusca;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IndiceBuscaTests {
+
+    private final IndiceBusca indice = new IndiceBusca();
+
+    @Test
+    void buscaIgnoraAcentosPluraisEMaiusculas() {
+        indice.indexar(IndiceBusca.CURIOSIDADE, 1L, "Os tubarões do Atlântico", "Tubarões nadam sem parar.");
+        indice.indexar(IndiceBusca.VIDEO, 2L, "Baleias cantando", null);
+
+        assertEquals(List.of(1L), ids(indice.buscar("TUBARAO", 10)));
+        assertEquals(List.of(2L), ids(indice.buscar("baleia", 10)));
+        assertEquals(List.of(1L), ids(indice.buscar("atlantico", 10)));
+    }
+
+    @Test
+    void tituloPesaMaisQueOTexto() {
+        indice.indexar(IndiceBusca.CURIOSIDADE, 1L, "O oceano", "A baleia azul é o maior animal do oceano.");
+        indice.indexar(IndiceBusca.CURIOSIDADE, 2L, "A baleia azul", "O maior animal do oceano.");
+
+        List<ResultadoBusca> resultados = indice.buscar("baleia", 10);
+        assertEquals(List.of(2L, 1L), ids(resultados));
+        assertTrue(resultados.get(0).score() > resultados.get(1).score());
+    }
+
+    @Test
+    void atualizacaoERemocaoRefletemNaBusca() {
+        indice.indexar(IndiceBusca.VIDEO, 1L, "Polvo", null);
+        indice.indexar(IndiceBusca.VIDEO, 1L, "Lula gigante", null);
+        assertTrue(indice.buscar("polvo", 10).isEmpty());
+        assertEquals(List.of(1L), ids(indice.buscar("lula", 10)));
+
+        indice.remover(IndiceBusca.VIDEO, 1L);
+        assertTrue(indice.buscar("lula", 10).isEmpty());
+        assertEquals(0, indice.documentos());
+
+        indice.indexar(IndiceBusca.CURIOSIDADE, 1L, "Lula", null);
+        assertEquals(IndiceBusca.CURIOSIDADE, indice.buscar("lula", 10).get(0).tipo());
+    }
+
+    @Test
+    void dentroDeTransacaoSoAtualizaDepoisDoCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            indice.indexar(IndiceBusca.VIDEO, 1L, "Tartarugas marinhas", null);
+            assertTrue(indice.buscar("tartaruga", 10).isEmpty());
+        } finally {
+            // rollback: as sincronizações são descartadas sem afterCommit
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertTrue(indice.buscar("tartaruga", 10).isEmpty());
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            indice.indexar(IndiceBusca.VIDEO, 2L, "Tartarugas marinhas", null);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(List.of(2L), ids(indice.buscar("tartaruga", 10)));
+    }
+
+    private static List<Long> ids(List<ResultadoBusca> resultados) {
+        return resultados.stream().map(ResultadoBusca::id).toList();
+    }
+}
@@ -0,0 +1,140 @@
+package com.gs.sea_kids.security;
+
+import com.gs.sea_kids.model.Cadastro;
+import com.gs.sea_kids.model.Login;
+import com.jayway.jsonpath.JsonPath;
+import com.gs.sea_kids.repo.CadastroRepo;
+import com.gs.sea_kids.repo.LoginRepo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"seakids.hashing.custo=4", "seakids.token.metodos-protegidos=GET,PUT,PATCH,DELETE"})
+@AutoConfigureMockMvc
+class AutenticacaoTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private LoginRepo loginRepo;
+
+    @Autowired
+    private CadastroRepo cadastroRepo;
+
+    @Autowired
+    private SenhaHasher senhaHasher;
+
+    @Test
+    void senhaLegadaEmTextoPuroERegravadaComBcrypt() throws Exception {
+        Login login = new Login();
+        login.setEmail("legado@seakids.com");
+        login.setSenha("segredo");
+        Long id = loginRepo.save(login).getId();
+
+        autenticar("legado@seakids.com", "segredo")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.login.id").value(id))
+                .andExpect(jsonPath("$.login.senha").doesNotExist());
+
+        String armazenada = loginRepo.findById(id).orElseThrow().getSenha();
+        assertTrue(armazenada.startsWith("$2"));
+        assertFalse(senhaHasher.precisaRehash(armazenada));
+
+        autenticar("legado@seakids.com", "segredo").andExpect(status().isOk());
+        assertEquals(armazenada, loginRepo.findById(id).orElseThrow().getSenha());
+    }
+
+    @Test
+    void senhaErradaOuEmailDesconhecidoDevolve401() throws Exception {
+        Login login = new Login();
+        login.setEmail("bcrypt@seakids.com");
+        login.setSenha(senhaHasher.hash("correta"));
+        loginRepo.save(login);
+
+        autenticar("bcrypt@seakids.com", "errada").andExpect(status().isUnauthorized());
+        autenticar("ninguem@seakids.com", "correta").andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void tokenAutorizaRotasProtegidasAteOLogout() throws Exception {
+        Login login = new Login();
+        login.setEmail("token@seakids.com");
+        login.setSenha(senhaHasher.hash("segredo"));
+        Long id = loginRepo.save(login).getId();
+
+        String resposta = autenticar("token@seakids.com", "segredo").andReturn().getResponse().getContentAsString();
+        String token = JsonPath.read(resposta, "$.token");
+
+        mockMvc.perform(get("/logins/{id}", id)).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/logins/{id}", id).header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/logins/logout").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/logins/{id}", id).header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void tokenSoAlteraOProprioLoginEOCadastroDele() throws Exception {
+        Cadastro cadastro = new Cadastro();
+        cadastro.setNome("Dono");
+        cadastro.setEmail("dono.cadastro@seakids.com");
+        cadastro.setSenha("segredo");
+        cadastro = cadastroRepo.save(cadastro);
+        Login dono = new Login();
+        dono.setEmail("dono@seakids.com");
+        dono.setSenha(senhaHasher.hash("segredo"));
+        dono.setCadastro(cadastro);
+        Long donoId = loginRepo.save(dono).getId();
+        Login outro = new Login();
+        outro.setEmail("outro@seakids.com");
+        outro.setSenha("segredo");
+        Long outroId = loginRepo.save(outro).getId();
+
+        String resposta = autenticar("dono@seakids.com", "segredo").andReturn().getResponse().getContentAsString();
+        String token = "Bearer " + JsonPath.read(resposta, "$.token");
+
+        mockMvc.perform(patch("/cadastros/{id}", cadastro.getId()).contentType(MediaType.APPLICATION_JSON).content("{\"nome\":\"Outro nome\"}"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(patch("/cadastros/{id}", cadastro.getId()).header(HttpHeaders.AUTHORIZATION, token)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"nome\":\"Outro nome\"}"))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(delete("/logins/{id}", outroId).header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isForbidden());
+        assertTrue(loginRepo.existsById(outroId));
+
+        mockMvc.perform(delete("/logins/{id}", donoId).header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isNoContent());
+        loginRepo.deleteById(outroId);
+        cadastroRepo.deleteById(cadastro.getId());
+    }
+
+    private ResultActions autenticar(String email, String senha) throws Exception {
+        MvcResult result = mockMvc.perform(post("/logins/authenticate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"" + email + "\",\"senha\":\"" + senha + "\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
+}
@@ -0,0 +1,70 @@
+package com.gs.sea_kids.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SessaoTokensTests {
+
+    private static final byte[] CHAVE = new byte[32];
+
+    static {
+        Arrays.fill(CHAVE, (byte) 7);
+    }
+
+    private final SessaoTokens tokens = new SessaoTokens(CHAVE, Duration.ofHours(1), Clock.systemUTC());
+
+    @Test
+    void tokenValidoDevolveASessao() {
+        Sessao sessao = tokens.novaSessao(42L, 7L);
+        Sessao verificada = tokens.verificar(tokens.emitir(sessao));
+        assertEquals(sessao, verificada);
+        assertNull(tokens.verificar(tokens.emitir(tokens.novaSessao(43L, null))).clienteId());
+    }
+
+    @Test
+    void tokenAdulteradoOuDeOutraChaveERecusado() {
+        String token = tokens.emitir(tokens.novaSessao(42L, null));
+        char trocado = token.charAt(5) == 'A' ? 'B' : 'A';
+        assertNull(tokens.verificar(token.substring(0, 5) + trocado + token.substring(6)));
+        assertNull(tokens.verificar(token.substring(1)));
+
+        byte[] outraChave = CHAVE.clone();
+        outraChave[0] = 8;
+        assertNull(new SessaoTokens(outraChave, Duration.ofHours(1), Clock.systemUTC()).verificar(token));
+    }
+
+    @Test
+    void tokenExpiradoERecusado() {
+        Instant emissao = Instant.parse("2024-01-01T00:00:00Z");
+        SessaoTokens naEmissao = new SessaoTokens(CHAVE, Duration.ofMinutes(5), Clock.fixed(emissao, ZoneOffset.UTC));
+        String token = naEmissao.emitir(naEmissao.novaSessao(42L, null));
+        assertNotNull(naEmissao.verificar(token));
+
+        SessaoTokens depois = new SessaoTokens(CHAVE, Duration.ofMinutes(5), Clock.fixed(emissao.plus(Duration.ofMinutes(6)), ZoneOffset.UTC));
+        assertNull(depois.verificar(token));
+    }
+
+    @Test
+    void revogacaoPorTokenEPorLogin() {
+        Sessao primeira = tokens.novaSessao(42L, null);
+        Sessao segunda = tokens.novaSessao(42L, null);
+        String tokenPrimeira = tokens.emitir(primeira);
+        String tokenSegunda = tokens.emitir(segunda);
+
+        tokens.revogar(primeira);
+        assertNull(tokens.verificar(tokenPrimeira));
+        assertNotNull(tokens.verificar(tokenSegunda));
+
+        tokens.revogarLogin(42L);
+        assertNull(tokens.verificar(tokenSegunda));
+    }
+}
@@ -0,0 +1,81 @@
+package com.gs.sea_kids.validation;
+
+import com.gs.sea_kids.exception.EmailDuplicadoException;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FiltroEmailsTests {
+
+    @Test
+    void filtroNaoTemFalsoNegativoEFicaPertoDaTaxaConfigurada() {
+        CountingBloomFilter filtro = new CountingBloomFilter(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filtro.add("cliente" + i + "@seakids.com"));
+
+        IntStream.range(0, 10_000).forEach(i -> assertTrue(filtro.mightContain("cliente" + i + "@seakids.com")));
+        long falsosPositivos = IntStream.range(0, 100_000)
+                .filter(i -> filtro.mightContain("outro" + i + "@seakids.com"))
+                .count();
+        assertTrue(falsosPositivos < 2_000, "falsos positivos: " + falsosPositivos);
+    }
+
+    @Test
+    void remocaoLiberaOEmailSemAfetarOsDemais() {
+        CountingBloomFilter filtro = new CountingBloomFilter(1_000, 0.01);
+        filtro.add("a@seakids.com");
+        filtro.add("b@seakids.com");
+        filtro.remove("a@seakids.com");
+
+        assertFalse(filtro.mightContain("a@seakids.com"));
+        assertTrue(filtro.mightContain("b@seakids.com"));
+        assertEquals(1, filtro.elementos());
+    }
+
+    @Test
+    void bancoSoEConsultadoQuandoOFiltroDizTalvez() {
+        Set<String> banco = new HashSet<>(Set.of("existe@seakids.com"));
+        AtomicInteger consultas = new AtomicInteger();
+        FiltroEmails filtroEmails = new FiltroEmails(1_000, 0.01, email -> {
+            consultas.incrementAndGet();
+            return banco.contains(email);
+        });
+
+        // Antes da carga, toda verificação vai ao banco
+        assertFalse(filtroEmails.emUso("novo@seakids.com"));
+        assertEquals(1, consultas.get());
+
+        filtroEmails.carregar(Stream.of("Existe@SeaKids.com"));
+        assertFalse(filtroEmails.emUso("novo@seakids.com"));
+        assertEquals(1, consultas.get());
+
+        assertThrows(EmailDuplicadoException.class, () -> filtroEmails.exigirDisponivel(" EXISTE@seakids.com"));
+        assertEquals(2, consultas.get());
+    }
+
+    @Test
+    void remocaoDeUmEmailRepetidoNaoGeraFalsoNegativo() {
+        // duas linhas com o mesmo email, mas o filtro só contou uma (dois cadastros concorrentes, contador saturado)
+        Set<String> banco = new HashSet<>(Set.of("repetido@seakids.com"));
+        FiltroEmails filtroEmails = new FiltroEmails(1_000, 0.01, banco::contains);
+        filtroEmails.carregar(Stream.of("repetido@seakids.com"));
+
+        // a primeira linha é excluída, a segunda continua no banco
+        filtroEmails.remover("Repetido@seakids.com");
+        assertTrue(filtroEmails.emUso("repetido@seakids.com"));
+        assertEquals(1, filtroEmails.elementos());
+
+        banco.clear();
+        filtroEmails.remover("repetido@seakids.com");
+        assertFalse(filtroEmails.emUso("repetido@seakids.com"));
+        assertEquals(0, filtroEmails.elementos());
+    }
+}
@@ -0,0 +1,87 @@
+package com.gs.sea_kids.web;
+
+import com.gs.sea_kids.config.LimiteConcorrenciaProperties;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LimiteAdaptativoTests {
+
+    private static final long MS = 1_000_000;
+
+    @Test
+    void limiteCresceComLatenciaEstavelEEncolheQuandoElaSobe() {
+        LimiteAdaptativo limite = new LimiteAdaptativo(20, 2, 200, 1.5);
+        for (int i = 0; i < 1_000; i++) {
+            limite.registrar(10 * MS, limite.limite());
+        }
+        assertEquals(200, limite.limite());
+
+        for (int i = 0; i < 50; i++) {
+            limite.registrar(100 * MS, limite.limite());
+        }
+        assertTrue(limite.limite() < 50, "limite após degradação: " + limite.limite());
+
+        for (int i = 0; i < 5_000; i++) {
+            limite.registrar(10 * MS, limite.limite());
+        }
+        assertEquals(200, limite.limite());
+    }
+
+    @Test
+    void poucaCargaNaoAlteraOLimite() {
+        LimiteAdaptativo limite = new LimiteAdaptativo(20, 2, 200, 1.5);
+        for (int i = 0; i < 1_000; i++) {
+            limite.registrar(10 * MS, 1);
+        }
+        assertEquals(20, limite.limite());
+    }
+
+    @Test
+    void recusaAcimaDoLimiteAteUmaVagaSerLiberada() {
+        LimiteAdaptativo limite = new LimiteAdaptativo(3, 1, 10, 1.5);
+        assertTrue(limite.adquirir());
+        assertTrue(limite.adquirir());
+        assertTrue(limite.adquirir());
+        assertFalse(limite.adquirir());
+
+        limite.liberar(MS);
+        assertTrue(limite.adquirir());
+        assertEquals(4L, limite.estatisticas().get("aceitas"));
+        assertEquals(1L, limite.estatisticas().get("rejeitadas"));
+    }
+
+    @Test
+    void handlerAssincronoSeguraAVagaAteAResposta() throws Exception {
+        LimiteConcorrenciaProperties.Grupo grupo = new LimiteConcorrenciaProperties.Grupo();
+        grupo.setRotas(List.of("/logins/**"));
+        grupo.setMetodos(List.of("POST"));
+        grupo.setLimiteInicial(1);
+        grupo.setLimiteMinimo(1);
+        LimiteConcorrenciaProperties properties = new LimiteConcorrenciaProperties();
+        properties.getGrupos().put("escritas", grupo);
+        LimiteConcorrenciaFilter filtro = new LimiteConcorrenciaFilter(properties);
+        LimiteAdaptativo limite = filtro.limites().get("escritas");
+
+        // como o CompletableFuture do POST /logins/authenticate: a thread volta antes do bcrypt
+        FilterChain assincrona = (req, res) -> req.startAsync();
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/logins/authenticate");
+        request.setAsyncSupported(true);
+        filtro.doFilter(request, new MockHttpServletResponse(), assincrona);
+        assertEquals(1, limite.emAndamento());
+
+        MockHttpServletResponse recusada = new MockHttpServletResponse();
+        filtro.doFilter(new MockHttpServletRequest("POST", "/logins/authenticate"), recusada, assincrona);
+        assertEquals(503, recusada.getStatus());
+
+        request.getAsyncContext().complete();
+        assertEquals(0, limite.emAndamento());
+    }
+}
@@ -0,0 +1,129 @@
+package com.gs.sea_kids.web;
+
+import com.gs.sea_kids.config.LimiteTaxaProperties;
+import com.gs.sea_kids.security.SessaoTokens;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LimiteTaxaTests {
+
+    private static final long SEGUNDO = 1_000_000_000L;
+
+    @Test
+    void rajadaPassaEDepoisUmaFichaPorIntervalo() {
+        AtomicLong relogio = new AtomicLong(1);
+        LimiteTaxa limite = new LimiteTaxa(2, 5, 64, relogio::get);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limite.tentar("10.0.0.1"));
+        }
+        long espera = limite.tentar("10.0.0.1");
+        assertEquals(SEGUNDO / 2, espera);
+        // outro cliente tem o próprio balde
+        assertEquals(0, limite.tentar("10.0.0.2"));
+
+        relogio.addAndGet(espera);
+        assertEquals(0, limite.tentar("10.0.0.1"));
+        assertTrue(limite.tentar("10.0.0.1") > 0);
+        assertEquals(2, limite.recusadas());
+    }
+
+    @Test
+    void tabelaCheiaNuncaDeixaPassarMaisQueARajada() {
+        AtomicLong relogio = new AtomicLong(1);
+        LimiteTaxa limite = new LimiteTaxa(1, 3, 4, relogio::get);
+
+        int aceitas = 0;
+        for (int cliente = 0; cliente < 100; cliente++) {
+            for (int i = 0; i < 10; i++) {
+                if (limite.tentar("cliente-" + cliente) == 0) {
+                    aceitas++;
+                }
+            }
+        }
+        // 4 vagas compartilhadas: no máximo 4 baldes de 3 fichas
+        assertTrue(aceitas <= 12, "aceitas: " + aceitas);
+
+        // baldes cheios de novo liberam as vagas para clientes novos
+        relogio.addAndGet(10 * SEGUNDO);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limite.tentar("cliente-novo"));
+        }
+        assertTrue(limite.tentar("cliente-novo") > 0);
+    }
+
+    @Test
+    void casNaoPerdeNemDuplicaFichasEntreThreads() throws InterruptedException {
+        AtomicLong relogio = new AtomicLong(1);
+        LimiteTaxa limite = new LimiteTaxa(1, 1_000, 64, relogio::get);
+        AtomicInteger aceitas = new AtomicInteger();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 500; i++) {
+                    if (limite.tentar("10.0.0.1") == 0) {
+                        aceitas.incrementAndGet();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(1_000, aceitas.get());
+        assertEquals(3_000, limite.recusadas());
+    }
+
+    @Test
+    void porTokenSoOLoginVerificadoGanhaBaldeProprio() throws Exception {
+        LimiteTaxaProperties.Grupo grupo = new LimiteTaxaProperties.Grupo();
+        grupo.setRotas(List.of("/logins/authenticate"));
+        grupo.setChave(LimiteTaxaProperties.Chave.TOKEN);
+        grupo.setTaxa(0.001);
+        grupo.setRajada(2);
+        LimiteTaxaProperties properties = new LimiteTaxaProperties();
+        properties.getGrupos().put("autenticacao", grupo);
+        SessaoTokens sessaoTokens = new SessaoTokens(new byte[32], Duration.ofHours(1), Clock.systemUTC());
+        LimiteTaxaFilter filtro = new LimiteTaxaFilter(properties, sessaoTokens);
+
+        // um header diferente por requisição não escapa do balde do IP
+        assertEquals(200, status(filtro, "Bearer lixo-1"));
+        assertEquals(200, status(filtro, "Bearer lixo-2"));
+        assertEquals(429, status(filtro, "Bearer lixo-3"));
+        assertEquals(429, status(filtro, null));
+
+        String token = "Bearer " + sessaoTokens.emitir(sessaoTokens.novaSessao(7, null));
+        assertEquals(200, status(filtro, token));
+        assertEquals(200, status(filtro, token));
+        assertEquals(429, status(filtro, token));
+    }
+
+    private static int status(LimiteTaxaFilter filtro, String authorization) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/logins/authenticate");
+        request.setRemoteAddr("10.0.0.1");
+        if (authorization != null) {
+            request.addHeader(HttpHeaders.AUTHORIZATION, authorization);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain cadeia = (req, res) -> {
+        };
+        filtro.doFilter(request, response, cadeia);
+        return response.getStatus();
+    }
+}
@@ -0,0 +1,114 @@
+package com.gs.sea_kids.web;
+
+import com.gs.sea_kids.model.App;
+import com.gs.sea_kids.model.Video;
+import com.gs.sea_kids.repo.AppRepo;
+import com.gs.sea_kids.repo.VideoRepo;
+import com.gs.sea_kids.support.SqlStatementCounter;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RespostaCacheTests {
+
+    // tamanho de página exclusivo desta classe, para não dividir entradas com outros testes
+    private static final String SIZE = "7";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private AppRepo appRepo;
+
+    @Autowired
+    private VideoRepo videoRepo;
+
+    private Long appId;
+    private Long primeiroVideoId;
+
+    @BeforeAll
+    void popularBanco() {
+        App app = new App();
+        app.setNome("SeaKids");
+        app = appRepo.save(app);
+        appId = app.getId();
+
+        List<Video> videos = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            Video video = new Video();
+            video.setTitulo("Vídeo sobre o oceano número " + i);
+            video.setLink("https://videos.seakids.com/" + i);
+            video.setApp(app);
+            videos.add(video);
+        }
+        primeiroVideoId = videoRepo.saveAll(videos).get(0).getId();
+    }
+
+    @Test
+    void acertoNaoConsultaOBancoEServeGzipE304() throws Exception {
+        MvcResult primeira = mockMvc.perform(get("/videos").param("size", SIZE))
+                .andExpect(status().isOk())
+                .andReturn();
+        byte[] corpo = primeira.getResponse().getContentAsByteArray();
+        String etag = primeira.getResponse().getHeader(HttpHeaders.ETAG);
+
+        entityManagerFactory.getCache().evictAll();
+        SqlStatementCounter.reset();
+        MvcResult segunda = mockMvc.perform(get("/videos").param("size", SIZE).header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andReturn();
+        assertArrayEquals(corpo, new GZIPInputStream(new ByteArrayInputStream(segunda.getResponse().getContentAsByteArray())).readAllBytes());
+
+        mockMvc.perform(get("/videos").param("size", SIZE).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        assertEquals(0, SqlStatementCounter.count());
+    }
+
+    @Test
+    void gravacaoNoControllerInvalidaOCache() throws Exception {
+        String antes = mockMvc.perform(get("/videos").param("size", SIZE))
+                .andReturn().getResponse().getContentAsString();
+
+        mockMvc.perform(put("/videos/{id}", primeiroVideoId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"titulo\":\"Baleias jubarte\",\"link\":\"https://videos.seakids.com/baleias\",\"app\":{\"id\":" + appId + "}}"))
+                .andExpect(status().isOk());
+
+        SqlStatementCounter.reset();
+        String depois = mockMvc.perform(get("/videos").param("size", SIZE))
+                .andReturn().getResponse().getContentAsString();
+        assertNotEquals(antes, depois);
+        assertTrue(depois.contains("Baleias jubarte"));
+        assertTrue(SqlStatementCounter.count() > 0);
+    }
+}